@@ -0,0 +1,134 @@
+package com.java.benchmark;
+
+import com.java.frame.MyApplicationBoot;
+import com.java.frame.factory.MyBeanFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在当前进程中启动 {@link MyApplicationBoot}，数据源为 benchmark 模块 application.properties 中的 H2 内存数据库，
+ * 启动时执行 benchmark-schema.sql 建表并写入 1000 行数据
+ * <p>
+ * {@link MyBeanFactory#init(Class)} 在服务器关闭前不会返回，这里在守护线程中启动，轮询端口直到可以建立连接。
+ * 同一进程中多个基准共用一个实例，bean 注册表在服务器启动前已经构建好，端口可以连接后即可通过 {@link #getFactory()} 获取 bean
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 12:30
+ */
+public class BenchmarkServer {
+
+    private static final long START_TIMEOUT_SECONDS = 60;
+
+    private static BenchmarkServer instance;
+
+    private final MyBeanFactory factory = new MyBeanFactory();
+
+    private final int port;
+
+    private final String context;
+
+    private final Thread thread;
+
+    private volatile Throwable failure;
+
+    private BenchmarkServer(Properties properties) {
+        this.port = Integer.parseInt(properties.getProperty("myport.port", "8081").trim());
+        String context = properties.getProperty("myport.context", "").trim().replaceAll("^/+|/+$", "");
+        this.context = context.isEmpty() ? "" : "/" + context;
+        this.thread = new Thread(() -> {
+            try {
+                factory.init(MyApplicationBoot.class);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }, "benchmark-server");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 启动服务器，已经启动时直接返回
+     */
+    public static synchronized BenchmarkServer start() {
+        if (instance == null) {
+            // 基准每次运行的 classpath 不同，不保留配置快照，也不输出启动报告
+            System.setProperty("my.config.snapshot", System.getProperty("my.config.snapshot", "none"));
+            System.setProperty("my.startup.report", System.getProperty("my.startup.report", "none"));
+            BenchmarkServer server = new BenchmarkServer(loadProperties());
+            server.thread.start();
+            server.awaitStarted();
+            instance = server;
+        }
+        return instance;
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("application.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read application.properties", e);
+        }
+        return properties;
+    }
+
+    private void awaitStarted() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(START_TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            if (failure != null) {
+                throw new IllegalStateException("MyApplicationBoot failed to start", failure);
+            }
+            if (!thread.isAlive()) {
+                throw new IllegalStateException("MyApplicationBoot stopped before the server accepted connections");
+            }
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+                return;
+            } catch (IOException e) {
+                sleep();
+            }
+        }
+        throw new IllegalStateException("Server did not accept connections on port " + port + " within " + START_TIMEOUT_SECONDS + "s");
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the server", e);
+        }
+    }
+
+    public MyBeanFactory getFactory() {
+        return factory;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * 带请求上下文的完整地址
+     *
+     * @param path 以 / 开头的路径，如 /user/test
+     */
+    public String url(String path) {
+        return "http://127.0.0.1:" + port + context + path;
+    }
+
+    /**
+     * 单独启动服务器，供其他进程中的 {@link HttpLoadGenerator} 压测
+     */
+    public static void main(String[] args) throws InterruptedException {
+        BenchmarkServer server = start();
+        System.out.println(" benchmark server ready : " + server.url("/user/test"));
+        server.thread.join();
+    }
+}
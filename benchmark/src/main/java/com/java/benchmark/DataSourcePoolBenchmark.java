@@ -0,0 +1,83 @@
+package com.java.benchmark;
+
+import com.java.frame.jdbc.DataSource;
+import com.java.frame.jdbc.DataSourcePool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池竞争测试，H2 内存数据库，线程数从 1 到 64，连接数固定为 maxActive
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 15:10
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DataSourcePoolBenchmark {
+
+    @Param({"10"})
+    public String maxActive;
+
+    private DataSourcePool pool;
+
+    @Setup
+    public void setup() {
+        DataSource dataSource = new DataSource();
+        dataSource.setClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMinIdle(maxActive);
+        dataSource.setMaxActive(maxActive);
+        dataSource.setMaxWait("30000");
+        pool = new DataSourcePool(dataSource);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * 仅借出、归还
+     */
+    @Benchmark
+    public Connection borrow() throws SQLException {
+        Connection connection = pool.getConnection();
+        pool.close(connection);
+        return connection;
+    }
+
+    /**
+     * 借出后执行一次简单查询
+     */
+    @Benchmark
+    public int borrowAndQuery() throws SQLException {
+        Connection connection = pool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement("select 1");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        } finally {
+            pool.close(connection);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            Options opt = new OptionsBuilder().include(DataSourcePoolBenchmark.class.getSimpleName()).forks(1).warmupIterations(3)
+                    .measurementIterations(5).threads(threads).build();
+            new Runner(opt).run();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.java.benchmark;
+
+import com.java.frame.handler.MyRequestHandler;
+import com.java.frame.http.MyRequestHandlerPlus;
+import com.java.frame.http.MyRoute;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * controller 方法调用开销对比：
+ * <ul>
+ * <li>reflectLookup：原先的调用方式，每次请求 Class.forName、getDeclaredMethod、setAccessible 后 Method.invoke</li>
+ * <li>reflectCached：缓存 Method，仅保留 Method.invoke 与逐个参数的类型 switch</li>
+ * <li>methodHandle：{@link MyRoute} 预先链接的 MethodHandle 与参数转换器</li>
+ * </ul>
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 11:30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HandlerInvokeBenchmark {
+
+    public static class DemoController {
+
+        public String getUser(Integer id, String name, Long age) {
+            return name;
+        }
+    }
+
+    private final MyRequestHandlerPlus plus = new MyRequestHandlerPlus();
+
+    private final Map<String, Object> params = new HashMap<>();
+
+    private DemoController controller;
+
+    private MyRequestHandler handler;
+
+    private Method method;
+
+    private MyRoute route;
+
+    @Setup
+    public void setup() throws Exception {
+        controller = new DemoController();
+        handler = new MyRequestHandler();
+        handler.setControllerName(DemoController.class.getName());
+        handler.setMethodName("getUser");
+        handler.setMethodParamTypes(new Class<?>[]{Integer.class, String.class, Long.class});
+        handler.getList().add("id");
+        handler.getList().add("name");
+        handler.getList().add("age");
+        handler.setUrl("/user/getUser");
+
+        method = DemoController.class.getDeclaredMethod("getUser", handler.getMethodParamTypes());
+        method.setAccessible(true);
+        route = new MyRoute(handler.getUrl(), handler, controller, method, plus);
+
+        params.put("id", "1");
+        params.put("name", "xuweizhi");
+        params.put("age", "18");
+    }
+
+    @Benchmark
+    public Object reflectLookup() throws Exception {
+        Class<?> clazz = Class.forName(handler.getControllerName());
+        Class<?>[] types = handler.getMethodParamTypes();
+        Method m = clazz.getDeclaredMethod(handler.getMethodName(), types);
+        m.setAccessible(true);
+        return m.invoke(controller, convert(types));
+    }
+
+    @Benchmark
+    public Object reflectCached() throws Exception {
+        return method.invoke(controller, convert(handler.getMethodParamTypes()));
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+        return route.invoke(params);
+    }
+
+    private Object[] convert(Class<?>[] types) throws Exception {
+        List<String> list = handler.getList();
+        Object[] param = new Object[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            String name = list.get(i);
+            param[i] = plus.getValue(types[i], params.get(name), params.containsKey(name));
+        }
+        return param;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(HandlerInvokeBenchmark.class.getSimpleName()).forks(1).warmupIterations(5)
+                .measurementIterations(5).threads(1).build();
+        new Runner(opt).run();
+    }
+}
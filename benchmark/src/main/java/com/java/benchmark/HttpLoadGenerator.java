@@ -0,0 +1,230 @@
+package com.java.benchmark;
+
+import com.java.frame.http.MyLatencyHistogram;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 Netty 客户端的闭环压测：固定数量的长连接，每个连接收到上一个响应后立即发送下一个请求，
+ * 按并发数逐档运行，输出每一档的吞吐量与延迟分位数
+ * <p>
+ * 闭环模型下并发数就是服务端同时处理的请求数上限，延迟是单个请求从写出到收到完整响应的时间，
+ * 服务端变慢时发送速率随之下降，不会像开环压测那样计入排队等待的时间
+ * <p>
+ * 参数：[url] [并发数，逗号分隔] [每档测量秒数] [每档预热秒数]，url 为空时在本进程中启动 {@link BenchmarkServer} 并压测 /user/test
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 12:30
+ */
+public class HttpLoadGenerator {
+
+    private final URI uri;
+
+    private final String target;
+
+    private final EventLoopGroup group;
+
+    private HttpLoadGenerator(URI uri) {
+        this.uri = uri;
+        this.target = uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+        this.group = new NioEventLoopGroup(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * 运行一档并发
+     */
+    private Result run(int concurrency, long warmupSeconds, long durationSeconds) throws InterruptedException {
+        Level level = new Level();
+        CountDownLatch connected = new CountDownLatch(concurrency);
+        Bootstrap bootstrap = new Bootstrap().group(group).channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new HttpClientCodec(), new HttpObjectAggregator(16 * 1024 * 1024),
+                                new ClosedLoopHandler(level, connected));
+                    }
+                });
+        List<Channel> channels = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            channels.add(bootstrap.connect(uri.getHost(), port()).sync().channel());
+        }
+        if (!connected.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Connections were not established within 10s");
+        }
+
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        level.histogram = new MyLatencyHistogram();
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        MyLatencyHistogram histogram = level.histogram;
+        level.histogram = null;
+        long elapsed = System.nanoTime() - start;
+        level.running = false;
+
+        for (Channel channel : channels) {
+            channel.close().sync();
+        }
+        return new Result(concurrency, histogram, level.errors.sum(), elapsed);
+    }
+
+    private int port() {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private FullHttpRequest newRequest() {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, target);
+        request.headers().set(HttpHeaderNames.HOST, uri.getHost());
+        request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        return request;
+    }
+
+    /**
+     * 一档并发的共享状态，测量期间 histogram 不为空
+     */
+    private static final class Level {
+
+        private volatile boolean running = true;
+
+        private volatile MyLatencyHistogram histogram;
+
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * 每个连接同一时刻只有一个请求在途，收到响应后在同一个 EventLoop 中发送下一个
+     */
+    private final class ClosedLoopHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+        private final Level level;
+
+        private final CountDownLatch connected;
+
+        private long sent;
+
+        ClosedLoopHandler(Level level, CountDownLatch connected) {
+            this.level = level;
+            this.connected = connected;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            connected.countDown();
+            send(ctx);
+            super.channelActive(ctx);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            long latency = System.nanoTime() - sent;
+            MyLatencyHistogram histogram = level.histogram;
+            if (histogram != null) {
+                if (response.status().code() >= HttpResponseStatus.BAD_REQUEST.code()) {
+                    level.errors.increment();
+                } else {
+                    histogram.record(latency);
+                }
+            }
+            if (level.running) {
+                send(ctx);
+            }
+        }
+
+        private void send(ChannelHandlerContext ctx) {
+            sent = System.nanoTime();
+            ctx.writeAndFlush(newRequest());
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            if (level.running) {
+                // 服务端关闭了连接，这一档的实际并发数会减少
+                level.errors.increment();
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            level.errors.increment();
+            ctx.close();
+        }
+    }
+
+    private static final class Result {
+
+        private final int concurrency;
+
+        private final MyLatencyHistogram histogram;
+
+        private final long errors;
+
+        private final long elapsedNanos;
+
+        Result(int concurrency, MyLatencyHistogram histogram, long errors, long elapsedNanos) {
+            this.concurrency = concurrency;
+            this.histogram = histogram;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        static String header() {
+            return String.format("%11s %10s %7s %12s %9s %9s %9s %9s %9s %9s",
+                    "concurrency", "requests", "errors", "req/s", "mean(ms)", "p50", "p90", "p99", "p99.9", "max");
+        }
+
+        @Override
+        public String toString() {
+            long count = histogram.getCount();
+            double mean = count == 0 ? 0 : histogram.getSum() / (double) count;
+            return String.format("%11d %10d %7d %12.1f %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f",
+                    concurrency, count, errors, count * 1e9 / elapsedNanos, millis(mean),
+                    millis(histogram.valueAtPercentile(50)), millis(histogram.valueAtPercentile(90)),
+                    millis(histogram.valueAtPercentile(99)), millis(histogram.valueAtPercentile(99.9)), millis(histogram.getMax()));
+        }
+
+        private static double millis(double nanos) {
+            return nanos / 1e6;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0].trim() : "";
+        String levels = args.length > 1 ? args[1] : "1,4,16,64,256";
+        long duration = args.length > 2 ? Long.parseLong(args[2].trim()) : 10;
+        long warmup = args.length > 3 ? Long.parseLong(args[3].trim()) : 3;
+        boolean inProcess = url.isEmpty();
+        if (inProcess) {
+            url = BenchmarkServer.start().url("/user/test");
+        }
+
+        HttpLoadGenerator generator = new HttpLoadGenerator(URI.create(url));
+        System.out.println(" load test : GET " + url + ", warmup " + warmup + "s, duration " + duration + "s per level");
+        System.out.println(Result.header());
+        try {
+            for (String level : levels.split(",")) {
+                System.out.println(generator.run(Integer.parseInt(level.trim()), warmup, duration));
+            }
+        } finally {
+            generator.group.shutdownGracefully();
+        }
+        if (inProcess) {
+            // 服务器的 EventLoop 不是守护线程
+            System.exit(0);
+        }
+    }
+}
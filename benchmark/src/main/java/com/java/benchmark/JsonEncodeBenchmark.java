@@ -0,0 +1,89 @@
+package com.java.benchmark;
+
+import com.java.frame.http.MyByteBufWriter;
+import com.java.frame.model.User;
+import com.java.frame.util.GsonUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 返回值 json 编码开销，rows 为返回的实体个数：
+ * <ul>
+ * <li>string：先序列化为 String，再按 UTF-8 复制到 ByteBuf，即响应直接写入 ByteBuf 之前的做法</li>
+ * <li>byteBuf：{@link GsonUtil#toJson(Object, java.io.Writer)} 通过 {@link MyByteBufWriter} 直接写入池化的 ByteBuf</li>
+ * </ul>
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 12:30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class JsonEncodeBenchmark {
+
+    @Param({"1", "100"})
+    public int rows;
+
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+    private Object payload;
+
+    @Setup
+    public void setup() {
+        List<User> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            User user = new User();
+            user.setUId(i);
+            user.setAddress("北京市朝阳区" + i);
+            user.setApartment("apartment" + i);
+            user.setCreateTime(LocalDateTime.of(2026, 10, 19, 12, 30));
+            user.setPassword("password" + i);
+            user.setPhoneNumber("1380000" + i);
+            user.setRole(i % 3);
+            user.setUsername("user" + i);
+            users.add(user);
+        }
+        payload = rows == 1 ? users.get(0) : users;
+    }
+
+    @Benchmark
+    public int string() {
+        ByteBuf buf = Unpooled.copiedBuffer(GsonUtil.getGson().toJson(payload), StandardCharsets.UTF_8);
+        try {
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public int byteBuf() throws IOException {
+        ByteBuf buf = allocator.directBuffer();
+        try {
+            GsonUtil.toJson(payload, new MyByteBufWriter(buf));
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(JsonEncodeBenchmark.class.getSimpleName()).forks(1).warmupIterations(5)
+                .measurementIterations(5).threads(1).build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.java.benchmark;
+
+import com.java.frame.mapper.Mapper;
+import com.java.frame.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 {@link BenchmarkServer} 启动的应用中的 mapper 代理查询 H2 内存数据库，测量 sql 参数绑定、连接池、
+ * 预编译语句缓存与结果集映射的完整开销，user 表中有 1000 行：
+ * <ul>
+ * <li>selectOne：按主键与地址查询一行</li>
+ * <li>selectAll：查询全部 1000 行并映射为 List</li>
+ * <li>eachRow：游标查询，逐行回调，不保留结果</li>
+ * </ul>
+ * 只比较映射本身的开销见 {@link RowMapperBenchmark}
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 12:30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class MapperQueryBenchmark {
+
+    private Mapper mapper;
+
+    @Setup
+    public void setup() {
+        mapper = BenchmarkServer.start().getFactory().getBean(Mapper.class);
+    }
+
+    @Benchmark
+    public User selectOne() {
+        return mapper.getUserB(1, "address1");
+    }
+
+    @Benchmark
+    public List<User> selectAll() {
+        return mapper.getUserC();
+    }
+
+    @Benchmark
+    public long eachRow(Blackhole blackhole) {
+        return mapper.eachUser(blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(MapperQueryBenchmark.class.getSimpleName()).forks(1).warmupIterations(5)
+                .measurementIterations(5).threads(1).build();
+        new Runner(opt).run();
+    }
+}
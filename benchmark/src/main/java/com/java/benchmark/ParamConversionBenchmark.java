@@ -0,0 +1,132 @@
+package com.java.benchmark;
+
+import com.java.frame.http.MyJsonBinder;
+import com.java.frame.http.MyParamConverter;
+import com.java.frame.http.MyRequestHandlerPlus;
+import com.java.frame.model.User;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求参数转换开销：
+ * <ul>
+ * <li>simple：query string 参数按路由注册时生成的转换器转换为 Integer、Long、String、Boolean</li>
+ * <li>simpleLookup：每次按参数类型查找转换器后再转换，即路由预先生成转换器之前的做法</li>
+ * <li>date：Date 与 LocalDateTime 参数</li>
+ * <li>jsonWholeBody：只有一个实体参数，整个 json 请求体绑定到该参数</li>
+ * <li>jsonFields：json 对象的字段按名称绑定到多个参数</li>
+ * </ul>
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 12:30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ParamConversionBenchmark {
+
+    private static final String USER_JSON = "{\"uId\":1,\"address\":\"beijing\",\"apartment\":\"a-101\",\"password\":\"123456\","
+            + "\"phoneNumber\":\"13800000000\",\"role\":2,\"username\":\"xuweizhi\"}";
+
+    private final MyRequestHandlerPlus plus = new MyRequestHandlerPlus();
+
+    private final Class<?>[] simpleTypes = {Integer.class, Long.class, String.class, Boolean.class};
+
+    private final String[] simpleValues = {"18", "1571457600000", "xuweizhi", "true"};
+
+    private final Object[] simpleArgs = new Object[simpleTypes.length];
+
+    private MyParamConverter[] simpleConverters;
+
+    private MyParamConverter dateConverter;
+
+    private MyParamConverter localDateTimeConverter;
+
+    private MyJsonBinder wholeBody;
+
+    private MyJsonBinder fields;
+
+    private ByteBuf userJson;
+
+    private ByteBuf fieldsJson;
+
+    @Setup
+    public void setup() {
+        simpleConverters = new MyParamConverter[simpleTypes.length];
+        for (int i = 0; i < simpleTypes.length; i++) {
+            simpleConverters[i] = plus.getConverter(simpleTypes[i]);
+        }
+        dateConverter = plus.getConverter(Date.class);
+        localDateTimeConverter = plus.getConverter(LocalDateTime.class);
+
+        wholeBody = binder(new String[]{"user"}, new Class<?>[]{User.class});
+        fields = binder(new String[]{"id", "name", "age", "user"}, new Class<?>[]{Integer.class, String.class, Long.class, User.class});
+        userJson = json(USER_JSON);
+        fieldsJson = json("{\"id\":1,\"name\":\"xuweizhi\",\"age\":18,\"user\":" + USER_JSON + "}");
+    }
+
+    private MyJsonBinder binder(String[] names, Class<?>[] types) {
+        MyParamConverter[] converters = new MyParamConverter[types.length];
+        for (int i = 0; i < types.length; i++) {
+            converters[i] = plus.getConverter(types[i]);
+        }
+        return MyJsonBinder.create(names, types, types.clone(), converters);
+    }
+
+    private static ByteBuf json(String json) {
+        return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public Object[] simple() {
+        for (int i = 0; i < simpleConverters.length; i++) {
+            simpleArgs[i] = simpleConverters[i].convert(simpleValues[i]);
+        }
+        return simpleArgs;
+    }
+
+    @Benchmark
+    public Object[] simpleLookup() throws Exception {
+        for (int i = 0; i < simpleTypes.length; i++) {
+            simpleArgs[i] = plus.getValue(simpleTypes[i], simpleValues[i], true);
+        }
+        return simpleArgs;
+    }
+
+    @Benchmark
+    public Object date() {
+        dateConverter.convert("2026-10-19 12:30:00");
+        return localDateTimeConverter.convert("2026-10-19 12:30:00");
+    }
+
+    @Benchmark
+    public Object[] jsonWholeBody() throws Exception {
+        Object[] args = new Object[1];
+        wholeBody.bind(userJson.duplicate(), args);
+        return args;
+    }
+
+    @Benchmark
+    public Object[] jsonFields() throws Exception {
+        Object[] args = new Object[4];
+        fields.bind(fieldsJson.duplicate(), args);
+        return args;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ParamConversionBenchmark.class.getSimpleName()).forks(1).warmupIterations(5)
+                .measurementIterations(5).threads(1).build();
+        new Runner(opt).run();
+    }
+}
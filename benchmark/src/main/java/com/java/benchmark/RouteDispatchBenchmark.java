@@ -0,0 +1,146 @@
+package com.java.benchmark;
+
+import com.java.frame.auto.MyRequestMapping;
+import com.java.frame.handler.MyRequestHandler;
+import com.java.frame.http.*;
+import com.java.frame.model.User;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求分发的完整路径：在 EmbeddedChannel 上组装与 HttpServerInitializer 相同的 pipeline，写入原始请求字节，
+ * 经过 http 解码、聚合、路由查找、参数转换、controller 调用、json 编码，读出响应字节。不经过网络与线程切换，
+ * 只测量框架在 EventLoop 上的开销
+ * <ul>
+ * <li>text：无参数，返回字符串</li>
+ * <li>query：query string 中的三个参数转换为 Integer、String、Long</li>
+ * <li>json：json 请求体绑定到实体参数，返回实体</li>
+ * <li>unmatched：未匹配到路由与静态资源</li>
+ * </ul>
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 12:30
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class RouteDispatchBenchmark {
+
+    public static class BenchController {
+
+        public String hello() {
+            return "hello";
+        }
+
+        public String getUser(Integer id, String name, Long age) {
+            return name;
+        }
+
+        public User checkUser(User user) {
+            return user;
+        }
+    }
+
+    @Param({"text", "query", "json", "unmatched"})
+    public String request;
+
+    private EmbeddedChannel channel;
+
+    private ByteBuf requestBytes;
+
+    @Setup
+    public void setup() {
+        Map<MyRequestHandler, String> handlers = new LinkedHashMap<>();
+        handlers.put(handler("/bench/hello", "hello", new Class<?>[0]), "hello");
+        handlers.put(handler("/bench/getUser", "getUser", new Class<?>[]{Integer.class, String.class, Long.class}, "id", "name", "age"), "getUser");
+        handlers.put(handler("/bench/checkUser", "checkUser", new Class<?>[]{User.class}, "user"), "checkUser");
+        Map<String, Object> single = new HashMap<>();
+        single.put(BenchController.class.getName(), new BenchController());
+        MyRouteTable routes = MyRouteTable.build(single, Collections.singletonMap(BenchController.class.getName(), handlers), "demo");
+
+        MyRequestExecutor executor = new MyRequestExecutor(MyRequestMapping.INLINE, 1, 1);
+        MyStaticResourceHandler statics = new MyStaticResourceHandler(null, "demo", 0, 0, false, 0, 0);
+        MyHttpMetrics metrics = new MyHttpMetrics(routes, executor, null);
+        MyHttpBodyHandler bodyHandler = new MyHttpBodyHandler(routes, new DefaultHttpDataFactory(16 * 1024), 0);
+        channel = new EmbeddedChannel(new HttpServerCodec(), bodyHandler, new HttpObjectAggregator(512 * 1024),
+                new HttpRequestHandler(routes, executor, statics, metrics, bodyHandler));
+
+        // 只读：解码器累积数据时复制而不是写入这个共享的缓冲区
+        requestBytes = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(rawRequest(request).getBytes(StandardCharsets.US_ASCII)).asReadOnly());
+    }
+
+    private static MyRequestHandler handler(String url, String methodName, Class<?>[] types, String... names) {
+        MyRequestHandler handler = new MyRequestHandler();
+        handler.setUrl(url);
+        handler.setControllerName(BenchController.class.getName());
+        handler.setMethodName(methodName);
+        handler.setMethodParamTypes(types);
+        Collections.addAll(handler.getList(), names);
+        return handler;
+    }
+
+    private static String rawRequest(String request) {
+        switch (request) {
+            case "text":
+                return get("/demo/bench/hello");
+            case "query":
+                return get("/demo/bench/getUser?id=1&name=xuweizhi&age=18");
+            case "json":
+                String body = "{\"uId\":1,\"address\":\"beijing\",\"role\":2,\"username\":\"xuweizhi\",\"phoneNumber\":\"13800000000\"}";
+                return "POST /demo/bench/checkUser HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                        + "Content-Length: " + body.length() + "\r\n\r\n" + body;
+            default:
+                return get("/demo/bench/missing");
+        }
+    }
+
+    private static String get(String uri) {
+        return "GET " + uri + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    /**
+     * @return 响应的字节数
+     */
+    @Benchmark
+    public int dispatch() {
+        channel.writeInbound(requestBytes.duplicate());
+        // 第一次访问不存在的静态资源时在 IO 线程中查找，之后命中缓存
+        channel.runPendingTasks();
+        int bytes = 0;
+        for (Object out; (out = channel.readOutbound()) != null; ) {
+            if (out instanceof ByteBuf) {
+                bytes += ((ByteBuf) out).readableBytes();
+            }
+            ReferenceCountUtil.release(out);
+        }
+        return bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(RouteDispatchBenchmark.class.getSimpleName()).forks(1).warmupIterations(5)
+                .measurementIterations(5).threads(1).build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.java.benchmark;
+
+import com.java.frame.auto.MyColumn;
+import com.java.frame.model.User;
+import com.java.frame.proxy.MyRowMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 结果集映射开销对比，H2 内存数据库，每次查询 1000 行：
+ * <ul>
+ * <li>reflect：原先的映射方式，逐行 newInstance、getAnnotation、setAccessible，按列名取值后 Field.set</li>
+ * <li>rowMapper：{@link MyRowMapper} 预先编译的 setter 与读取器，按列下标取值</li>
+ * </ul>
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 17:40
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+
+    private static final String SQL = "select * from t_user";
+
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    private final MyRowMapper<User> mapper = MyRowMapper.of(User.class);
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:mapper;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("create table if not exists t_user(u_id int primary key, address varchar(64), apartment varchar(64), " +
+                    "create_time timestamp, password varchar(64), phone_number varchar(32), role int, username varchar(64))");
+            ddl.execute("delete from t_user");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into t_user values (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < 1000; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "address" + i);
+                insert.setString(3, "apartment" + i);
+                insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                insert.setString(5, "password" + i);
+                insert.setString(6, "1380000" + i);
+                insert.setInt(7, i % 3);
+                insert.setString(8, "user" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        statement = connection.prepareStatement(SQL);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        statement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Object> reflect() throws Exception {
+        List<Object> list = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            Field[] fields = User.class.getDeclaredFields();
+            while (resultSet.next()) {
+                Object instance = User.class.getDeclaredConstructor().newInstance();
+                for (Field field : fields) {
+                    if (field.getAnnotation(MyColumn.class) != null) {
+                        field.setAccessible(true);
+                        String column = field.getAnnotation(MyColumn.class).value();
+                        if (field.getType() == Integer.class) {
+                            field.set(instance, resultSet.getInt(column));
+                        } else if (field.getType() == String.class) {
+                            field.set(instance, resultSet.getString(column));
+                        }
+                    }
+                }
+                list.add(instance);
+            }
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<User> rowMapper() throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return mapper.mapAll(resultSet);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(RowMapperBenchmark.class.getSimpleName()).forks(1).warmupIterations(5)
+                .measurementIterations(5).threads(1).build();
+        new Runner(opt).run();
+    }
+}
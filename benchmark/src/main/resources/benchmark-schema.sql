@@ -0,0 +1,4 @@
+-- 基准与压测使用的 H2 内存库，连接池每建立一个连接都会执行一次，merge 保证重复执行时数据不变
+create table if not exists user (u_id int auto_increment primary key, address varchar(64), apartment varchar(64), create_time timestamp, password varchar(64), phone_number varchar(64), role int, username varchar(64));
+merge into user (u_id, address, apartment, create_time, password, phone_number, role, username) key (u_id)
+select x, concat('address', x), concat('apartment', x), timestamp '2026-10-19 12:00:00', concat('password', x), concat('1380000', x), mod(x, 3), concat('user', x) from system_range(1, 1000);
@@ -11,5 +11,25 @@ import java.lang.annotation.*;
 @Target({ElementType.TYPE,ElementType.METHOD})
 public @interface MyRequestMapping {
 
+    /**
+     * 在 Netty EventLoop 线程中直接执行，适合不阻塞的处理器
+     */
+    String INLINE = "inline";
+
+    /**
+     * 在有界的业务线程池中执行，队列满时返回 503
+     */
+    String POOL = "pool";
+
+    /**
+     * 每个请求一个虚拟线程，JDK 不支持时退化为业务线程池
+     */
+    String VIRTUAL = "virtual";
+
     String value();
+
+    /**
+     * 执行方式：inline、pool、virtual，方法上未指定时使用类上的配置，都未指定时使用 myport.execution
+     */
+    String execution() default "";
 }
@@ -22,4 +22,9 @@ public @interface MySelect {
      * 增删改查实体的全类名
      */
     String nameSpace();
+
+    /**
+     * 返回 Stream、Iterator 或者以 Consumer 回调时，每次从数据库拉取的行数，0 表示使用 datasource.fetchSize
+     */
+    int fetchSize() default 0;
 }
@@ -15,4 +15,9 @@ public @interface MyUpdate {
 
     String nameSpace();
 
+    /**
+     * 参数为 Iterable 时批量执行，每批提交的行数，0 表示使用 datasource.batchSize
+     */
+    int batchSize() default 0;
+
 }
@@ -1,9 +1,12 @@
 package com.java.frame.controller;
 
 import com.java.frame.auto.*;
+import com.java.frame.http.MyRequestBody;
 import com.java.frame.model.User;
 import com.java.frame.service.MyServices;
+import io.netty.handler.codec.http.multipart.FileUpload;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
@@ -23,7 +26,7 @@ public class MyControllers {
     @MyQualifier("myServiceImpl2")
     public MyServices getMyServices;
 
-    @MyRequestMapping("getUser")
+    @MyRequestMapping(value = "getUser", execution = MyRequestMapping.POOL)
     public User getUserById(Integer id, String name, Long age, User user, List<User> lists) {
         System.out.println(id);
         System.out.println(name);
@@ -31,7 +34,7 @@ public class MyControllers {
         return myServices.getUserById(id);
     }
 
-    @MyRequestMapping("getUsers")
+    @MyRequestMapping(value = "getUsers", execution = MyRequestMapping.POOL)
     public List<User> getUsers() {
         return myServices.getUsers();
     }
@@ -41,4 +44,29 @@ public class MyControllers {
     public String getUserById(Date date, LocalDateTime localDateTime) {
         return "测试空参数";
     }
+
+    /**
+     * 只有一个实体参数时，整个 json 请求体绑定到该参数上
+     */
+    @MyRequestMapping("checkUser")
+    public User checkUser(User user) {
+        return user;
+    }
+
+    /**
+     * 流式解析 json 数组，请求体不会整体加载到内存中
+     */
+    @MyRequestMapping("countUsers")
+    public Long countUsers(MyRequestBody body) throws IOException {
+        return body.readJsonArray(User.class, user -> {
+        });
+    }
+
+    /**
+     * 上传文件，超过 myport.multipartThreshold 的文件保存在临时文件中，请求结束后删除
+     */
+    @MyRequestMapping("upload")
+    public String upload(String name, FileUpload file) {
+        return name + ":" + file.getFilename() + ":" + file.length() + ":" + (file.isInMemory() ? "memory" : "disk");
+    }
 }
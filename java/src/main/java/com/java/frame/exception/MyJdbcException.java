@@ -0,0 +1,20 @@
+package com.java.frame.exception;
+
+import java.sql.SQLException;
+
+/**
+ * 游标遍历过程中的 SQLException，Iterator、Stream 不能抛出受检异常
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 18:20
+ */
+public class MyJdbcException extends RuntimeException {
+
+    public MyJdbcException(String message) {
+        super(message);
+    }
+
+    public MyJdbcException(String message, SQLException cause) {
+        super(message, cause);
+    }
+}
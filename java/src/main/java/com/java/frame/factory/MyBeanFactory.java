@@ -14,17 +14,18 @@ import com.java.frame.util.ResourcesUtils;
 import com.java.frame.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanNotOfRequiredTypeException;
 import org.springframework.cglib.proxy.Enhancer;
 import org.springframework.core.NamedThreadLocal;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.java.frame.exception.ComponentConstance.BEAN_KEY;
 
@@ -87,6 +88,11 @@ public class MyBeanFactory implements BeanFactory {
     private final Map<String, Object> singletonObject = new ConcurrentHashMap<>(256);
 
 
+    /**
+     * 启动完成后构建的只读注册表，之后的查找不再访问 singletonObject 与别名注册中心
+     */
+    private volatile MyBeanRegistry registry;
+
     /**
      * 解决循环依赖问题，过早的暴露 bean
      */
@@ -104,6 +110,13 @@ public class MyBeanFactory implements BeanFactory {
 
     private DataSourcePool dataSourcePool;
 
+    public static final String STARTUP_THREADS_PROPERTY = "my.startup.threads";
+
+    /**
+     * 启动耗时统计
+     */
+    private final MyStartupProfiler profiler = new MyStartupProfiler();
+
     /**
      * 正在创建 bean 属性
      */
@@ -130,34 +143,62 @@ public class MyBeanFactory implements BeanFactory {
         MyApplication application = clazz.getAnnotation(MyApplication.class);
         if (application != null) {
             // 1. 获取包扫描、额外的包扫描空间、以及排除的包扫描空间,初始化配置
+            MyStartupProfiler.Step step = profiler.phase("configure");
             initConfigure(application, getPackageName(clazz));
-            // 2. 初始化 bean 容器
-            LogUtils.printLog(log, "Initialize the bean container !");
-            initBean();
-            // 3. 初始化接口们
-            LogUtils.printLog(log, "Register the interfaces with the container !");
-            // 6. 数据库连接
-            dataSourcePool = new DataSourcePool((DataSource) tempObject.get(DataSource.class.getName()));
-            registerMapperProxy();
-            // 4. 为初始化 bean 赋值
+            step.end();
+            ExecutorService executor = newStartupExecutor();
+            try {
+                // 2. 初始化 bean 容器，bean 之间在实例化阶段互不依赖，并行实例化
+                LogUtils.printLog(log, "Initialize the bean container !");
+                step = profiler.phase("instantiate beans");
+                initBean(executor);
+                step.end();
+                // 3. 初始化接口们
+                LogUtils.printLog(log, "Register the interfaces with the container !");
+                // 6. 数据库连接
+                step = profiler.phase("data source pool");
+                dataSourcePool = new DataSourcePool((DataSource) tempObject.get(DataSource.class.getName()));
+                step.end();
+                step = profiler.phase("mapper proxies");
+                registerMapperProxy(executor);
+                step.end();
+            } finally {
+                executor.shutdown();
+            }
+            // 4. 为初始化 bean 赋值，按依赖顺序
             LogUtils.printLog(log, "Assign values to the beans in the container and generate singleton objects !");
+            step = profiler.phase("assign beans");
             assignmentBean();
+            step.end();
             // 5. 未ICU递归们进行
             LogUtils.printLog(log, "Inject the interface for the beans in the container !");
+            step = profiler.phase("inject interfaces");
             for (String icu : ICU) {
                 Object instance = singletonObject.get(getKeyPrefix(icu));
                 try {
-                    Class<?> my = Class.forName(getKeyPrefix(icu));
+                    Class<?> my = loaded.get(getKeyPrefix(icu));
+                    if (my == null) {
+                        my = Class.forName(getKeyPrefix(icu));
+                    }
                     String[] split = icu.substring(icu.indexOf(BEAN_KEY) + 1).split(BEAN_KEY);
                     setField(split, 0, my, instance, "");
                 } catch (IllegalAccessException | ClassNotFoundException | NoSuchFieldException e) {
                     e.printStackTrace();
                 }
             }
+            step.end();
+            // 所有单例都已经赋值完毕，按名称、类型建立只读索引
+            step = profiler.phase("bean registry");
+            registry = MyBeanRegistry.build(singletonObject, loaded, aliasRegistry);
+            step.end();
             // 6. 启动服务器
+            MyStartupProfiler.Step serverStep = profiler.phase("http server");
             HttpServer server = new HttpServer(8080,this.singletonObject,this.configure.controllerMethods);
             try {
-                server.start();
+                server.start(() -> {
+                    serverStep.end();
+                    profiler.finish();
+                });
                 LogUtils.printLog(log, "Netty started on port(s): 8081 (http) with context path ''!");
             } catch (Exception e) {
                 e.printStackTrace();
@@ -167,6 +208,61 @@ public class MyBeanFactory implements BeanFactory {
         throw new MyApplicationException(clazz.getName() + "Class is not MyApplication startup class, can't be parsed!");
     }
 
+    /**
+     * 启动报告
+     */
+    public MyStartupProfiler getStartupProfiler() {
+        return profiler;
+    }
+
+    /**
+     * 启动线程池，-Dmy.startup.threads 指定线程数，为 1 时串行启动
+     */
+    private ExecutorService newStartupExecutor() {
+        int defaultThreads = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        int threads = Math.max(1, Integer.getInteger(STARTUP_THREADS_PROPERTY, defaultThreads));
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "startup-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 在启动线程池中并行执行，记录每个 bean 的耗时，全部完成后返回，任意一个失败则抛出异常
+     */
+    private <T> void runParallel(ExecutorService executor, String phase, Collection<T> items, Function<T, String> beanName, Consumer<T> task) {
+        List<Future<?>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(executor.submit(() -> {
+                MyStartupProfiler.Step step = profiler.bean(phase, beanName.apply(item));
+                try {
+                    task.accept(item);
+                } finally {
+                    step.end();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MyComponentException(phase + " was interrupted !");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new MyComponentException(phase + " failed : " + cause);
+            }
+        }
+    }
+
     /**
      * 初始化配置
      */
@@ -178,18 +274,16 @@ public class MyBeanFactory implements BeanFactory {
     /**
      * 初始化bean 容器
      */
-    public void initBean() {
-        for (Map.Entry<String, Class<?>> entry : loaded.entrySet()) {
-            registerBean(entry.getValue());
-        }
+    public void initBean(ExecutorService executor) {
+        runParallel(executor, "instantiate", loaded.values(), Class::getName, this::registerBean);
     }
 
     /**
      * 注册 mapper 的动态代理 bean 们
      */
-    private void registerMapperProxy() {
+    private void registerMapperProxy(ExecutorService executor) {
         Map<String, Map<String, Object>> mapperBeans = configure.mapperMethods;
-        for (Map.Entry<String, Map<String, Object>> entry : mapperBeans.entrySet()) {
+        runParallel(executor, "mapper proxy", mapperBeans.entrySet(), Map.Entry::getKey, entry -> {
             try {
                 Class<?> mapperProxy = Class.forName(entry.getKey());
                 Object proxyMapperBean = getProxyMapperBean(mapperProxy, entry.getValue());
@@ -197,16 +291,77 @@ public class MyBeanFactory implements BeanFactory {
             } catch (ClassNotFoundException e) {
                 e.printStackTrace();
             }
-        }
+        });
     }
 
     /**
-     * 为 bean 赋值
+     * 为 bean 赋值，依赖的 bean 先赋值
      */
     private void assignmentBean() {
+        for (String keyId : getAssignmentOrder()) {
+            MyStartupProfiler.Step step = profiler.bean("assign", keyId);
+            doAssignmentBean(loaded.get(keyId), keyId);
+            step.end();
+        }
+    }
+
+    /**
+     * 根据 {@link MyAutowired}、{@link MyResource} 字段构建依赖图，返回拓扑排序后的 bean 名称，循环依赖记录到启动报告中
+     */
+    private List<String> getAssignmentOrder() {
+        Map<String, List<String>> graph = new HashMap<>(loaded.size());
+        int edges = 0;
         for (Map.Entry<String, Class<?>> entry : loaded.entrySet()) {
-            doAssignmentBean(entry.getValue(), entry.getKey());
+            List<String> dependencies = new ArrayList<>();
+            if (!entry.getValue().isInterface()) {
+                for (Field field : entry.getValue().getDeclaredFields()) {
+                    boolean inject = field.getAnnotation(MyAutowired.class) != null || field.getAnnotation(MyResource.class) != null;
+                    if (inject && loaded.containsKey(field.getType().getName())) {
+                        dependencies.add(field.getType().getName());
+                    }
+                }
+            }
+            edges += dependencies.size();
+            graph.put(entry.getKey(), dependencies);
         }
+        List<String> order = new ArrayList<>(graph.size());
+        Map<String, Integer> depths = new HashMap<>(graph.size());
+        Deque<String> path = new ArrayDeque<>();
+        for (String keyId : new TreeSet<>(graph.keySet())) {
+            visit(keyId, graph, depths, path, order);
+        }
+        int depth = depths.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        profiler.note("Dependency graph : " + graph.size() + " beans, " + edges + " edges, depth " + depth);
+        return order;
+    }
+
+    /**
+     * 深度优先遍历，depth 为 -1 表示正在遍历
+     */
+    private int visit(String keyId, Map<String, List<String>> graph, Map<String, Integer> depths, Deque<String> path, List<String> order) {
+        Integer known = depths.get(keyId);
+        if (known != null) {
+            if (known < 0) {
+                List<String> cycle = new ArrayList<>();
+                for (Iterator<String> it = path.descendingIterator(); it.hasNext(); ) {
+                    cycle.add(it.next());
+                }
+                cycle = cycle.subList(cycle.indexOf(keyId), cycle.size());
+                profiler.note("Circular dependency : " + String.join(" -> ", cycle) + " -> " + keyId);
+                return 0;
+            }
+            return known;
+        }
+        depths.put(keyId, -1);
+        path.push(keyId);
+        int depth = 0;
+        for (String dependency : graph.get(keyId)) {
+            depth = Math.max(depth, visit(dependency, graph, depths, path, order) + 1);
+        }
+        path.pop();
+        depths.put(keyId, depth);
+        order.add(keyId);
+        return depth;
     }
 
     @Override
@@ -230,10 +385,25 @@ public class MyBeanFactory implements BeanFactory {
     protected <T> T doGetBean(final String name, final Class<T> requiredType,
                               final Object[] args, boolean typeCheckOnly) throws BeansException {
         //Object bean = getToDo(name);
-        Object bean;
         final String beanName = transformedBeanName(name);
-        bean = singletonObject.get(beanName);
-        return (T) bean;
+        MyBeanRegistry current = registry;
+        Object bean = current != null ? current.getBean(beanName) : singletonObject.get(beanName);
+        return adaptBeanInstance(beanName, bean, requiredType);
+    }
+
+    /**
+     * 指定了 requiredType 时校验 bean 的类型，类型不符抛出 BeanNotOfRequiredTypeException
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T adaptBeanInstance(String beanName, Object bean, Class<T> requiredType) {
+        if (requiredType == null || bean == null) {
+            // 未指定类型时由调用方的泛型决定返回类型
+            return (T) bean;
+        }
+        if (!requiredType.isInstance(bean)) {
+            throw new BeanNotOfRequiredTypeException(beanName, requiredType, bean.getClass());
+        }
+        return requiredType.cast(bean);
     }
 
     /**
@@ -302,7 +472,7 @@ public class MyBeanFactory implements BeanFactory {
     /**
      * 获取包扫描空间
      */
-    private String getPackageName(Class<?> clazz) {
+    String getPackageName(Class<?> clazz) {
         StringBuilder packageName = null;
         MyComponentScan scan = clazz.getAnnotation(MyComponentScan.class);
         if (scan != null) {
@@ -509,10 +679,32 @@ public class MyBeanFactory implements BeanFactory {
         return keyId.substring(0, keyId.indexOf(BEAN_KEY));
     }
 
+    /**
+     * 按类型获取 bean，启动完成后先精确匹配类型，再查找唯一的实现类
+     */
     public <T> T getBean(Class<T> clazz) {
+        MyBeanRegistry current = registry;
+        if (current != null) {
+            return current.getBean(clazz);
+        }
         return getBean(clazz.getName());
     }
 
+    /**
+     * 所有可以赋值给该类型的 bean，启动完成之前返回空列表
+     */
+    public <T> List<T> getBeansOfType(Class<T> clazz) {
+        MyBeanRegistry current = registry;
+        return current == null ? Collections.emptyList() : current.getBeansOfType(clazz);
+    }
+
+    /**
+     * 启动完成之前为 null
+     */
+    public MyBeanRegistry getRegistry() {
+        return registry;
+    }
+
     /**
      * 暂时放弃，还没有想通怎样解决循环bean
      */
@@ -0,0 +1,155 @@
+package com.java.frame.factory;
+
+import com.java.frame.exception.MultipleInterfaces;
+import com.java.frame.exception.MyComponentException;
+
+import java.util.*;
+
+/**
+ * 启动完成后由 {@link MyBeanFactory} 一次性构建的只读 bean 注册表，按名称、别名、精确类型以及可赋值类型（父类、接口）建立索引，
+ * 每个接口的候选实现也预先算好。构建完成后不再修改，查找只是一次 HashMap 读取，多线程并发查找无需加锁
+ * <p>
+ * 多个实现类的接口在单例表中登记为 {@link MultipleInterfaces}，这里不会把它当作 bean 返回：按名称查找返回 null，按类型查找抛出异常，
+ * 需要通过实现类的别名或者 {@link #getBeansOfType(Class)} 获取
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 11:30
+ */
+public class MyBeanRegistry {
+
+    /**
+     * 名称与别名 -> bean
+     */
+    private final Map<String, Object> byName;
+
+    /**
+     * 登记时的类型 -> bean，mapper 代理登记为 mapper 接口
+     */
+    private final Map<Class<?>, Object> byType;
+
+    /**
+     * 类型 -> 所有可以赋值给该类型的 bean，按 bean 名称排序
+     */
+    private final Map<Class<?>, List<Object>> candidates;
+
+    private MyBeanRegistry(Map<String, Object> byName, Map<Class<?>, Object> byType, Map<Class<?>, List<Object>> candidates) {
+        this.byName = byName;
+        this.byType = byType;
+        this.candidates = candidates;
+    }
+
+    /**
+     * 构建注册表
+     *
+     * @param singletons    bean 名称（全类名） -> 单例
+     * @param loaded        bean 名称 -> 类型
+     * @param aliasRegistry 别名
+     */
+    static MyBeanRegistry build(Map<String, Object> singletons, Map<String, Class<?>> loaded, SimpleAliasRegistry aliasRegistry) {
+        Map<String, Object> byName = new HashMap<>(singletons.size() * 2);
+        Map<Class<?>, Object> byType = new HashMap<>(singletons.size() * 2);
+        Map<Class<?>, List<Object>> assignable = new HashMap<>(singletons.size() * 4);
+        for (Map.Entry<String, Object> entry : new TreeMap<>(singletons).entrySet()) {
+            Object bean = entry.getValue();
+            if (bean == null || bean instanceof MultipleInterfaces) {
+                continue;
+            }
+            String name = entry.getKey();
+            byName.put(name, bean);
+            for (String alias : aliasRegistry.getAliases(name)) {
+                byName.putIfAbsent(alias, bean);
+            }
+            Class<?> type = loaded.get(name);
+            if (type != null && type.isInstance(bean)) {
+                byType.put(type, bean);
+            }
+            byType.putIfAbsent(bean.getClass(), bean);
+            addAssignable(bean.getClass(), bean, assignable);
+        }
+        Map<Class<?>, List<Object>> candidates = new HashMap<>(assignable.size() * 2);
+        for (Map.Entry<Class<?>, List<Object>> entry : assignable.entrySet()) {
+            candidates.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return new MyBeanRegistry(Collections.unmodifiableMap(byName), Collections.unmodifiableMap(byType),
+                Collections.unmodifiableMap(candidates));
+    }
+
+    /**
+     * 登记 bean 的类型、所有父类与所有接口，同一个 bean 以不同名称登记多次时只计一次
+     */
+    private static void addAssignable(Class<?> type, Object bean, Map<Class<?>, List<Object>> assignable) {
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        pending.push(type);
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.pop();
+            if (current == Object.class || !visited.add(current)) {
+                continue;
+            }
+            List<Object> beans = assignable.computeIfAbsent(current, k -> new ArrayList<>(2));
+            if (!containsInstance(beans, bean)) {
+                beans.add(bean);
+            }
+            if (current.getSuperclass() != null) {
+                pending.push(current.getSuperclass());
+            }
+            for (Class<?> face : current.getInterfaces()) {
+                pending.push(face);
+            }
+        }
+    }
+
+    private static boolean containsInstance(List<Object> beans, Object bean) {
+        for (Object candidate : beans) {
+            if (candidate == bean) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按名称或别名查找
+     */
+    public Object getBean(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * 按类型查找：先按登记的类型精确匹配，再查找唯一的可赋值的 bean
+     *
+     * @throws MyComponentException 有多个可赋值的 bean 时
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getBean(Class<T> type) {
+        Object bean = byType.get(type);
+        if (bean != null) {
+            return (T) bean;
+        }
+        List<Object> beans = candidates.get(type);
+        if (beans == null) {
+            return null;
+        }
+        if (beans.size() > 1) {
+            throw new MyComponentException(type.getName() + " has " + beans.size() + " implementation beans, get it by alias or use getBeansOfType.");
+        }
+        return (T) beans.get(0);
+    }
+
+    /**
+     * 所有可以赋值给该类型的 bean，预先计算好的只读列表
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getBeansOfType(Class<T> type) {
+        List<Object> beans = candidates.get(type);
+        return beans == null ? Collections.emptyList() : (List<T>) beans;
+    }
+
+    public boolean containsBean(String name) {
+        return byName.containsKey(name);
+    }
+
+    public int size() {
+        return byName.size();
+    }
+}
@@ -1,19 +1,24 @@
 package com.java.frame.factory;
 
 import com.java.frame.auto.*;
+import com.java.frame.exception.MyComponentException;
 import com.java.frame.exception.MyRequestMappingException;
 import com.java.frame.handler.*;
+import com.java.frame.proxy.MyResultCursor;
 import com.java.frame.util.*;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
+import java.util.stream.Stream;
 
 import static com.java.frame.exception.ComponentConstance.BEAN_KEY;
 import static com.java.frame.exception.ComponentConstance.CONTROLLER_KEY;
@@ -186,6 +191,12 @@ public class MyConfigure implements Serializable {
      */
     public void init() {
         String[] split = packagePath.split(BEAN_KEY);
+        // 快照有效时直接还原，不再扫描与解析，配置文件不在快照中，照常读取
+        MyConfigureSnapshot snapshot = MyConfigureSnapshot.create(packagePath, loadResource);
+        if (snapshot != null && snapshot.load(this)) {
+            parseResources();
+            return;
+        }
         try {
             components = scan.packageScan(packagePath, component.get("MyComponent"));
             //for (String packages : split) {
@@ -199,6 +210,9 @@ public class MyConfigure implements Serializable {
                 registerComponent();
             }
             parseResources();
+            if (snapshot != null) {
+                snapshot.save(this);
+            }
         } catch (IOException e) {
             for (String packages : split) {
                 printLog(log, packages + "packet scan failed !");
@@ -264,8 +278,10 @@ public class MyConfigure implements Serializable {
     private void parseController() {
         MyRequestMapping requestMapping = (MyRequestMapping) bean.getAnnotation(component.get("MyRequestMapping"));
         String baseUrl = "";
+        String baseExecution = "";
         if (requestMapping != null) {
             baseUrl = getUrlPath(requestMapping.value());
+            baseExecution = requestMapping.execution();
         }
         Method[] methods = bean.getDeclaredMethods();
         Map<MyRequestHandler, String> handlerMap = new HashMap<>();
@@ -295,6 +311,7 @@ public class MyConfigure implements Serializable {
                 handler.setMapping(mapping);
                 handler.setMethodName(method.getName());
                 handler.setMethodParamTypes(classes);
+                handler.setExecution(StringUtils.isNotEmpty(request.execution()) ? request.execution() : baseExecution);
 
                 handler.setUrl(StringUtils.isNotEmpty(baseUrl) ? baseUrl + url : url);
 
@@ -395,45 +412,122 @@ public class MyConfigure implements Serializable {
      */
     private void parseMySelect(Map<String, Object> mappingMap, Method method, MySelect mySelect) {
         try {
-            MySelectMapping select = new MySelectMapping(mySelect.value(), mySelect.nameSpace());
-
-            Matcher matcher = PatternUtils.getSqlMatcher(mySelect.value());
-            List<String> paramList = select.getParamList();
-            List<String> paramNameList = select.getParamNameList();
             Class<?> model = Class.forName(mySelect.nameSpace());
-            while (matcher.find()) {
-                String fieldName = matcher.group().substring(2, matcher.group().length() - 1);
-                paramList.add(model.getDeclaredField(fieldName).getType().getName());
-                paramNameList.add(fieldName);
-            }
+            MySelectMapping select = new MySelectMapping(mySelect.value(), mySelect.nameSpace(), model, PatternUtils.replaceSql(mySelect.value()),
+                    compileParams(mySelect.value(), model, false), getResultType(method), mySelect.fetchSize());
             mappingMap.put(bean.getName() + "#" + method.getName(), select);
         } catch (ClassNotFoundException | NoSuchFieldException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * 根据方法签名确定查询结果的返回方式
+     */
+    private int getResultType(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1] == Consumer.class) {
+            return MySelectMapping.RESULT_CALLBACK;
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType == Stream.class) {
+            return MySelectMapping.RESULT_STREAM;
+        }
+        if (returnType.isAssignableFrom(MyResultCursor.class)) {
+            return returnType == Object.class ? MySelectMapping.RESULT_AUTO : MySelectMapping.RESULT_ITERATOR;
+        }
+        if (returnType.isAssignableFrom(ArrayList.class)) {
+            return MySelectMapping.RESULT_LIST;
+        }
+        return MySelectMapping.RESULT_ONE;
+    }
+
     /**
      * 解析 MyDelete 注解
      */
     private void parseMyDelete(Map<String, Object> mappingMap, Method method, MyDelete myDelete) {
-        MyDeleteMapping deleteMapping = new MyDeleteMapping(myDelete.value(), myDelete.nameSpace());
-        mappingMap.put(bean.getName() + "#" + method.getName(), deleteMapping);
+        try {
+            MyDeleteMapping deleteMapping = compileDelete(myDelete.value(), myDelete.nameSpace());
+            mappingMap.put(bean.getName() + "#" + method.getName(), deleteMapping);
+        } catch (ClassNotFoundException | NoSuchFieldException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
      * 解析 MyInsert 注解
      */
     private void parseMyUpdate(Map<String, Object> mappingMap, Method method, MyUpdate update) {
-        MyUpdateMapping updateMapping = new MyUpdateMapping(update.value(), update.nameSpace());
-        mappingMap.put(bean.getName() + "#" + method.getName(), updateMapping);
+        try {
+            Class<?> model = Class.forName(update.nameSpace());
+            MyUpdateMapping updateMapping = new MyUpdateMapping(update.value(), update.nameSpace(), model, PatternUtils.replaceSql(update.value()),
+                    compileParams(update.value(), model, true), update.batchSize());
+            mappingMap.put(bean.getName() + "#" + method.getName(), updateMapping);
+        } catch (ClassNotFoundException | NoSuchFieldException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
      * 解析 MyInsert 注解
      */
     private void parseMyInsert(Map<String, Object> mappingMap, Method method, MyInsert insert) {
-        MyInsertMapping select = new MyInsertMapping(insert.value(), insert.nameSpace());
-        mappingMap.put(bean.getName() + "#" + method.getName(), select);
+        try {
+            Class<?> model = Class.forName(insert.nameSpace());
+            MyInsertMapping insertMapping = new MyInsertMapping(insert.value(), insert.nameSpace(), model, PatternUtils.replaceSql(insert.value()),
+                    compileParams(insert.value(), model, true), insert.batchSize());
+            mappingMap.put(bean.getName() + "#" + method.getName(), insertMapping);
+        } catch (ClassNotFoundException | NoSuchFieldException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 预编译 sql 参数：按 #{} 的顺序解析出实体字段，调用时不再做正则与反射查找
+     *
+     * @param requireColumn 参数对应的字段是否必须标注 {@link MyColumn}
+     */
+    private Field[] compileParams(String sql, Class<?> model, boolean requireColumn) throws NoSuchFieldException {
+        Matcher matcher = PatternUtils.getSqlMatcher(sql);
+        List<Field> fields = new ArrayList<>();
+        while (matcher.find()) {
+            String fieldName = matcher.group(1).trim();
+            Field field = model.getDeclaredField(fieldName);
+            if (requireColumn && field.getAnnotation(MyColumn.class) == null) {
+                throw new MyComponentException(model.getName() + field.getName() + "must indicate " + MyColumn.class + " annotations !");
+            }
+            field.setAccessible(true);
+            fields.add(field);
+        }
+        return fields.toArray(new Field[0]);
+    }
+
+    /**
+     * 编译 delete：拆分 where 条件，调用时根据实体非空字段拼接
+     */
+    private MyDeleteMapping compileDelete(String sql, String nameSpace) throws ClassNotFoundException, NoSuchFieldException {
+        Class<?> model = Class.forName(nameSpace);
+        Field[] fields = compileParams(sql, model, false);
+        String preparedSql = PatternUtils.replaceSql(sql);
+        int indexOf = sql.indexOf("where");
+        if (indexOf == -1) {
+            indexOf = sql.indexOf("WHERE");
+        }
+        if (indexOf == -1) {
+            return new MyDeleteMapping(sql, nameSpace, model, preparedSql, fields, null, null, null);
+        }
+        // delete * from select where
+        String prefix = sql.substring(0, indexOf + 5);
+        // u_id = #{uId} and，替换掉所有的 and
+        String suffix = sql.substring(indexOf + 5).replaceAll("\\band\\b", "");
+        String wherePrefix = prefix + " 1 = 1";
+        List<String> conditions = new ArrayList<>();
+        while (suffix.contains("}")) {
+            conditions.add(PatternUtils.replaceSql(" and " + suffix.substring(0, suffix.indexOf("}") + 1).trim()));
+            suffix = suffix.substring(suffix.indexOf("}") + 1);
+        }
+        String singleParamSql = conditions.isEmpty() ? null : wherePrefix + conditions.get(0);
+        return new MyDeleteMapping(sql, nameSpace, model, preparedSql, fields, wherePrefix, conditions, singleParamSql);
     }
 
     /**
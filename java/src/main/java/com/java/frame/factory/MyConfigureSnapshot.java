@@ -0,0 +1,490 @@
+package com.java.frame.factory;
+
+import com.java.frame.auto.MyApplication;
+import com.java.frame.exception.MyApplicationException;
+import com.java.frame.handler.*;
+import com.java.frame.util.ClassUtils;
+import com.java.frame.util.ComponentIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * {@link MyConfigure} 的解析结果快照：组件及其类型、别名、controller 路由、mapper 预编译好的 sql，以二进制格式保存。
+ * 启动时快照存在且指纹一致则直接还原，跳过 classpath 扫描、注解解析与 sql 编译，否则完整解析后重新写入。
+ * 配置文件不写入快照（其中有数据库密码等凭据），还原后照常解析
+ * <p>
+ * 指纹为以下内容的 SHA-256：包扫描路径、配置文件内容、java.class.path 中每个 jar 的大小与修改时间、每个目录下 class 文件与 META-INF 的相对路径、大小与修改时间。
+ * 代码或配置有任何变化都会使快照失效
+ * <p>
+ * 默认不使用快照，-Dmy.config.snapshot=路径 开启，例如 -Dmy.config.snapshot=build/my-configure.snapshot。
+ * 也可以在构建时由 gradle configSnapshot 任务预先生成到 build 目录下，在与运行时相同的 classpath 下执行才有效
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 10:40
+ */
+@Slf4j
+public class MyConfigureSnapshot {
+
+    public static final String SNAPSHOT_PROPERTY = "my.config.snapshot";
+
+    private static final int MAGIC = 0x4D59434E;
+
+    /**
+     * 格式有变化时递增，旧快照自动失效
+     */
+    private static final int VERSION = 2;
+
+    private static final int COMPONENT = 0;
+
+    private static final int MAPPER = 1;
+
+    private static final int SERVICE = 2;
+
+    private static final int CONTROLLER = 3;
+
+    private static final int SELECT = 1;
+
+    private static final int INSERT = 2;
+
+    private static final int UPDATE = 3;
+
+    private static final int DELETE = 4;
+
+    private static final int LOCAL_METHOD = 5;
+
+    private final Path file;
+
+    private final byte[] fingerprint;
+
+    private final ClassLoader classLoader;
+
+    private MyConfigureSnapshot(Path file, byte[] fingerprint, ClassLoader classLoader) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 计算当前 classpath 与配置文件的指纹，未启用快照或者计算失败时返回 null
+     */
+    public static MyConfigureSnapshot create(String packagePath, String loadResource) {
+        String location = System.getProperty(SNAPSHOT_PROPERTY);
+        if (location == null || location.trim().isEmpty() || "none".equalsIgnoreCase(location.trim())) {
+            return null;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            return new MyConfigureSnapshot(Paths.get(location), fingerprint(packagePath, loadResource, classLoader), classLoader);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("Unable to fingerprint the classpath, configure snapshot disabled : {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 快照有效时还原到 configure 中
+     *
+     * @return 是否还原成功，失败时 configure 保持原样
+     */
+    public boolean load(MyConfigure configure) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.info("Configure snapshot {} has an unknown format, rescanning !", file);
+                return false;
+            }
+            byte[] stored = new byte[in.readInt()];
+            in.readFully(stored);
+            if (!Arrays.equals(stored, fingerprint)) {
+                log.info("Configure snapshot {} is stale, rescanning !", file);
+                return false;
+            }
+            Restored restored = read(in);
+            restored.applyTo(configure);
+            log.info("Load {} components, {} controllers and {} mappers from configure snapshot {} !",
+                    restored.loaded.size(), restored.controllerMethods.size(), restored.mapperMethods.size(), file);
+            return true;
+        } catch (IOException | ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.warn("Unable to load configure snapshot {}, rescanning : {}", file, e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * 完整解析后写入快照，先写临时文件再替换，同时启动的多个实例不会读到写了一半的快照
+     */
+    public void save(MyConfigure configure) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(fingerprint.length);
+                    out.write(fingerprint);
+                    write(configure, out);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.info("Write configure snapshot {} !", file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write configure snapshot {} : {}", file, e.toString());
+        }
+    }
+
+    private static byte[] fingerprint(String packagePath, String loadResource, ClassLoader classLoader) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        OutputStream discard = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(discard, digest))) {
+            out.writeInt(VERSION);
+            out.writeUTF(packagePath);
+            out.writeUTF(loadResource);
+            out.writeBoolean(ComponentIndex.isEnabled());
+            try (InputStream in = classLoader.getResourceAsStream(loadResource)) {
+                if (in != null) {
+                    byte[] buffer = new byte[8192];
+                    for (int n; (n = in.read(buffer)) != -1; ) {
+                        out.write(buffer, 0, n);
+                    }
+                }
+            }
+            for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                Path path = Paths.get(entry);
+                out.writeUTF(entry);
+                if (Files.isDirectory(path)) {
+                    fingerprintDirectory(path, out);
+                } else if (Files.isRegularFile(path)) {
+                    out.writeLong(Files.size(path));
+                    out.writeLong(Files.getLastModifiedTime(path).toMillis());
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * 只统计 class 文件与 META-INF 下的文件（如组件索引），日志、静态资源以及快照本身的变化不影响解析结果；
+     * 只读取文件属性，不读取文件内容，按相对路径排序，保证遍历顺序不影响结果
+     */
+    private static void fingerprintDirectory(Path root, DataOutputStream out) throws IOException {
+        TreeMap<String, long[]> files = new TreeMap<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
+                String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+                if (attributes.isRegularFile() && (name.endsWith(ClassUtils.CLASS_FILE_SUFFIX) || name.startsWith("META-INF/"))) {
+                    files.put(name, new long[]{attributes.size(), attributes.lastModifiedTime().toMillis()});
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        out.writeInt(files.size());
+        for (Map.Entry<String, long[]> entry : files.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue()[0]);
+            out.writeLong(entry.getValue()[1]);
+        }
+    }
+
+    private void write(MyConfigure configure, DataOutputStream out) throws IOException {
+        // 组件及其类型
+        out.writeInt(configure.loaded.size());
+        for (Class<?> clazz : configure.loaded.values()) {
+            out.writeUTF(clazz.getName());
+            out.writeByte(configure.mappers.contains(clazz) ? MAPPER : configure.serviceLoaded.contains(clazz) ? SERVICE
+                    : configure.controllerLoaded.contains(clazz) ? CONTROLLER : COMPONENT);
+            String[] aliases = configure.aliasRegistry.getAliases(clazz.getName());
+            out.writeInt(aliases.length);
+            for (String alias : aliases) {
+                out.writeUTF(alias);
+            }
+        }
+        // controller 路由
+        out.writeInt(configure.controllerMethods.size());
+        for (Map.Entry<String, Map<MyRequestHandler, String>> entry : configure.controllerMethods.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<MyRequestHandler, String> handler : entry.getValue().entrySet()) {
+                writeHandler(handler.getKey(), handler.getValue(), out);
+            }
+        }
+        // mapper 方法
+        out.writeInt(configure.mapperMethods.size());
+        for (Map.Entry<String, Map<String, Object>> entry : configure.mapperMethods.entrySet()) {
+            out.writeUTF(entry.getKey());
+            Map<String, Object> methods = entry.getValue() == null ? Collections.emptyMap() : entry.getValue();
+            out.writeInt(methods.size());
+            for (Map.Entry<String, Object> method : methods.entrySet()) {
+                out.writeUTF(method.getKey());
+                writeMapping(method.getValue(), out);
+            }
+        }
+    }
+
+    private Restored read(DataInputStream in) throws IOException, ReflectiveOperationException {
+        Restored restored = new Restored();
+        for (int i = in.readInt(); i > 0; i--) {
+            Class<?> clazz = forName(in.readUTF());
+            restored.loaded.put(clazz.getName(), clazz);
+            switch (in.readByte()) {
+                case MAPPER:
+                    restored.mappers.add(clazz);
+                    break;
+                case SERVICE:
+                    restored.services.add(clazz);
+                    break;
+                case CONTROLLER:
+                    restored.controllers.add(clazz);
+                    break;
+                default:
+                    break;
+            }
+            for (int j = in.readInt(); j > 0; j--) {
+                restored.aliases.put(in.readUTF(), clazz.getName());
+            }
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            String controller = in.readUTF();
+            Map<MyRequestHandler, String> handlers = new HashMap<>();
+            for (int j = in.readInt(); j > 0; j--) {
+                MyRequestHandler handler = readHandler(controller, in);
+                handlers.put(handler, in.readUTF());
+            }
+            restored.controllerMethods.put(controller, handlers);
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            String mapper = in.readUTF();
+            Map<String, Object> methods = new HashMap<>();
+            for (int j = in.readInt(); j > 0; j--) {
+                methods.put(in.readUTF(), readMapping(in));
+            }
+            restored.mapperMethods.put(mapper, methods);
+        }
+        return restored;
+    }
+
+    /**
+     * 路由的 keyId 写在最后，由调用方读取
+     */
+    private void writeHandler(MyRequestHandler handler, String keyId, DataOutputStream out) throws IOException {
+        out.writeUTF(handler.getUrl());
+        out.writeUTF(handler.getMethodName());
+        writeString(handler.getExecution(), out);
+        writeStrings(handler.getList(), out);
+        Class<?>[] types = handler.getMethodParamTypes();
+        out.writeInt(types.length);
+        for (Class<?> type : types) {
+            out.writeUTF(type.getName());
+        }
+        out.writeUTF(keyId);
+    }
+
+    private MyRequestHandler readHandler(String controller, DataInputStream in) throws IOException, ClassNotFoundException {
+        MyRequestHandler handler = new MyRequestHandler();
+        handler.setControllerName(controller);
+        handler.setUrl(in.readUTF());
+        handler.setMethodName(in.readUTF());
+        handler.setExecution(readString(in));
+        List<String> names = readStrings(in);
+        Class<?>[] types = new Class<?>[in.readInt()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = forName(in.readUTF());
+            handler.getList().add(names.get(i));
+            handler.getMapping().put(names.get(i), types[i]);
+        }
+        handler.setMethodParamTypes(types);
+        return handler;
+    }
+
+    private void writeMapping(Object mapping, DataOutputStream out) throws IOException {
+        if (mapping instanceof MyLocalMethodMapping) {
+            MyLocalMethodMapping local = (MyLocalMethodMapping) mapping;
+            out.writeByte(LOCAL_METHOD);
+            writeString(local.getValue(), out);
+            writeString(local.getMethodName(), out);
+            writeString(local.getClassName(), out);
+            Class<?>[] paramClasses = local.getMethodParamClass() == null ? new Class<?>[0] : local.getMethodParamClass();
+            out.writeInt(paramClasses.length);
+            for (Class<?> paramClass : paramClasses) {
+                writeString(paramClass == null ? null : paramClass.getName(), out);
+            }
+            writeStrings(local.getMethodParamValues() == null ? null : Arrays.asList(local.getMethodParamValues()), out);
+            writeString(local.getDescription(), out);
+            return;
+        }
+        MySqlMapping sql = (MySqlMapping) mapping;
+        out.writeByte(sql instanceof MySelectMapping ? SELECT : sql instanceof MyInsertMapping ? INSERT : sql instanceof MyUpdateMapping ? UPDATE : DELETE);
+        out.writeUTF(sql.getSql());
+        out.writeUTF(sql.getNameSpace());
+        out.writeUTF(sql.getPreparedSql());
+        writeStrings(sql.getParamNameList(), out);
+        out.writeInt(sql.getBatchSize());
+        if (sql instanceof MySelectMapping) {
+            out.writeInt(((MySelectMapping) sql).getResultType());
+            out.writeInt(((MySelectMapping) sql).getFetchSize());
+        } else if (sql instanceof MyDeleteMapping) {
+            MyDeleteMapping delete = (MyDeleteMapping) sql;
+            writeString(delete.getWherePrefix(), out);
+            writeStrings(delete.getConditions(), out);
+            writeString(delete.getSingleParamSql(), out);
+        }
+    }
+
+    /**
+     * 还原 sql 映射：只按字段名称取回参数字段，不再做正则替换与注解检查
+     */
+    private Object readMapping(DataInputStream in) throws IOException, ReflectiveOperationException {
+        int type = in.readByte();
+        if (type == LOCAL_METHOD) {
+            MyLocalMethodMapping local = new MyLocalMethodMapping();
+            local.setValue(readString(in));
+            local.setMethodName(readString(in));
+            local.setClassName(readString(in));
+            Class<?>[] paramClasses = new Class<?>[in.readInt()];
+            for (int i = 0; i < paramClasses.length; i++) {
+                String name = readString(in);
+                paramClasses[i] = name == null ? null : forName(name);
+            }
+            local.setMethodParamClass(paramClasses);
+            List<String> values = readStrings(in);
+            local.setMethodParamValues(values == null ? null : values.toArray(new String[0]));
+            local.setDescription(readString(in));
+            return local;
+        }
+        String sqlText = in.readUTF();
+        String nameSpace = in.readUTF();
+        Class<?> model = forName(nameSpace);
+        String preparedSql = in.readUTF();
+        List<String> names = readStrings(in);
+        Field[] fields = new Field[names.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = model.getDeclaredField(names.get(i));
+            fields[i].setAccessible(true);
+        }
+        int batchSize = in.readInt();
+        switch (type) {
+            case SELECT:
+                return new MySelectMapping(sqlText, nameSpace, model, preparedSql, fields, in.readInt(), in.readInt());
+            case INSERT:
+                return new MyInsertMapping(sqlText, nameSpace, model, preparedSql, fields, batchSize);
+            case UPDATE:
+                return new MyUpdateMapping(sqlText, nameSpace, model, preparedSql, fields, batchSize);
+            case DELETE:
+                return new MyDeleteMapping(sqlText, nameSpace, model, preparedSql, fields, readString(in), readStrings(in), readString(in));
+            default:
+                throw new StreamCorruptedException("Unknown sql mapping type " + type);
+        }
+    }
+
+    private Class<?> forName(String name) throws ClassNotFoundException {
+        return ClassUtils.forName(name, classLoader);
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(List<String> values, DataOutputStream out) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                writeString(value, out);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    /**
+     * 读取完整个快照之后再一次性写入 MyConfigure，读取中途失败时不会留下一半的状态
+     */
+    private static final class Restored {
+
+        final Map<String, Class<?>> loaded = new LinkedHashMap<>();
+
+        final Set<Class<?>> mappers = new HashSet<>();
+
+        final Set<Class<?>> services = new HashSet<>();
+
+        final Set<Class<?>> controllers = new HashSet<>();
+
+        /**
+         * 别名 -> 组件全类名
+         */
+        final Map<String, String> aliases = new HashMap<>();
+
+        final Map<String, Map<MyRequestHandler, String>> controllerMethods = new HashMap<>();
+
+        final Map<String, Map<String, Object>> mapperMethods = new HashMap<>();
+
+        void applyTo(MyConfigure configure) {
+            configure.components = new HashSet<>(loaded.values());
+            configure.mappers = mappers;
+            configure.serviceLoaded = services;
+            configure.controllerLoaded = controllers;
+            configure.loaded.putAll(loaded);
+            configure.controllerMethods.putAll(controllerMethods);
+            configure.mapperMethods.putAll(mapperMethods);
+            for (Map.Entry<String, String> alias : aliases.entrySet()) {
+                configure.aliasRegistry.registerAlias(alias.getValue(), alias.getKey());
+            }
+        }
+    }
+
+    /**
+     * 构建时生成快照
+     *
+     * @param args 0：启动类全类名；1：快照输出路径
+     */
+    public static void main(String[] args) throws ClassNotFoundException {
+        Class<?> boot = Class.forName(args[0]);
+        MyApplication application = boot.getAnnotation(MyApplication.class);
+        if (application == null) {
+            throw new MyApplicationException(args[0] + "Class is not MyApplication startup class, can't be parsed!");
+        }
+        System.setProperty(SNAPSHOT_PROPERTY, args[1]);
+        MyConfigure.builder().execute(MyBeanFactory.builder().getPackageName(boot), application.loadResources());
+    }
+}
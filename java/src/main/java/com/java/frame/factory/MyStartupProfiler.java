@@ -0,0 +1,153 @@
+package com.java.frame.factory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动耗时统计：记录每个启动阶段以及每个 bean 的耗时，启动完成后输出启动报告
+ * <p>
+ * 报告默认写入工作目录下的 startup-report.txt，-Dmy.startup.report=路径 指定位置，-Dmy.startup.report=none 不写文件
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 20:30
+ */
+@Slf4j
+public class MyStartupProfiler {
+
+    public static final String REPORT_PROPERTY = "my.startup.report";
+
+    private static final String DEFAULT_REPORT = "startup-report.txt";
+
+    private static final int TOP_BEANS = 20;
+
+    private final long startNanos = System.nanoTime();
+
+    private final List<Step> phases = Collections.synchronizedList(new ArrayList<>());
+
+    private final Queue<Step> beans = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 依赖图信息，如层数、循环依赖
+     */
+    private final List<String> notes = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile long totalNanos;
+
+    /**
+     * 开始一个启动阶段，调用返回值的 end 结束
+     */
+    public Step phase(String name) {
+        Step step = new Step(name, null, System.nanoTime() - startNanos);
+        phases.add(step);
+        return step;
+    }
+
+    /**
+     * 开始统计一个 bean 的耗时
+     */
+    public Step bean(String phase, String beanName) {
+        Step step = new Step(phase, beanName, System.nanoTime() - startNanos);
+        beans.add(step);
+        return step;
+    }
+
+    public void note(String note) {
+        notes.add(note);
+    }
+
+    /**
+     * 启动完成，输出报告
+     */
+    public void finish() {
+        totalNanos = System.nanoTime() - startNanos;
+        String report = report();
+        log.info("Application started in {} ms !", toMillis(totalNanos));
+        String location = System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT);
+        if ("none".equalsIgnoreCase(location)) {
+            return;
+        }
+        Path path = Paths.get(location);
+        try {
+            Files.write(path, report.getBytes(StandardCharsets.UTF_8));
+            log.info("Startup report was written to {} !", path.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Failed to write startup report to " + path.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * 启动报告：各阶段耗时以及耗时最长的 bean 们
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder(2048);
+        sb.append("Startup report, total ").append(toMillis(totalNanos)).append(" ms").append(System.lineSeparator());
+        sb.append(System.lineSeparator()).append("Phases:").append(System.lineSeparator());
+        synchronized (phases) {
+            for (Step step : phases) {
+                sb.append(String.format("  %-32s start %10.3f ms  took %10.3f ms%n", step.phase, toMillis(step.startNanos), toMillis(step.durationNanos)));
+            }
+        }
+        List<Step> sorted = new ArrayList<>(beans);
+        sorted.sort((a, b) -> Long.compare(b.durationNanos, a.durationNanos));
+        sb.append(System.lineSeparator()).append("Beans (").append(sorted.size()).append(" steps, top ").append(Math.min(TOP_BEANS, sorted.size()))
+                .append("):").append(System.lineSeparator());
+        for (Step step : sorted.subList(0, Math.min(TOP_BEANS, sorted.size()))) {
+            sb.append(String.format("  %-24s %-56s took %10.3f ms  [%s]%n", step.phase, step.beanName, toMillis(step.durationNanos), step.thread));
+        }
+        synchronized (notes) {
+            if (!notes.isEmpty()) {
+                sb.append(System.lineSeparator()).append("Notes:").append(System.lineSeparator());
+                for (String note : notes) {
+                    sb.append("  ").append(note).append(System.lineSeparator());
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 一个阶段或者一个 bean 的耗时
+     */
+    public class Step {
+
+        private final String phase;
+
+        private final String beanName;
+
+        private final long startNanos;
+
+        private volatile long durationNanos;
+
+        private volatile String thread;
+
+        Step(String phase, String beanName, long startNanos) {
+            this.phase = phase;
+            this.beanName = beanName;
+            this.startNanos = startNanos;
+        }
+
+        public void end() {
+            durationNanos = System.nanoTime() - MyStartupProfiler.this.startNanos - startNanos;
+            thread = Thread.currentThread().getName();
+            if (beanName == null) {
+                log.debug("Startup phase {} took {} ms", phase, toMillis(durationNanos));
+            }
+        }
+    }
+}
@@ -1,33 +1,50 @@
 package com.java.frame.handler;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
+ * delete 的 where 条件会根据实体中非空字段动态拼接，启动时预先拆分好每个条件
+ *
  * @author xuweizhi
  * @date 2019/04/15 17:57
  */
-public class MyDeleteMapping {
-
-    private String sql;
-
-    private String nameSpace;
-
-    public MyDeleteMapping(String sql, String nameSpace) {
-        this.sql = sql;
-        this.nameSpace = nameSpace;
-    }
-
-    public String getSql() {
-        return sql;
+public class MyDeleteMapping extends MySqlMapping {
+
+    /**
+     * where 之前的部分加上 1 = 1，没有 where 条件时为 null
+     */
+    private final String wherePrefix;
+
+    /**
+     * 已经替换为 ? 的条件们，形如 " and u_id = ?"，与参数名称一一对应
+     */
+    private final List<String> conditions;
+
+    /**
+     * 只传入单个非实体参数时使用的 sql，只保留第一个条件
+     */
+    private final String singleParamSql;
+
+    public MyDeleteMapping(String sql, String nameSpace, Class<?> entityClass, String preparedSql, Field[] paramFields,
+                           String wherePrefix, List<String> conditions, String singleParamSql) {
+        super(sql, nameSpace, entityClass, preparedSql, paramFields, 0);
+        this.wherePrefix = wherePrefix;
+        this.conditions = conditions == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(conditions));
+        this.singleParamSql = singleParamSql;
     }
 
-    public void setSql(String sql) {
-        this.sql = sql;
+    public String getWherePrefix() {
+        return wherePrefix;
     }
 
-    public String getNameSpace() {
-        return nameSpace;
+    public List<String> getConditions() {
+        return conditions;
     }
 
-    public void setNameSpace(String nameSpace) {
-        this.nameSpace = nameSpace;
+    public String getSingleParamSql() {
+        return singleParamSql;
     }
 }
@@ -27,6 +27,11 @@ public class MyRequestHandler {
 
     private String controllerName;
 
+    /**
+     * 执行方式，为空时使用服务器的默认配置
+     */
+    private String execution;
+
     public String getUrl() {
         return url;
     }
@@ -77,4 +82,12 @@ public class MyRequestHandler {
     public void setControllerName(String controllerName) {
         this.controllerName = controllerName;
     }
+
+    public String getExecution() {
+        return execution;
+    }
+
+    public void setExecution(String execution) {
+        this.execution = execution;
+    }
 }
@@ -1,60 +1,76 @@
 package com.java.frame.handler;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.java.frame.proxy.MyRowMapper;
+
+import java.lang.reflect.Field;
 
 /**
  * @author xuweizhi
  * @date 2019/04/15 13:37
  */
-public class MySelectMapping {
-
-    private String sql;
-
-    private String nameSpace;
-
-    private List<String> paramList = new ArrayList<>();
-
-    private List<String> paramNameList = new ArrayList<>();
-
-
-    public MySelectMapping() {
-    }
-
-    public MySelectMapping(String sql, String nameSpace) {
-        this.sql = sql;
-        this.nameSpace = nameSpace;
-    }
-
-    public String getNameSpace() {
-        return nameSpace;
-    }
-
-    public void setNameSpace(String nameSpace) {
-        this.nameSpace = nameSpace;
-    }
-
-    public String getSql() {
-        return sql;
-    }
-
-    public void setSql(String sql) {
-        this.sql = sql;
-    }
-
-    public List<String> getParamList() {
-        return paramList;
+public class MySelectMapping extends MySqlMapping {
+
+    /**
+     * 返回单个实体，没有结果返回 null
+     */
+    public static final int RESULT_ONE = 0;
+
+    /**
+     * 返回 List，结果只有一行时也是 List
+     */
+    public static final int RESULT_LIST = 1;
+
+    /**
+     * 返回 Stream，游标逐行映射
+     */
+    public static final int RESULT_STREAM = 2;
+
+    /**
+     * 返回 Iterator，游标逐行映射
+     */
+    public static final int RESULT_ITERATOR = 3;
+
+    /**
+     * 最后一个参数为 Consumer，游标逐行回调
+     */
+    public static final int RESULT_CALLBACK = 4;
+
+    /**
+     * 返回值为 Object，兼容原先的方式：一行返回实体，多行返回 List
+     */
+    public static final int RESULT_AUTO = 5;
+
+    /**
+     * 返回方式，启动时根据方法签名确定
+     */
+    private final int resultType;
+
+    /**
+     * 游标方式每次从数据库拉取的行数，0 表示使用连接池的配置
+     */
+    private final int fetchSize;
+
+    /**
+     * 实体类对应的行映射器，启动时编译
+     */
+    private final transient MyRowMapper<?> rowMapper;
+
+    public MySelectMapping(String sql, String nameSpace, Class<?> entityClass, String preparedSql, Field[] paramFields, int resultType, int fetchSize) {
+        super(sql, nameSpace, entityClass, preparedSql, paramFields, 0);
+        this.resultType = resultType;
+        this.fetchSize = fetchSize;
+        this.rowMapper = MyRowMapper.of(entityClass);
     }
 
-    public void setParamList(List<String> paramList) {
-        this.paramList = paramList;
+    public MyRowMapper<?> getRowMapper() {
+        return rowMapper;
     }
 
-    public List<String> getParamNameList() {
-        return paramNameList;
+    public int getResultType() {
+        return resultType;
     }
 
-    public void setParamNameList(List<String> paramNameList) {
-        this.paramNameList = paramNameList;
+    public int getFetchSize() {
+        return fetchSize;
     }
 }
@@ -0,0 +1,121 @@
+package com.java.frame.handler;
+
+import com.java.frame.proxy.ParamBinder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * sql 注解解析结果的公共部分，启动时由 {@link com.java.frame.factory.MyConfigure} 编译好，构造之后不再修改：
+ * 替换 #{} 之后的 sql、参数绑定顺序、参数类型、参数绑定器以及对应的实体类
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 16:02
+ */
+public abstract class MySqlMapping {
+
+    private final String sql;
+
+    private final String nameSpace;
+
+    /**
+     * #{} 替换为 ? 之后的 sql
+     */
+    private final String preparedSql;
+
+    /**
+     * nameSpace 对应的实体类
+     */
+    private final Class<?> entityClass;
+
+    /**
+     * 参数类型全类名，按绑定顺序
+     */
+    private final List<String> paramList;
+
+    /**
+     * 参数名称，按绑定顺序
+     */
+    private final List<String> paramNameList;
+
+    /**
+     * 参数对应的实体字段，已经 setAccessible
+     */
+    private final transient Field[] paramFields;
+
+    /**
+     * 参数绑定器，按字段类型预先生成，与 paramFields 一一对应
+     */
+    private final transient ParamBinder[] paramBinders;
+
+    /**
+     * 批量执行时每批提交的行数，0 表示使用连接池的配置
+     */
+    private final int batchSize;
+
+    /**
+     * @param paramFields 按 #{} 顺序排列的参数字段，必须已经 setAccessible
+     */
+    protected MySqlMapping(String sql, String nameSpace, Class<?> entityClass, String preparedSql, Field[] paramFields, int batchSize) {
+        this.sql = sql;
+        this.nameSpace = nameSpace;
+        this.entityClass = entityClass;
+        this.preparedSql = preparedSql;
+        this.paramFields = paramFields.clone();
+        this.paramBinders = new ParamBinder[paramFields.length];
+        List<String> types = new ArrayList<>(paramFields.length);
+        List<String> names = new ArrayList<>(paramFields.length);
+        for (int i = 0; i < paramFields.length; i++) {
+            types.add(paramFields[i].getType().getName());
+            names.add(paramFields[i].getName());
+            this.paramBinders[i] = ParamBinder.of(paramFields[i].getType());
+        }
+        this.paramList = Collections.unmodifiableList(types);
+        this.paramNameList = Collections.unmodifiableList(names);
+        this.batchSize = batchSize;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getNameSpace() {
+        return nameSpace;
+    }
+
+    public String getPreparedSql() {
+        return preparedSql;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public List<String> getParamList() {
+        return paramList;
+    }
+
+    public List<String> getParamNameList() {
+        return paramNameList;
+    }
+
+    /**
+     * 调用方不得修改返回的数组
+     */
+    public Field[] getParamFields() {
+        return paramFields;
+    }
+
+    /**
+     * 调用方不得修改返回的数组
+     */
+    public ParamBinder[] getParamBinders() {
+        return paramBinders;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -1,39 +1,15 @@
 package com.java.frame.handler;
 
+import java.lang.reflect.Field;
+
 /**
  * @author xuweizhi
  * @date 2019/04/15 17:57
  */
-public class MyUpdateMapping {
-
-
-    private String sql;
-
-    private String nameSpace;
-
-
-
-    public MyUpdateMapping(String sql, String nameSpace) {
-        this.sql = sql;
-        this.nameSpace = nameSpace;
-    }
+public class MyUpdateMapping extends MySqlMapping {
 
-    public String getSql() {
-        return sql;
+    public MyUpdateMapping(String sql, String nameSpace, Class<?> entityClass, String preparedSql, Field[] paramFields, int batchSize) {
+        super(sql, nameSpace, entityClass, preparedSql, paramFields, batchSize);
     }
 
-    public void setSql(String sql) {
-        this.sql = sql;
-    }
-
-    public String getNameSpace() {
-        return nameSpace;
-    }
-
-    public void setNameSpace(String nameSpace) {
-        this.nameSpace = nameSpace;
-    }
-
-
-
 }
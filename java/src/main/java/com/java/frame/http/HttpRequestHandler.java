@@ -1,48 +1,135 @@
 package com.java.frame.http;
 
-import com.java.frame.handler.MyRequestHandler;
-import com.java.frame.util.StringUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.*;
-import io.netty.util.CharsetUtil;
+import io.netty.handler.timeout.IdleStateEvent;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import static com.java.frame.exception.ComponentConstance.FAVICON;
-import static io.netty.buffer.Unpooled.copiedBuffer;
 import static io.netty.handler.codec.http.HttpUtil.is100ContinueExpected;
 
 /**
+ * 每个连接一个实例，只在该连接的 EventLoop 线程中访问，不需要同步
+ * <p>
+ * 非 inline 的路由交给 {@link MyRequestExecutor} 在业务线程中执行，执行完毕后回到 EventLoop 写出响应。
+ * 执行期间同一连接上后续的流水线请求先排队，保证响应顺序与请求顺序一致，排队过多时暂停读取
+ * <p>
+ * 每个请求按 decode、dispatch、handler、encode 四个阶段计时，记录到路由的 {@link MyRouteMetrics} 上
+ *
  * @author xuweizhi
  */
 public class HttpRequestHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
 
-    Map<String, Object> single;
+    /**
+     * 单个连接上最多排队的流水线请求数，超过后暂停读取
+     */
+    private static final int MAX_PENDING = 16;
+
+    MyRouteTable routes;
+
+    MyRequestExecutor executor;
 
-    Map<String, Map<MyRequestHandler, String>> handlers;
+    MyStaticResourceHandler statics;
 
-    static Map<String, MyRequestHandler> requestMapping = new HashMap<>();
+    MyHttpMetrics metrics;
+
+    /**
+     * 同一连接上的 MyHttpBodyHandler，提供请求头到达的时间
+     */
+    MyHttpBodyHandler bodyHandler;
 
     MyRequestHandlerPlus plus = new MyRequestHandlerPlus();
 
-    public HttpRequestHandler(Map<String, Object> single, Map<String, Map<MyRequestHandler, String>> handlers) {
-        this.single = single;
-        this.handlers = handlers;
+    /**
+     * 是否有请求正在业务线程中执行
+     */
+    private boolean busy;
+
+    private final PendingRequests pending = new PendingRequests();
+
+    private final MyRequestTimer timer = new MyRequestTimer();
+
+    public HttpRequestHandler(MyRouteTable routes, MyRequestExecutor executor, MyStaticResourceHandler statics, MyHttpMetrics metrics,
+                              MyHttpBodyHandler bodyHandler) {
+        this.routes = routes;
+        this.executor = executor;
+        this.statics = statics;
+        this.metrics = metrics;
+        this.bodyHandler = bodyHandler;
     }
 
+    /**
+     * 一次读循环中解码出的所有请求（流水线请求）处理完之后统一 flush，减少系统调用
+     */
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) {
         ctx.flush();
     }
 
+    /**
+     * 写缓冲区超过高水位时暂停读取，降到低水位以下后恢复，避免慢客户端的响应堆积在内存中
+     */
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        ctx.channel().config().setAutoRead(ctx.channel().isWritable() && pending.size() < MAX_PENDING);
+        super.channelWritabilityChanged(ctx);
+    }
+
+    /**
+     * 空闲连接超时关闭。请求还在业务线程中执行，或者流式请求体因为背压暂停了读取时，连接空闲是服务端造成的，
+     * 不关闭，等下一次空闲事件再检查
+     */
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent) {
+            if (!busy && !bodyHandler.isStreamPaused()) {
+                ctx.close();
+            }
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
+    }
+
+    /**
+     * 连接关闭时释放还在排队的请求
+     */
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        releasePending();
+        super.channelInactive(ctx);
+    }
+
+    private void releasePending() {
+        for (FullHttpRequest req; (req = pending.poll()) != null; ) {
+            req.release();
+        }
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest req) throws Exception {
+        long received = System.nanoTime();
+        long head = bodyHandler.getHeadNanos();
+        if (busy) {
+            // SimpleChannelInboundHandler 返回后会释放请求，排队的请求需要多持有一次
+            pending.add(req.retain(), head, received);
+            if (pending.size() >= MAX_PENDING) {
+                ctx.channel().config().setAutoRead(false);
+            }
+            return;
+        }
+        handleRequest(ctx, req, head, received);
+    }
+
+    /**
+     * @param head     请求头解析完成的时间
+     * @param received 完整的请求到达的时间
+     */
+    private void handleRequest(ChannelHandlerContext ctx, FullHttpRequest req, long head, long received) throws Exception {
+        timer.start(head, received);
+        // 排在同一连接前面的请求执行完之前一直在等待
+        timer.lap(MyRouteMetrics.DISPATCH);
         // HTTP客户端程序有一个实体的主体部分要发送给服务器，但希望在发送之前查看下服务器是否会接受这个实体，所以在发送实
         // 体之前先发送了一个携带100 Continue的Expect请求首部的请求。
         //
@@ -53,116 +140,216 @@ public class HttpRequestHandler extends SimpleChannelInboundHandler<FullHttpRequ
                     HttpResponseStatus.CONTINUE));
         }
 
-        FullHttpResponse response = null;
-        String uri = req.uri();
-        Object invoke = "请求错误，该值为默认返回值！";
-        if (uri.equalsIgnoreCase(FAVICON)) {
-            plus.getFavicaon(ctx);
+        String uri = MyRouteTable.getPath(req.uri());
+        // 路由表在启动时已经构建好，这里只需要一次查找
+        MyRoute route = routes.lookup(req.method(), uri);
+        if (route == null) {
+            handleUnmatched(ctx, req, uri);
             return;
         }
-
-        MyPort port = (MyPort) single.get("com.java.frame.http.MyPort");
-        String context = port.getContext();
-
-        if (req.method() == HttpMethod.GET) {
-            Map<String, Object> params = plus.getGetParamsFromChannel(req);
-
-
-            if (HttpMethod.GET.equals(req.method())) {
-                if (uri.contains("?")) {
-                    uri = uri.substring(0, uri.indexOf("?"));
-                }
-                // 缓存获取 url 路径
-                if (requestMapping.get(uri) != null) {
-                    MyRequestHandler handler = requestMapping.get(uri);
-                    invoke = parseGet(uri, invoke, params, handler.getControllerName(), handler, context);
-                    plus.responseMessage(ctx, req, uri, invoke);
-                    return;
-                }
-                for (Map.Entry<String, Map<MyRequestHandler, String>> entry : handlers.entrySet()) {
-                    String className = entry.getKey();
-                    Map<MyRequestHandler, String> entryValue = entry.getValue();
-                    for (Map.Entry<MyRequestHandler, String> v : entryValue.entrySet()) {
-                        MyRequestHandler requestHandler = v.getKey();
-                        invoke = parseGet(uri, invoke, params, className, requestHandler, context);
-                    }
+        MyRouteMetrics routeMetrics = route.getMetrics();
+        routeMetrics.begin();
+        boolean offloaded = false;
+        boolean completed = false;
+        try {
+            Map<String, Object> params = null;
+            // json 请求体在调用时直接从 ByteBuf 绑定到方法参数上，业务线程中执行时也不在 EventLoop 中解析
+            ByteBuf json = null;
+            if (req instanceof MyStreamingHttpRequest) {
+                params = ((MyStreamingHttpRequest) req).getParams();
+            } else if (req.method() == HttpMethod.GET) {
+                params = plus.getGetParamsFromChannel(req);
+            } else if (req.method() == HttpMethod.POST && plus.isJson(req)) {
+                params = plus.getQueryParams(req);
+                json = req.content();
+            } else if (req.method() == HttpMethod.POST) {
+                params = plus.getPostParamsFromChannel(req);
+            }
+            timer.lap(MyRouteMetrics.DECODE);
+            if (!executor.isInline(route)) {
+                offloaded = true;
+                offload(ctx, req, route, params, json);
+                return;
+            }
+            Object[] args = route.resolveArguments(params, json);
+            timer.lap(MyRouteMetrics.DECODE);
+            Object invoke = route.invoke(args);
+            timer.lap(MyRouteMetrics.HANDLER);
+            plus.responseMessage(ctx, req, uri, invoke);
+            timer.lap(MyRouteMetrics.ENCODE);
+            completed = true;
+        } finally {
+            if (!offloaded) {
+                if (!completed) {
+                    // 未完成的阶段计入 handler
+                    routeMetrics.error();
+                    timer.lap(MyRouteMetrics.HANDLER);
                 }
+                timer.stop(routeMetrics);
             }
+        }
+    }
+
+    /**
+     * 未匹配到路由时依次查找指标抓取路径、静态资源，都没有时返回默认值。缓存中没有的路径在静态资源的 IO 线程中查找，
+     * 期间与 offload 一样，同一连接上后续的请求排队
+     */
+    private void handleUnmatched(ChannelHandlerContext ctx, FullHttpRequest req, String uri) throws Exception {
+        // 应用的路由优先，抓取路径不会遮住同名的 controller 方法
+        if (metrics.isScrape(uri)) {
+            plus.writeResponse(ctx, req, plus.createTextResponse(ctx, metrics.scrape(), MyHttpMetrics.CONTENT_TYPE));
+            return;
+        }
+        String relative = statics.getRelativePath(req, uri);
+        MyStaticResourceHandler.Resource resource = relative == null ? null : statics.lookup(relative);
+        if (relative != null && resource == null) {
+            busy = true;
+            req.retain();
+            statics.resolve(relative, resolved -> ctx.executor().execute(() -> completeUnmatched(ctx, req, uri, relative, resolved)));
+            return;
+        }
+        writeUnmatched(ctx, req, uri, relative, resource);
+    }
+
+    /**
+     * IO 线程查找完毕，回到 EventLoop 写出响应，再继续处理排队的请求
+     */
+    private void completeUnmatched(ChannelHandlerContext ctx, FullHttpRequest req, String uri, String relative,
+                                   MyStaticResourceHandler.Resource resource) {
+        busy = false;
+        try {
+            writeUnmatched(ctx, req, uri, relative, resource);
+            processPending(ctx);
+        } catch (Exception e) {
+            failPending(ctx, e);
+        } finally {
+            req.release();
+            ctx.flush();
+        }
+    }
 
-        } else if (req.method() == HttpMethod.POST) {
+    private void writeUnmatched(ChannelHandlerContext ctx, FullHttpRequest req, String uri, String relative,
+                                MyStaticResourceHandler.Resource resource) throws Exception {
+        MyRouteMetrics routeMetrics = metrics.getStatics();
+        MyStaticResourceHandler.Outcome outcome = relative == null ? MyStaticResourceHandler.Outcome.NOT_FOUND
+                : statics.handle(ctx, req, relative, resource, () -> resume(ctx));
+        if (outcome == MyStaticResourceHandler.Outcome.NOT_FOUND) {
+            routeMetrics = metrics.getUnmatched();
+            plus.responseMessage(ctx, req, uri, "请求错误，该值为默认返回值！");
+        } else if (outcome == MyStaticResourceHandler.Outcome.OPENING) {
+            // 大文件在 IO 线程中打开，写出之前后续的请求排队
+            busy = true;
+        }
+        timer.lap(MyRouteMetrics.ENCODE);
+        routeMetrics.begin();
+        timer.stop(routeMetrics);
+    }
 
-            Map<String, Object> params = plus.getPostParamsFromChannel(req);
+    /**
+     * 大文件的响应已在 EventLoop 中写出，继续处理排队的请求
+     */
+    private void resume(ChannelHandlerContext ctx) {
+        busy = false;
+        try {
+            processPending(ctx);
+        } catch (Exception e) {
+            failPending(ctx, e);
+        } finally {
+            ctx.flush();
+        }
+    }
 
-            if (uri.contains("?")) {
-                uri = uri.substring(0, uri.indexOf("?"));
+    /**
+     * 表单、query string 参数已经在 EventLoop 中解析完毕，业务线程绑定 json 请求体、执行 controller 方法并序列化
+     */
+    private void offload(ChannelHandlerContext ctx, FullHttpRequest req, MyRoute route, Map<String, Object> params, ByteBuf json) {
+        HttpVersion version = req.protocolVersion();
+        boolean keepAlive = HttpUtil.isKeepAlive(req);
+        busy = true;
+        // 流式请求体、上传的文件在业务线程中使用，执行完毕后再释放请求
+        req.retain();
+        boolean accepted = executor.execute(route, () -> {
+            // 同一连接同一时刻只有这一个请求在执行，计时器交给业务线程使用
+            timer.lap(MyRouteMetrics.DISPATCH);
+            FullHttpResponse response = null;
+            Throwable error = null;
+            try {
+                Object[] args = route.resolveArguments(params, json);
+                timer.lap(MyRouteMetrics.DECODE);
+                Object invoke = route.invoke(args);
+                timer.lap(MyRouteMetrics.HANDLER);
+                response = plus.createResponse(ctx, invoke);
+                timer.lap(MyRouteMetrics.ENCODE);
+            } catch (Throwable e) {
+                error = e;
+                timer.lap(MyRouteMetrics.HANDLER);
             }
+            FullHttpResponse result = response;
+            Throwable cause = error;
+            ctx.executor().execute(() -> complete(ctx, req, route, version, keepAlive, result, cause));
+        });
+        if (!accepted) {
+            busy = false;
+            req.release();
+            route.getMetrics().rejected();
+            plus.writeResponse(ctx, version, keepAlive, plus.createBusyResponse());
+            timer.lap(MyRouteMetrics.ENCODE);
+            timer.stop(route.getMetrics());
+        }
+    }
 
-            if (requestMapping.get(uri) != null) {
-                MyRequestHandler handler = requestMapping.get(uri);
-                invoke = parseGet(uri, invoke, params, handler.getControllerName(), handler, context);
-                plus.responseMessage(ctx, req, uri, invoke);
+    /**
+     * 回到 EventLoop 写出响应，再继续处理排队的请求
+     */
+    private void complete(ChannelHandlerContext ctx, FullHttpRequest request, MyRoute route, HttpVersion version, boolean keepAlive,
+                          FullHttpResponse response, Throwable error) {
+        busy = false;
+        request.release();
+        timer.lap(MyRouteMetrics.DISPATCH);
+        try {
+            if (error != null) {
+                route.getMetrics().error();
+                timer.stop(route.getMetrics());
+                exceptionCaught(ctx, error);
                 return;
             }
-            for (Map.Entry<String, Map<MyRequestHandler, String>> entry : handlers.entrySet()) {
-                String className = entry.getKey();
-                Map<MyRequestHandler, String> entryValue = entry.getValue();
-                for (Map.Entry<MyRequestHandler, String> v : entryValue.entrySet()) {
-                    MyRequestHandler requestHandler = v.getKey();
-                    invoke = parseGet(uri, invoke, params, className, requestHandler, context);
-                }
-            }
-            //String data = "POST method over";
-            //ByteBuf content = copiedBuffer(data, CharsetUtil.UTF_8);
-            //response = plus.responseOK(HttpResponseStatus.OK, content);
-        } else {
-            response = plus.responseOK(HttpResponseStatus.INTERNAL_SERVER_ERROR, null);
+            plus.writeResponse(ctx, version, keepAlive, response);
+            timer.lap(MyRouteMetrics.ENCODE);
+            timer.stop(route.getMetrics());
+            processPending(ctx);
+        } catch (Exception e) {
+            failPending(ctx, e);
+        } finally {
+            ctx.flush();
         }
-        plus.responseMessage(ctx, req, uri, invoke);
     }
 
-
-    private Object parseGet(String uri, Object invoke, Map<String, Object> params, String className, MyRequestHandler requestHandler, String context) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-        String url = requestHandler.getUrl();
-        if (StringUtils.isNotEmpty(context)) {
-            if (context.contains("/")) {
-                url = context + url;
-            } else {
-                url = "/" + context + url;
+    /**
+     * 继续处理排队的请求，排队的请求减少后恢复读取
+     */
+    private void processPending(ChannelHandlerContext ctx) throws Exception {
+        for (FullHttpRequest req; !busy && (req = pending.poll()) != null; ) {
+            try {
+                handleRequest(ctx, req, pending.polledHead, pending.polledReceived);
+            } finally {
+                req.release();
             }
         }
-        if (uri.equalsIgnoreCase(url)) {
-
-            Object o = single.get(className);
-            Class<?> clazz = Class.forName(className);
-            List<String> list = requestHandler.getList();
-
-            Class<?>[] methodParamTypes = requestHandler.getMethodParamTypes();
-            Method method = clazz.getDeclaredMethod(requestHandler.getMethodName(), methodParamTypes);
-            requestMapping.put(url, requestHandler);
-
-            Object[] param = new Object[list.size()];
-            if (list.size() == 0) {
-                method.setAccessible(true);
-                invoke = method.invoke(o);
-            } else {
-                for (int i = 0; i < list.size(); i++) {
-                    boolean b = params.containsKey(list.get(i));
-                    if (b) {
-                        param[i] = plus.getValue(methodParamTypes[i], params.get(list.get(i)), true);
-                    } else {
-                        param[i] = plus.getValue(methodParamTypes[i], params.get(list.get(i)), false);
-                    }
-                }
-                method.setAccessible(true);
-                if (list.size() > 0) {
-                    invoke = method.invoke(o, param);
-                } else {
-                    invoke = method.invoke(o);
-                }
-            }
+        if (pending.size() < MAX_PENDING && ctx.channel().isWritable() && !ctx.channel().config().isAutoRead()) {
+            ctx.channel().config().setAutoRead(true);
+        }
+    }
 
+    /**
+     * 与 channelRead0 中抛出异常时一样关闭连接，排队的请求不会再有响应，直接释放
+     */
+    private void failPending(ChannelHandlerContext ctx, Exception e) {
+        releasePending();
+        try {
+            exceptionCaught(ctx, e);
+        } catch (Exception ignored) {
+            ctx.close();
         }
-        return invoke;
     }
 
     /**
@@ -174,5 +361,72 @@ public class HttpRequestHandler extends SimpleChannelInboundHandler<FullHttpRequ
         super.exceptionCaught(ctx, cause);
     }
 
+    /**
+     * 排队的流水线请求与其到达时间，数组实现的环形队列，满了之后扩容一倍，入队出队不分配对象
+     */
+    private static final class PendingRequests {
+
+        private FullHttpRequest[] requests = new FullHttpRequest[MAX_PENDING];
+
+        private long[] heads = new long[MAX_PENDING];
+
+        private long[] receiveds = new long[MAX_PENDING];
+
+        private int first;
+
+        private int size;
+
+        /**
+         * 最近一次 poll 出的请求的时间
+         */
+        long polledHead;
+
+        long polledReceived;
+
+        void add(FullHttpRequest request, long head, long received) {
+            if (size == requests.length) {
+                grow();
+            }
+            int index = (first + size++) % requests.length;
+            requests[index] = request;
+            heads[index] = head;
+            receiveds[index] = received;
+        }
+
+        FullHttpRequest poll() {
+            if (size == 0) {
+                return null;
+            }
+            FullHttpRequest request = requests[first];
+            requests[first] = null;
+            polledHead = heads[first];
+            polledReceived = receiveds[first];
+            first = (first + 1) % requests.length;
+            size--;
+            return request;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void grow() {
+            int length = requests.length;
+            FullHttpRequest[] newRequests = new FullHttpRequest[length * 2];
+            long[] newHeads = new long[length * 2];
+            long[] newReceiveds = new long[length * 2];
+            for (int i = 0; i < size; i++) {
+                int index = (first + i) % length;
+                newRequests[i] = requests[index];
+                newHeads[i] = heads[index];
+                newReceiveds[i] = receiveds[index];
+            }
+            requests = newRequests;
+            heads = newHeads;
+            receiveds = newReceiveds;
+            first = 0;
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -5,12 +5,16 @@ import com.java.frame.util.StringUtils;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
+import io.netty.handler.codec.http.multipart.DiskAttribute;
+import io.netty.handler.codec.http.multipart.DiskFileUpload;
+import io.netty.handler.codec.http.multipart.HttpDataFactory;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,6 +22,26 @@ import java.util.Map;
  */
 public class HttpServer {
 
+    private static final int DEFAULT_IDLE_TIMEOUT = 60;
+
+    private static final int DEFAULT_BUSINESS_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final int DEFAULT_BUSINESS_QUEUE = 1024;
+
+    private static final int DEFAULT_MAX_CONTENT_LENGTH = 512 * 1024;
+
+    private static final int DEFAULT_MULTIPART_THRESHOLD = 16 * 1024;
+
+    private static final long DEFAULT_MAX_UPLOAD_SIZE = 64 * 1024 * 1024;
+
+    private static final int DEFAULT_STATIC_CACHE_SIZE = 16 * 1024 * 1024;
+
+    private static final int DEFAULT_STATIC_CACHE_FILE_SIZE = 64 * 1024;
+
+    private static final int DEFAULT_STATIC_REVALIDATE_INTERVAL = 1000;
+
+    private static final int DEFAULT_EVENT_LOOP_PROBE_INTERVAL = 1000;
+
     int port;
 
 
@@ -37,27 +61,107 @@ public class HttpServer {
     }
 
     public void start() throws Exception {
+        start(null);
+    }
+
+    /**
+     * 启动服务器，阻塞直到服务器关闭
+     *
+     * @param started 端口绑定成功后回调
+     */
+    public void start(Runnable started) throws Exception {
         MyPort port = (MyPort) single.get("com.java.frame.http.MyPort");
         if (StringUtils.isNotEmpty(port.getPort())) {
             this.port = Integer.valueOf(port.getPort());
         }
 
+        // 启动时一次性构建路由表
+        MyRouteTable routes = MyRouteTable.build(single, handlers, port.getContext());
+
+        MyRequestExecutor executor = new MyRequestExecutor(port.getExecution(),
+                getInt(port.getBusinessThreads(), DEFAULT_BUSINESS_THREADS), getInt(port.getBusinessQueue(), DEFAULT_BUSINESS_QUEUE));
+
+        // multipart 中超过阈值的部分写入临时文件，请求处理完毕后立即删除，不需要 deleteOnExit
+        DiskFileUpload.deleteOnExitTemporaryFile = false;
+        DiskAttribute.deleteOnExitTemporaryFile = false;
+        HttpDataFactory factory = new DefaultHttpDataFactory(getInt(port.getMultipartThreshold(), DEFAULT_MULTIPART_THRESHOLD));
+        // 单个字段、文件以及整个 multipart 请求体都不能超过 maxUploadSize，避免写满内存或磁盘
+        long maxUploadSize = getLong(port.getMaxUploadSize(), DEFAULT_MAX_UPLOAD_SIZE);
+        if (maxUploadSize > 0) {
+            factory.setMaxLimit(maxUploadSize);
+        }
+
+        // 静态资源，小文件缓存在内存中，大文件零拷贝发送
+        MyStaticResourceHandler statics = new MyStaticResourceHandler(port.getStaticLocations(), port.getContext(),
+                getInt(port.getStaticCacheSize(), DEFAULT_STATIC_CACHE_SIZE), getInt(port.getStaticCacheFileSize(), DEFAULT_STATIC_CACHE_FILE_SIZE),
+                getBoolean(port.getStaticZeroCopy(), true),
+                getInt(port.getStaticMaxAge(), 0), getInt(port.getStaticRevalidateInterval(), DEFAULT_STATIC_REVALIDATE_INTERVAL));
+
+        // 请求计数与各阶段耗时，scrape 路径为空时只记录不输出
+        MyHttpMetrics metrics = new MyHttpMetrics(routes, executor, port.getMetricsPath());
+
+        // Linux 上优先使用 epoll，线程数与 socket 参数见 MyPort
+        MyTransport transport = new MyTransport(port);
         ServerBootstrap bootstrap = new ServerBootstrap();
-        EventLoopGroup boss = new NioEventLoopGroup();
-        EventLoopGroup work = new NioEventLoopGroup();
+        EventLoopGroup boss = transport.newBossGroup();
+        EventLoopGroup work = transport.newWorkerGroup();
+        // 每个新连接都会打印一行 INFO 日志，高并发短连接时会拖慢 boss 线程，这里只在 DEBUG 时输出
         bootstrap.group(boss, work)
-                .handler(new LoggingHandler(LogLevel.INFO))
-                .channel(NioServerSocketChannel.class)
-                .childHandler(new HttpServerInitializer(single, handlers));
-
-        ChannelFuture f = bootstrap.bind(new InetSocketAddress(this.port)).sync();
-        if (StringUtils.isNotEmpty(port.getContext())) {
-            System.out.println(" server start up on port : " + this.port + " and Application context :" + port.context);
-        } else {
-            System.out.println(" server start up on port : " + this.port);
+                .handler(new LoggingHandler(LogLevel.DEBUG))
+                .childHandler(new HttpServerInitializer(routes, getIdleTimeout(port), executor,
+                        getInt(port.getMaxContentLength(), DEFAULT_MAX_CONTENT_LENGTH), factory, maxUploadSize, statics, metrics));
+        transport.configure(bootstrap);
+
+        int probeInterval = getInt(port.getEventLoopProbeInterval(), DEFAULT_EVENT_LOOP_PROBE_INTERVAL);
+        if (probeInterval > 0) {
+            metrics.monitor("boss", boss, probeInterval);
+            metrics.monitor("worker", work, probeInterval);
         }
-        f.channel().closeFuture().sync();
 
+        try {
+            // 开启 SO_REUSEPORT 时同一端口绑定多次，每次绑定的 channel 注册到不同的 boss 线程上
+            List<ChannelFuture> futures = new ArrayList<>(transport.getAcceptors());
+            for (int i = 0; i < transport.getAcceptors(); i++) {
+                futures.add(bootstrap.bind(new InetSocketAddress(this.port)).sync());
+            }
+            System.out.println(" " + transport);
+            if (StringUtils.isNotEmpty(port.getContext())) {
+                System.out.println(" server start up on port : " + this.port + " and Application context :" + port.context);
+            } else {
+                System.out.println(" server start up on port : " + this.port);
+            }
+            if (started != null) {
+                started.run();
+            }
+            for (ChannelFuture f : futures) {
+                f.channel().closeFuture().sync();
+            }
+        } finally {
+            executor.shutdown();
+            statics.shutdown();
+            boss.shutdownGracefully();
+            work.shutdownGracefully();
+        }
+
+    }
+
+    /**
+     * 长连接空闲超时时间，未配置时为 60 秒
+     */
+    private int getIdleTimeout(MyPort port) {
+        return getInt(port.getIdleTimeout(), DEFAULT_IDLE_TIMEOUT);
+    }
+
+    private int getInt(String value, int defaultValue) {
+        return StringUtils.isNotEmpty(value) ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private long getLong(String value, long defaultValue) {
+        return StringUtils.isNotEmpty(value) ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    private boolean getBoolean(String value, boolean defaultValue) {
+        return StringUtils.isNotEmpty(value) ? Boolean.parseBoolean(value.trim()) : defaultValue;
     }
 
-}
\ No newline at end of file
+}
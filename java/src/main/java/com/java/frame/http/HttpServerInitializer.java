@@ -1,26 +1,59 @@
 package com.java.frame.http;
 
-import com.java.frame.handler.MyRequestHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.multipart.HttpDataFactory;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateHandler;
 
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author xuweizhi
  */
 public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
 
-    Map<String, Object> single;
+    MyRouteTable routes;
 
-    Map<String, Map<MyRequestHandler, String>> handlers;
+    /**
+     * 空闲连接超时时间，单位秒，0 表示不超时
+     */
+    int idleTimeout;
 
-    public HttpServerInitializer(Map<String, Object> single, Map<String, Map<MyRequestHandler, String>> handlers) {
-        this.single = single;
-        this.handlers = handlers;
+    MyRequestExecutor executor;
+
+    /**
+     * 聚合请求的最大长度，流式请求与 multipart 请求不受此限制
+     */
+    int maxContentLength;
+
+    /**
+     * multipart 解码使用，超过阈值的部分写入磁盘
+     */
+    HttpDataFactory factory;
+
+    /**
+     * multipart 请求体的最大长度，0 表示不限制
+     */
+    long maxUploadSize;
+
+    MyStaticResourceHandler statics;
+
+    MyHttpMetrics metrics;
+
+    public HttpServerInitializer(MyRouteTable routes, int idleTimeout, MyRequestExecutor executor, int maxContentLength, HttpDataFactory factory,
+                                 long maxUploadSize, MyStaticResourceHandler statics, MyHttpMetrics metrics) {
+        this.routes = routes;
+        this.idleTimeout = idleTimeout;
+        this.executor = executor;
+        this.maxContentLength = maxContentLength;
+        this.factory = factory;
+        this.maxUploadSize = maxUploadSize;
+        this.statics = statics;
+        this.metrics = metrics;
     }
 
     @Override
@@ -28,16 +61,30 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
 
         ChannelPipeline pipeline = channel.pipeline();
 
+        metrics.connectionOpened(channel);
+
+        // 长连接空闲超时，读写都空闲时触发 IdleStateEvent，由 HttpRequestHandler 关闭连接
+        if (idleTimeout > 0) {
+            pipeline.addLast(new IdleStateHandler(0, 0, idleTimeout, TimeUnit.SECONDS));
+        }
+
         // http 编解码
         pipeline.addLast(new HttpServerCodec());
 
-        // http 消息聚合器 512*1024为接收的最大contentlength
+        // 流式请求与 multipart 请求的请求体不经过聚合器，见 MyHttpBodyHandler
+        MyHttpBodyHandler bodyHandler = new MyHttpBodyHandler(routes, factory, maxUploadSize);
+        pipeline.addLast("bodyHandler", bodyHandler);
+
+        // http 消息聚合器 maxContentLength 为接收的最大contentlength，默认 512*1024
         // HttpObjectAggregator是Http消息聚合器，Aggregator这个单次就是“聚合，聚集”的意思。http消息在传输的过程中可能
         // 是一片片的消息片端，所以当服务器接收到的是一片片的时候，就需要HttpObjectAggregator来把它们聚合起来
-        pipeline.addLast("httpAggregator", new HttpObjectAggregator(512 * 1024));
+        pipeline.addLast("httpAggregator", new HttpObjectAggregator(maxContentLength));
+
+        // 静态大文件在不能零拷贝时以 ChunkedFile 分块写出
+        pipeline.addLast("chunkedWriter", new ChunkedWriteHandler());
 
         // 请求处理器
-        pipeline.addLast(new HttpRequestHandler(single,handlers));
+        pipeline.addLast(new HttpRequestHandler(routes, executor, statics, metrics, bodyHandler));
 
     }
 
@@ -0,0 +1,127 @@
+package com.java.frame.http;
+
+import io.netty.buffer.ByteBuf;
+
+import java.io.Reader;
+
+/**
+ * 直接从 {@link ByteBuf} 中按 UTF-8 解码字符的 Reader，与 {@link MyByteBufWriter} 对应。解析请求体时不再把整个请求体拷贝成 byte[] 与 String，
+ * 每次只把不超过 1KB 的字节取到窗口中解码；不修改 ByteBuf 的读写下标
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 23:20
+ */
+public class MyByteBufReader extends Reader {
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private static final int WINDOW_SIZE = 1024;
+
+    private final ByteBuf buf;
+
+    private final int end;
+
+    /**
+     * 下一个取到窗口中的字节在 ByteBuf 中的下标
+     */
+    private int index;
+
+    private final byte[] window;
+
+    private int pos;
+
+    private int limit;
+
+    /**
+     * 四字节字符的低位代理，上一次读取时 cbuf 已满
+     */
+    private char pendingLowSurrogate;
+
+    public MyByteBufReader(ByteBuf buf) {
+        this.buf = buf;
+        this.index = buf.readerIndex();
+        this.end = buf.writerIndex();
+        this.window = new byte[Math.max(4, Math.min(WINDOW_SIZE, end - index))];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        if (pendingLowSurrogate != 0) {
+            cbuf[off + n++] = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+        }
+        while (n < len) {
+            if (limit - pos < 4) {
+                fill();
+                if (pos == limit) {
+                    break;
+                }
+            }
+            int b = window[pos] & 0xff;
+            if (b < 0x80) {
+                cbuf[off + n++] = (char) b;
+                pos++;
+                continue;
+            }
+            int length = b >= 0xf8 ? 0 : b >= 0xf0 ? 4 : b >= 0xe0 ? 3 : b >= 0xc0 ? 2 : 0;
+            int codePoint = length == 0 || limit - pos < length ? -1 : decode(b, length);
+            if (codePoint < 0) {
+                // 非法的首字节、被截断或者后续字节不合法
+                cbuf[off + n++] = REPLACEMENT;
+                pos++;
+                continue;
+            }
+            pos += length;
+            if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                cbuf[off + n++] = Character.highSurrogate(codePoint);
+                char low = Character.lowSurrogate(codePoint);
+                if (n < len) {
+                    cbuf[off + n++] = low;
+                } else {
+                    pendingLowSurrogate = low;
+                }
+            } else {
+                cbuf[off + n++] = (char) codePoint;
+            }
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    private int decode(int first, int length) {
+        int codePoint = first & (0xff >> (length + 1));
+        for (int i = 1; i < length; i++) {
+            int b = window[pos + i] & 0xff;
+            if ((b & 0xc0) != 0x80) {
+                return -1;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3f);
+        }
+        return codePoint;
+    }
+
+    /**
+     * 把窗口中剩余的字节移到开头，再从 ByteBuf 中补满
+     */
+    private void fill() {
+        int remaining = limit - pos;
+        if (remaining > 0 && pos > 0) {
+            System.arraycopy(window, pos, window, 0, remaining);
+        }
+        pos = 0;
+        limit = remaining;
+        int length = Math.min(window.length - remaining, end - index);
+        if (length > 0) {
+            buf.getBytes(index, window, remaining, length);
+            index += length;
+            limit += length;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,99 @@
+package com.java.frame.http;
+
+import io.netty.buffer.ByteBuf;
+
+import java.io.Writer;
+
+/**
+ * 直接把字符按 UTF-8 编码写入 {@link ByteBuf} 的 Writer，序列化时不再生成中间 String 与 byte[]
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 13:40
+ */
+public class MyByteBufWriter extends Writer {
+
+    private static final byte REPLACEMENT = '?';
+
+    private final ByteBuf buf;
+
+    /**
+     * 跨两次写入的高位代理字符
+     */
+    private char highSurrogate;
+
+    public MyByteBufWriter(ByteBuf buf) {
+        this.buf = buf;
+    }
+
+    @Override
+    public void write(int c) {
+        writeChar((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            writeChar(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            writeChar(str.charAt(i));
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+        if (csq == null) {
+            csq = "null";
+        }
+        for (int i = 0; i < csq.length(); i++) {
+            writeChar(csq.charAt(i));
+        }
+        return this;
+    }
+
+    private void writeChar(char c) {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buf.writeByte(0xf0 | (codePoint >> 18));
+                buf.writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+                buf.writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+                buf.writeByte(0x80 | (codePoint & 0x3f));
+                return;
+            }
+            buf.writeByte(REPLACEMENT);
+        }
+        if (c < 0x80) {
+            buf.writeByte(c);
+        } else if (c < 0x800) {
+            buf.writeByte(0xc0 | (c >> 6));
+            buf.writeByte(0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf.writeByte(REPLACEMENT);
+        } else {
+            buf.writeByte(0xe0 | (c >> 12));
+            buf.writeByte(0x80 | ((c >> 6) & 0x3f));
+            buf.writeByte(0x80 | (c & 0x3f));
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            buf.writeByte(REPLACEMENT);
+        }
+    }
+}
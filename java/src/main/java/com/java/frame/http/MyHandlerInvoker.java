@@ -0,0 +1,51 @@
+package com.java.frame.http;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * controller 方法调用器，启动时把 {@link Method} 转换为已经绑定 controller 实例的 {@link MethodHandle}，
+ * 统一适配成 (Object[])Object 的签名，请求时通过 invokeExact 调用，不再经过 Method.invoke 的访问检查与参数包装
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 11:05
+ */
+public class MyHandlerInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final MethodHandle handle;
+
+    private MyHandlerInvoker(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * 生成调用器
+     *
+     * @param bean   controller 单例
+     * @param method 已经 setAccessible 的目标方法
+     */
+    public static MyHandlerInvoker create(Object bean, Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(bean);
+            handle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+            return new MyHandlerInvoker(handle);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access handler method " + method, e);
+        }
+    }
+
+    public Object invoke(Object[] args) throws Exception {
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.java.frame.http;
+
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.multipart.HttpDataFactory;
+import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
+import io.netty.handler.codec.http.multipart.InterfaceHttpData;
+import io.netty.util.ReferenceCountUtil;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 位于 HttpObjectAggregator 之前，接管两类请求的请求体，不再整体聚合到内存中：
+ * <ul>
+ * <li>路由方法声明了 {@link MyRequestBody} 参数：请求头到达就向后传递 {@link MyStreamingHttpRequest}，之后的 HttpContent 写入 MyRequestBody</li>
+ * <li>multipart/form-data：逐块交给 {@link HttpPostRequestDecoder} 解码，超过阈值的部分写入磁盘，解码完毕后向后传递，
+ * 请求体超过 maxUploadSize 时返回 413 并关闭连接</li>
+ * </ul>
+ * 其余请求原样交给 HttpObjectAggregator 聚合。MyStreamingHttpRequest 已经是完整的请求，聚合器不会再处理它
+ * <p>
+ * 每个连接一个实例，只在 EventLoop 线程中访问
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 22:40
+ */
+public class MyHttpBodyHandler extends ChannelInboundHandlerAdapter {
+
+    private final MyRouteTable routes;
+
+    private final HttpDataFactory factory;
+
+    /**
+     * multipart 请求体的最大长度，0 表示不限制
+     */
+    private final long maxUploadSize;
+
+    /**
+     * 已经接收的 multipart 请求体长度
+     */
+    private long uploaded;
+
+    /**
+     * 请求已经被拒绝，丢弃之后读到的所有消息直到连接关闭
+     */
+    private boolean discarding;
+
+    /**
+     * 正在接收的流式请求体
+     */
+    private MyRequestBody body;
+
+    /**
+     * 正在接收的 multipart 请求
+     */
+    private HttpRequest multipartRequest;
+
+    private HttpPostRequestDecoder decoder;
+
+    /**
+     * 已经解码完成的表单字段与文件
+     */
+    private List<InterfaceHttpData> datas;
+
+    /**
+     * 最近一个请求头解析完成的时间，作为该请求计时的起点
+     */
+    private long headNanos;
+
+    public MyHttpBodyHandler(MyRouteTable routes, HttpDataFactory factory, long maxUploadSize) {
+        this.routes = routes;
+        this.factory = factory;
+        this.maxUploadSize = maxUploadSize;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (discarding) {
+            ReferenceCountUtil.release(msg);
+            return;
+        }
+        if (msg instanceof HttpRequest && !(msg instanceof FullHttpRequest)) {
+            HttpRequest request = (HttpRequest) msg;
+            headNanos = System.nanoTime();
+            if (request.decoderResult().isSuccess()) {
+                if (isStreaming(request)) {
+                    startStream(ctx, request);
+                    return;
+                }
+                if (isMultipart(request)) {
+                    startMultipart(ctx, request);
+                    return;
+                }
+            }
+        } else if (msg instanceof HttpContent) {
+            if (body != null) {
+                readStream((HttpContent) msg);
+                return;
+            }
+            if (decoder != null) {
+                readMultipart(ctx, (HttpContent) msg);
+                return;
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    /**
+     * 连接断开时通知还在读取请求体的 controller，删除未解码完的 multipart 临时文件
+     */
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (body != null) {
+            body.fail(new ClosedChannelException());
+            body = null;
+        }
+        if (decoder != null) {
+            destroyMultipart();
+        }
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * HttpServerCodec 逐个解码请求，聚合后的请求在下一个请求头到达之前就已经传给后面的 handler，
+     * 所以 HttpRequestHandler 收到请求时取到的就是该请求的请求头时间
+     */
+    long getHeadNanos() {
+        return headNanos;
+    }
+
+    /**
+     * 正在接收的流式请求体是否因为背压暂停了读取，此时连接空闲是在等业务线程，而不是客户端
+     */
+    boolean isStreamPaused() {
+        return body != null && body.isPaused();
+    }
+
+    private boolean isStreaming(HttpRequest request) {
+        MyRoute route = routes.lookup(request.method(), request.uri());
+        return route != null && route.isStreaming();
+    }
+
+    private boolean isMultipart(HttpRequest request) {
+        return request.method() == HttpMethod.POST && HttpPostRequestDecoder.isMultipart(request);
+    }
+
+    private void startStream(ChannelHandlerContext ctx, HttpRequest request) {
+        sendContinue(ctx, request);
+        body = new MyRequestBody(ctx.channel(), HttpUtil.getContentLength(request, -1L));
+        ctx.fireChannelRead(new MyStreamingHttpRequest(request, body, null, null));
+    }
+
+    private void readStream(HttpContent content) {
+        MyRequestBody current = body;
+        boolean last = content instanceof LastHttpContent;
+        if (last) {
+            body = null;
+        }
+        current.offer(content.content());
+        if (last) {
+            current.complete();
+        }
+    }
+
+    private void startMultipart(ChannelHandlerContext ctx, HttpRequest request) {
+        if (maxUploadSize > 0 && HttpUtil.getContentLength(request, -1L) > maxUploadSize) {
+            // 请求头声明的长度已经超过限制，不回复 100 Continue，直接拒绝
+            reject(ctx);
+            return;
+        }
+        sendContinue(ctx, request);
+        uploaded = 0;
+        multipartRequest = request;
+        decoder = new HttpPostRequestDecoder(factory, request);
+        datas = new ArrayList<>();
+    }
+
+    private void readMultipart(ChannelHandlerContext ctx, HttpContent content) {
+        uploaded += content.content().readableBytes();
+        if (maxUploadSize > 0 && uploaded > maxUploadSize) {
+            content.release();
+            destroyMultipart();
+            reject(ctx);
+            return;
+        }
+        try {
+            decoder.offer(content);
+            pollDatas();
+        } catch (HttpPostRequestDecoder.ErrorDataDecoderException e) {
+            destroyMultipart();
+            throw e;
+        } finally {
+            content.release();
+        }
+        if (content instanceof LastHttpContent) {
+            MyStreamingHttpRequest request = new MyStreamingHttpRequest(multipartRequest, null, decoder, datas);
+            decoder = null;
+            multipartRequest = null;
+            datas = null;
+            ctx.fireChannelRead(request);
+        }
+    }
+
+    /**
+     * 删除已经解码的部分以及临时文件
+     */
+    private void destroyMultipart() {
+        decoder.destroy();
+        decoder = null;
+        multipartRequest = null;
+        datas = null;
+    }
+
+    /**
+     * 请求体超过 maxUploadSize，返回 413 并关闭连接，剩余的请求体在连接关闭之前直接丢弃
+     */
+    private void reject(ChannelHandlerContext ctx) {
+        discarding = true;
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * 取出已经解码完成的部分。取出后的数据由 decoder.destroy 统一释放，未取出的数据 destroy 时会被重复释放
+     */
+    private void pollDatas() {
+        try {
+            while (decoder.hasNext()) {
+                datas.add(decoder.next());
+            }
+        } catch (HttpPostRequestDecoder.EndOfDataDecoderException e) {
+            // 全部解码完毕
+        }
+    }
+
+    /**
+     * 请求头带有 Expect: 100-continue 时，请求体不经过聚合器，由这里回复 100 Continue
+     */
+    private void sendContinue(ChannelHandlerContext ctx, HttpRequest request) {
+        if (HttpUtil.is100ContinueExpected(request)) {
+            ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE));
+            request.headers().remove(HttpHeaderNames.EXPECT);
+        }
+    }
+}
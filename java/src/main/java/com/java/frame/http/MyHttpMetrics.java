@@ -0,0 +1,280 @@
+package com.java.frame.http;
+
+import com.java.frame.util.StringUtils;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 服务器级别的指标：各路由的 {@link MyRouteMetrics}、连接数、业务线程池与 EventLoop 的积压情况，
+ * 通过 {@link #scrape()} 输出为 Prometheus 文本格式（text/plain; version=0.0.4）
+ * <p>
+ * 请求路径上只有计数器自增与直方图记录，都不分配对象；拼接文本只在抓取时进行
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 09:30
+ */
+public class MyHttpMetrics {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * 直方图输出的桶上界，单位秒
+     */
+    private static final String[] BUCKETS = {"0.00005", "0.0001", "0.00025", "0.0005", "0.001", "0.0025", "0.005", "0.01",
+            "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10"};
+
+    private static final long[] BUCKET_NANOS = new long[BUCKETS.length];
+
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+
+    static {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            BUCKET_NANOS[i] = (long) (Double.parseDouble(BUCKETS[i]) * 1e9);
+        }
+    }
+
+    private final List<MyRouteMetrics> routes = new ArrayList<>();
+
+    /**
+     * 静态资源请求
+     */
+    private final MyRouteMetrics statics = new MyRouteMetrics("static");
+
+    /**
+     * 未匹配到路由与静态资源的请求
+     */
+    private final MyRouteMetrics unmatched = new MyRouteMetrics("unmatched");
+
+    private final MyRequestExecutor executor;
+
+    /**
+     * 抓取路径，为空时不提供
+     */
+    private final String path;
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder connections = new LongAdder();
+
+    /**
+     * 所有连接共用一个关闭监听器
+     */
+    private final ChannelFutureListener closed = future -> connections.decrement();
+
+    private final List<LoopProbe> probes = new CopyOnWriteArrayList<>();
+
+    public MyHttpMetrics(MyRouteTable table, MyRequestExecutor executor, String path) {
+        this.executor = executor;
+        this.path = StringUtils.isNotEmpty(path) ? path.trim() : null;
+        for (MyRoute route : table.getRoutes()) {
+            routes.add(route.getMetrics());
+        }
+        routes.add(statics);
+        routes.add(unmatched);
+    }
+
+    /**
+     * 新连接建立，连接关闭时自动减少连接数
+     */
+    public void connectionOpened(Channel channel) {
+        accepted.increment();
+        connections.increment();
+        channel.closeFuture().addListener(closed);
+    }
+
+    /**
+     * 在每个 EventLoop 上定时执行一个探测任务，实际执行时间与预定时间之差即为该 EventLoop 的延迟
+     *
+     * @param group          线程组名称
+     * @param loops          EventLoop 线程组
+     * @param intervalMillis 探测间隔，单位毫秒
+     */
+    public void monitor(String group, EventExecutorGroup loops, long intervalMillis) {
+        int index = 0;
+        for (EventExecutor loop : loops) {
+            LoopProbe probe = new LoopProbe(group, index++, loop, TimeUnit.MILLISECONDS.toNanos(intervalMillis));
+            probes.add(probe);
+            probe.start();
+        }
+    }
+
+    /**
+     * 是否是指标抓取请求
+     *
+     * @param uri 去除 query string 后的请求路径
+     */
+    public boolean isScrape(String uri) {
+        return path != null && path.equals(uri);
+    }
+
+    public MyRouteMetrics getStatics() {
+        return statics;
+    }
+
+    public MyRouteMetrics getUnmatched() {
+        return unmatched;
+    }
+
+    /**
+     * 输出所有指标，EventLoop 的最大延迟在每次抓取后重新统计
+     */
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(16 * 1024);
+
+        header(sb, "my_http_requests_total", "counter", "Requests handled per route.");
+        for (MyRouteMetrics route : routes) {
+            sample(sb, "my_http_requests_total", route, route.getRequests());
+        }
+        header(sb, "my_http_requests_rejected_total", "counter", "Requests rejected because the business pool was full.");
+        for (MyRouteMetrics route : routes) {
+            sample(sb, "my_http_requests_rejected_total", route, route.getRejected());
+        }
+        header(sb, "my_http_requests_errors_total", "counter", "Requests whose handler or response encoding threw.");
+        for (MyRouteMetrics route : routes) {
+            sample(sb, "my_http_requests_errors_total", route, route.getErrors());
+        }
+        header(sb, "my_http_requests_in_flight", "gauge", "Requests currently being handled.");
+        for (MyRouteMetrics route : routes) {
+            sample(sb, "my_http_requests_in_flight", route, route.getInFlight());
+        }
+
+        header(sb, "my_http_request_phase_seconds", "histogram", "Request latency per phase: decode, dispatch, handler, encode.");
+        for (MyRouteMetrics route : routes) {
+            for (int i = 0; i < MyRouteMetrics.PHASE_NAMES.length; i++) {
+                histogram(sb, route, MyRouteMetrics.PHASE_NAMES[i], route.getPhase(i));
+            }
+        }
+
+        header(sb, "my_http_request_duration_seconds", "summary", "End-to-end request latency from request head to response write.");
+        for (MyRouteMetrics route : routes) {
+            MyLatencyHistogram total = route.getTotal();
+            for (String quantile : QUANTILES) {
+                sb.append("my_http_request_duration_seconds{route=\"").append(escape(route.getName()))
+                        .append("\",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(total.valueAtPercentile(Double.parseDouble(quantile) * 100))).append('\n');
+            }
+            sample(sb, "my_http_request_duration_seconds_sum", route, seconds(total.getSum()));
+            sample(sb, "my_http_request_duration_seconds_count", route, total.getCount());
+        }
+
+        header(sb, "my_http_connections_active", "gauge", "Open client connections.");
+        sb.append("my_http_connections_active ").append(connections.sum()).append('\n');
+        header(sb, "my_http_connections_accepted_total", "counter", "Accepted client connections.");
+        sb.append("my_http_connections_accepted_total ").append(accepted.sum()).append('\n');
+
+        header(sb, "my_http_business_active_threads", "gauge", "Business threads currently running a handler.");
+        sb.append("my_http_business_active_threads ").append(executor.getActiveCount()).append('\n');
+        header(sb, "my_http_business_queue_size", "gauge", "Handler tasks waiting for a business thread.");
+        sb.append("my_http_business_queue_size ").append(executor.getQueueSize()).append('\n');
+
+        header(sb, "my_event_loop_pending_tasks", "gauge", "Tasks waiting in the event loop queue.");
+        for (LoopProbe probe : probes) {
+            probe.labels(sb.append("my_event_loop_pending_tasks")).append(probe.pendingTasks()).append('\n');
+        }
+        header(sb, "my_event_loop_lag_seconds", "gauge", "Delay of the latest probe task on the event loop.");
+        for (LoopProbe probe : probes) {
+            probe.labels(sb.append("my_event_loop_lag_seconds")).append(seconds(probe.lag)).append('\n');
+        }
+        header(sb, "my_event_loop_lag_max_seconds", "gauge", "Largest probe delay since the previous scrape.");
+        for (LoopProbe probe : probes) {
+            probe.labels(sb.append("my_event_loop_lag_max_seconds")).append(seconds(probe.maxLag.getAndSet(0))).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void histogram(StringBuilder sb, MyRouteMetrics route, String phase, MyLatencyHistogram histogram) {
+        String labels = "{route=\"" + escape(route.getName()) + "\",phase=\"" + phase + "\"";
+        long count = histogram.getCount();
+        for (int i = 0; i < BUCKETS.length; i++) {
+            sb.append("my_http_request_phase_seconds_bucket").append(labels).append(",le=\"").append(BUCKETS[i]).append("\"} ")
+                    .append(Math.min(histogram.countAtOrBelow(BUCKET_NANOS[i]), count)).append('\n');
+        }
+        sb.append("my_http_request_phase_seconds_bucket").append(labels).append(",le=\"+Inf\"} ").append(count).append('\n');
+        sb.append("my_http_request_phase_seconds_sum").append(labels).append("} ").append(seconds(histogram.getSum())).append('\n');
+        sb.append("my_http_request_phase_seconds_count").append(labels).append("} ").append(count).append('\n');
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, MyRouteMetrics route, Object value) {
+        sb.append(name).append("{route=\"").append(escape(route.getName())).append("\"} ").append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * 以固定频率在 EventLoop 上执行，Netty 按 上次预定时间 + 间隔 计算下次执行时间，这里同样累加，
+     * 两者之差就是任务在队列中等待、EventLoop 忙于 IO 或其他任务造成的延迟
+     */
+    private static final class LoopProbe implements Runnable {
+
+        private final String group;
+
+        private final int index;
+
+        private final EventExecutor loop;
+
+        private final long interval;
+
+        private long expected;
+
+        private volatile long lag;
+
+        private final AtomicLong maxLag = new AtomicLong();
+
+        LoopProbe(String group, int index, EventExecutor loop, long interval) {
+            this.group = group;
+            this.index = index;
+            this.loop = loop;
+            this.interval = interval;
+        }
+
+        void start() {
+            expected = System.nanoTime() + interval;
+            loop.scheduleAtFixedRate(this, interval, interval, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            long delay = Math.max(0, now - expected);
+            expected += interval;
+            lag = delay;
+            for (long max; delay > (max = maxLag.get()); ) {
+                if (maxLag.compareAndSet(max, delay)) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * epoll 与 nio 的 EventLoop 都继承自 SingleThreadEventExecutor
+         */
+        long pendingTasks() {
+            return loop instanceof SingleThreadEventExecutor ? ((SingleThreadEventExecutor) loop).pendingTasks() : 0;
+        }
+
+        StringBuilder labels(StringBuilder sb) {
+            return sb.append("{group=\"").append(group).append("\",loop=\"").append(index).append("\"} ");
+        }
+    }
+}
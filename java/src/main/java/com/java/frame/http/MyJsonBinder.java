@@ -0,0 +1,148 @@
+package com.java.frame.http;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.java.frame.util.GsonUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.multipart.FileUpload;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.java.frame.exception.JavaType.*;
+
+/**
+ * 把 application/json 请求体直接绑定到 controller 方法参数上，路由注册时按参数的泛型类型生成并缓存 TypeAdapter，
+ * 请求时通过 {@link MyByteBufReader} 从 ByteBuf 中流式解析，不生成 JsonObject 树，也不拷贝请求体
+ * <ul>
+ * <li>方法只有一个非简单类型的参数（实体、List、Map 等）时，整个请求体绑定到该参数上</li>
+ * <li>否则请求体必须是 json 对象，顶层字段按名称绑定到同名参数，简单类型与 query string 参数的转换规则相同，其他字段跳过</li>
+ * </ul>
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 23:20
+ */
+public class MyJsonBinder {
+
+    /**
+     * 参数名称 -> 参数下标
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * 非简单类型参数的 TypeAdapter，简单类型为 null
+     */
+    private final TypeAdapter<?>[] adapters;
+
+    private final MyParamConverter[] converters;
+
+    /**
+     * 整个请求体绑定到第一个参数上
+     */
+    private final boolean wholeBody;
+
+    private MyJsonBinder(Map<String, Integer> indexes, TypeAdapter<?>[] adapters, MyParamConverter[] converters, boolean wholeBody) {
+        this.indexes = indexes;
+        this.adapters = adapters;
+        this.converters = converters;
+        this.wholeBody = wholeBody;
+    }
+
+    /**
+     * 路由注册时生成
+     *
+     * @param paramNames   参数名称
+     * @param paramTypes   参数类型
+     * @param genericTypes 参数泛型类型，如 List&lt;User&gt;
+     * @param converters   简单类型参数的转换器
+     */
+    public static MyJsonBinder create(String[] paramNames, Class<?>[] paramTypes, Type[] genericTypes, MyParamConverter[] converters) {
+        Map<String, Integer> indexes = new HashMap<>(paramNames.length * 2);
+        TypeAdapter<?>[] adapters = new TypeAdapter<?>[paramNames.length];
+        for (int i = 0; i < paramNames.length; i++) {
+            // 流式请求体与上传文件不是 json
+            if (paramTypes[i] == MyRequestBody.class || FileUpload.class.isAssignableFrom(paramTypes[i])) {
+                continue;
+            }
+            indexes.put(paramNames[i], i);
+            if (!isSimpleType(paramTypes[i])) {
+                adapters[i] = GsonUtil.getAdapter(genericTypes[i]);
+            }
+        }
+        boolean wholeBody = paramNames.length == 1 && adapters[0] != null;
+        return new MyJsonBinder(indexes, adapters, converters, wholeBody);
+    }
+
+    /**
+     * 解析请求体并写入 args
+     *
+     * @return 已经绑定的参数，未绑定的参数由调用方按 query string 参数转换
+     */
+    public boolean[] bind(ByteBuf content, Object[] args) throws IOException {
+        boolean[] bound = new boolean[args.length];
+        if (!content.isReadable()) {
+            return bound;
+        }
+        JsonReader reader = GsonUtil.getGson().newJsonReader(new MyByteBufReader(content));
+        if (wholeBody) {
+            args[0] = adapters[0].read(reader);
+            bound[0] = true;
+            return bound;
+        }
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new JsonSyntaxException("Expected a JSON object whose fields are the handler parameters but was " + reader.peek());
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            Integer index = indexes.get(reader.nextName());
+            if (index == null) {
+                reader.skipValue();
+                continue;
+            }
+            args[index] = read(reader, index);
+            bound[index] = true;
+        }
+        reader.endObject();
+        return bound;
+    }
+
+    private Object read(JsonReader reader, int index) throws IOException {
+        if (adapters[index] != null) {
+            return adapters[index].read(reader);
+        }
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return converters[index].convert(null);
+            case BOOLEAN:
+                return converters[index].convert(String.valueOf(reader.nextBoolean()));
+            case STRING:
+            case NUMBER:
+                return converters[index].convert(reader.nextString());
+            default:
+                throw new JsonSyntaxException("Expected a simple value for parameter " + index + " but was " + reader.peek());
+        }
+    }
+
+    private static boolean isSimpleType(Class<?> clazz) {
+        switch (clazz.getName()) {
+            case STRING:
+            case INTEGER:
+            case LONG:
+            case SHORT:
+            case BYTE:
+            case FLOAT:
+            case DOUBLE:
+            case BOOLEAN:
+            case DATE:
+            case LOCAL_DATE_TIME:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
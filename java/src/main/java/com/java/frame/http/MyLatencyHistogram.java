@@ -0,0 +1,117 @@
+package com.java.frame.http;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HdrHistogram 式的对数-线性分桶直方图，单位纳秒。每个 2 的幂区间再等分为 {@link #SUB_BUCKETS} 个子桶，
+ * 相对误差不超过 1/32；超过 {@link #MAX_VALUE} 的值记入最后一个桶
+ * <p>
+ * 每个桶是一个 {@link LongAdder}，在构造时一次性分配，{@link #record(long)} 只更新所在的桶与总和，多个 EventLoop 与业务线程
+ * 并发记录时不争用同一个计数；记录数由各个桶相加得到。读取时不加锁，各个计数之间不保证是同一时刻的快照
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 09:30
+ */
+public class MyLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可以精确分桶的最大值，约 68 秒
+     */
+    public static final long MAX_VALUE = (1L << 36) - 1;
+
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public MyLatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[index(Math.min(value, MAX_VALUE))].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        long result = 0;
+        for (LongAdder bucket : counts) {
+            result += bucket.sum();
+        }
+        return result;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * 不超过 value 的记录数，包含 value 所在的整个桶：桶中大于 value 的记录也计入，与 {@link #valueAtPercentile(double)}
+     * 一样最多偏大 1/32，作为 Prometheus 的 le 时不会漏掉不超过 value 的记录
+     */
+    public long countAtOrBelow(long value) {
+        long result = 0;
+        for (int i = 0, last = index(Math.min(Math.max(value, 0), MAX_VALUE)); i <= last; i++) {
+            result += counts[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * 百分位数，返回所在桶的上界
+     *
+     * @param percentile 0 ~ 100
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * 小于 2 * SUB_BUCKETS 的值每个值一个桶，之后每翻一倍精度减半：value 右移 shift 位后落在 [SUB_BUCKETS, 2 * SUB_BUCKETS) 中
+     */
+    private static int index(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value | 1) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        int shift = index < 2 * SUB_BUCKETS ? 0 : (index >> SUB_BUCKET_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,19 @@
+package com.java.frame.http;
+
+/**
+ * 请求参数转换器，路由注册时按 controller 方法的参数类型预先生成，请求时直接转换，不再按类型名称 switch
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 11:02
+ */
+@FunctionalInterface
+public interface MyParamConverter {
+
+    /**
+     * 转换请求参数
+     *
+     * @param value 请求参数原始值，请求中不存在该参数时为 null
+     * @return 转换后的方法参数
+     */
+    Object convert(Object value);
+}
@@ -23,6 +23,142 @@ public class MyPort {
     @MyValue("${context}")
     String context;
 
+    /**
+     * 长连接空闲超时时间，单位秒，0 表示不超时
+     */
+    @MyValue("${idleTimeout}")
+    String idleTimeout;
+
+    /**
+     * controller 方法默认的执行方式：inline、pool、virtual，未配置时为 inline，见 {@link com.java.frame.auto.MyRequestMapping#execution()}
+     */
+    @MyValue("${execution}")
+    String execution;
+
+    /**
+     * 业务线程池线程数
+     */
+    @MyValue("${businessThreads}")
+    String businessThreads;
+
+    /**
+     * 业务线程池队列长度，队列满时返回 503
+     */
+    @MyValue("${businessQueue}")
+    String businessQueue;
+
+    /**
+     * 传输层：auto、epoll、nio，auto 时 epoll 可用则使用 epoll
+     */
+    @MyValue("${transport}")
+    String transport;
+
+    /**
+     * boss 线程数，开启 reusePort 时默认为 cpu 核数，否则为 1
+     */
+    @MyValue("${bossThreads}")
+    String bossThreads;
+
+    /**
+     * worker 线程数，0 或者不配置时为 cpu 核数 * 2
+     */
+    @MyValue("${workerThreads}")
+    String workerThreads;
+
+    /**
+     * SO_BACKLOG，全连接队列长度
+     */
+    @MyValue("${backlog}")
+    String backlog;
+
+    @MyValue("${tcpNoDelay}")
+    String tcpNoDelay;
+
+    /**
+     * SO_REUSEPORT，仅 epoll 支持，开启后每个 boss 线程绑定一个 acceptor
+     */
+    @MyValue("${reusePort}")
+    String reusePort;
+
+    /**
+     * 写缓冲区低水位，单位字节
+     */
+    @MyValue("${writeBufferLowWaterMark}")
+    String writeBufferLowWaterMark;
+
+    /**
+     * 写缓冲区高水位，超过后连接不可写，暂停读取该连接上的请求
+     */
+    @MyValue("${writeBufferHighWaterMark}")
+    String writeBufferHighWaterMark;
+
+    /**
+     * 聚合请求体的最大长度，单位字节，流式请求与 multipart 请求不受此限制
+     */
+    @MyValue("${maxContentLength}")
+    String maxContentLength;
+
+    /**
+     * multipart 中超过该大小的字段与文件写入磁盘，单位字节
+     */
+    @MyValue("${multipartThreshold}")
+    String multipartThreshold;
+
+    /**
+     * multipart 请求体的最大长度，单位字节，超过后返回 413 并关闭连接，0 表示不限制
+     */
+    @MyValue("${maxUploadSize}")
+    String maxUploadSize;
+
+    /**
+     * 静态资源位置，多个以逗号分隔，classpath: 或者 file: 开头，默认 classpath:static/
+     */
+    @MyValue("${staticLocations}")
+    String staticLocations;
+
+    /**
+     * 静态资源缓存的总大小，单位字节
+     */
+    @MyValue("${staticCacheSize}")
+    String staticCacheSize;
+
+    /**
+     * 不超过该大小的静态文件缓存在内存中，更大的文件零拷贝发送，单位字节
+     */
+    @MyValue("${staticCacheFileSize}")
+    String staticCacheFileSize;
+
+    /**
+     * 是否使用 FileRegion 零拷贝发送大文件，false 时使用 ChunkedFile
+     */
+    @MyValue("${staticZeroCopy}")
+    String staticZeroCopy;
+
+    /**
+     * 静态资源的 Cache-Control max-age，单位秒，0 表示每次都用 ETag 协商
+     */
+    @MyValue("${staticMaxAge}")
+    String staticMaxAge;
+
+    /**
+     * 检查已缓存的静态资源是否修改的间隔，单位毫秒，0 表示不检查
+     */
+    @MyValue("${staticRevalidateInterval}")
+    String staticRevalidateInterval;
+
+    /**
+     * Prometheus 指标的抓取路径，不加上下文，默认为空，不提供。指标没有鉴权，开启时应当只对内网开放，
+     * 只在没有匹配到路由时才作为抓取路径处理
+     */
+    @MyValue("${metricsPath}")
+    String metricsPath;
+
+    /**
+     * EventLoop 延迟探测的间隔，单位毫秒，0 表示不探测
+     */
+    @MyValue("${eventLoopProbeInterval}")
+    String eventLoopProbeInterval;
+
     public String getPort() {
         return port;
     }
@@ -38,4 +174,188 @@ public class MyPort {
     public void setContext(String context) {
         this.context = context;
     }
+
+    public String getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(String idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public String getExecution() {
+        return execution;
+    }
+
+    public void setExecution(String execution) {
+        this.execution = execution;
+    }
+
+    public String getBusinessThreads() {
+        return businessThreads;
+    }
+
+    public void setBusinessThreads(String businessThreads) {
+        this.businessThreads = businessThreads;
+    }
+
+    public String getBusinessQueue() {
+        return businessQueue;
+    }
+
+    public void setBusinessQueue(String businessQueue) {
+        this.businessQueue = businessQueue;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public void setTransport(String transport) {
+        this.transport = transport;
+    }
+
+    public String getBossThreads() {
+        return bossThreads;
+    }
+
+    public void setBossThreads(String bossThreads) {
+        this.bossThreads = bossThreads;
+    }
+
+    public String getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(String workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public String getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(String backlog) {
+        this.backlog = backlog;
+    }
+
+    public String getTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public void setTcpNoDelay(String tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    public String getReusePort() {
+        return reusePort;
+    }
+
+    public void setReusePort(String reusePort) {
+        this.reusePort = reusePort;
+    }
+
+    public String getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public void setWriteBufferLowWaterMark(String writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    }
+
+    public String getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public void setWriteBufferHighWaterMark(String writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public String getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    public void setMaxContentLength(String maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    public String getMultipartThreshold() {
+        return multipartThreshold;
+    }
+
+    public void setMultipartThreshold(String multipartThreshold) {
+        this.multipartThreshold = multipartThreshold;
+    }
+
+    public String getMaxUploadSize() {
+        return maxUploadSize;
+    }
+
+    public void setMaxUploadSize(String maxUploadSize) {
+        this.maxUploadSize = maxUploadSize;
+    }
+
+    public String getStaticLocations() {
+        return staticLocations;
+    }
+
+    public void setStaticLocations(String staticLocations) {
+        this.staticLocations = staticLocations;
+    }
+
+    public String getStaticCacheSize() {
+        return staticCacheSize;
+    }
+
+    public void setStaticCacheSize(String staticCacheSize) {
+        this.staticCacheSize = staticCacheSize;
+    }
+
+    public String getStaticCacheFileSize() {
+        return staticCacheFileSize;
+    }
+
+    public void setStaticCacheFileSize(String staticCacheFileSize) {
+        this.staticCacheFileSize = staticCacheFileSize;
+    }
+
+    public String getStaticZeroCopy() {
+        return staticZeroCopy;
+    }
+
+    public void setStaticZeroCopy(String staticZeroCopy) {
+        this.staticZeroCopy = staticZeroCopy;
+    }
+
+    public String getStaticMaxAge() {
+        return staticMaxAge;
+    }
+
+    public void setStaticMaxAge(String staticMaxAge) {
+        this.staticMaxAge = staticMaxAge;
+    }
+
+    public String getStaticRevalidateInterval() {
+        return staticRevalidateInterval;
+    }
+
+    public void setStaticRevalidateInterval(String staticRevalidateInterval) {
+        this.staticRevalidateInterval = staticRevalidateInterval;
+    }
+
+    public String getMetricsPath() {
+        return metricsPath;
+    }
+
+    public void setMetricsPath(String metricsPath) {
+        this.metricsPath = metricsPath;
+    }
+
+    public String getEventLoopProbeInterval() {
+        return eventLoopProbeInterval;
+    }
+
+    public void setEventLoopProbeInterval(String eventLoopProbeInterval) {
+        this.eventLoopProbeInterval = eventLoopProbeInterval;
+    }
 }
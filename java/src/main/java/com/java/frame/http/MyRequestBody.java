@@ -0,0 +1,256 @@
+package com.java.frame.http;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.java.frame.util.GsonUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 流式请求体，controller 方法声明该类型的参数后，请求头到达即开始执行 controller，请求体一边接收一边读取，不再整体缓存在内存中
+ * <p>
+ * EventLoop 线程写入收到的 {@link io.netty.handler.codec.http.HttpContent}，业务线程阻塞读取。缓存的数据超过 256KB 时暂停读取该连接，
+ * 读到 64KB 以下时恢复。声明了该参数的路由总是在业务线程中执行，见 {@link MyRequestExecutor}
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 22:40
+ */
+public class MyRequestBody extends InputStream {
+
+    /**
+     * 请求体在参数 map 中的 key
+     */
+    public static final String PARAM_KEY = MyRequestBody.class.getName();
+
+    private static final int HIGH_WATER_MARK = 256 * 1024;
+
+    private static final int LOW_WATER_MARK = 64 * 1024;
+
+    private final Channel channel;
+
+    /**
+     * Content-Length，chunked 请求为 -1
+     */
+    private final long contentLength;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition readable = lock.newCondition();
+
+    private final ArrayDeque<ByteBuf> chunks = new ArrayDeque<>();
+
+    private int buffered;
+
+    private boolean paused;
+
+    private boolean complete;
+
+    private boolean closed;
+
+    private Throwable failure;
+
+    MyRequestBody(Channel channel, long contentLength) {
+        this.channel = channel;
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * EventLoop 线程写入收到的数据，接管 content 的引用计数
+     */
+    void offer(ByteBuf content) {
+        lock.lock();
+        try {
+            if (closed || !content.isReadable()) {
+                content.release();
+                return;
+            }
+            chunks.add(content);
+            buffered += content.readableBytes();
+            if (buffered >= HIGH_WATER_MARK && !paused) {
+                paused = true;
+                channel.config().setAutoRead(false);
+            }
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 请求体接收完毕
+     */
+    void complete() {
+        lock.lock();
+        try {
+            complete = true;
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 是否因为业务线程消费过慢而暂停了读取
+     */
+    boolean isPaused() {
+        lock.lock();
+        try {
+            return paused;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 连接断开等原因导致请求体无法接收完整
+     */
+    void fail(Throwable cause) {
+        lock.lock();
+        try {
+            failure = cause;
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            ByteBuf chunk;
+            while ((chunk = chunks.peek()) == null) {
+                if (closed) {
+                    throw new IOException("Request body is closed !");
+                }
+                if (failure != null) {
+                    throw new IOException("Request body is incomplete !", failure);
+                }
+                if (complete) {
+                    return -1;
+                }
+                readable.await();
+            }
+            int n = Math.min(len, chunk.readableBytes());
+            chunk.readBytes(b, off, n);
+            if (!chunk.isReadable()) {
+                chunks.poll().release();
+            }
+            buffered -= n;
+            if (paused && buffered <= LOW_WATER_MARK) {
+                resume();
+            }
+            return n;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the request body !");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int available() {
+        lock.lock();
+        try {
+            return buffered;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 释放已缓存的数据，之后收到的数据直接丢弃；请求处理完毕后由框架关闭
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (ByteBuf chunk; (chunk = chunks.poll()) != null; ) {
+                chunk.release();
+            }
+            buffered = 0;
+            if (paused) {
+                // 恢复读取，把剩余的请求体读完丢弃，连接才能继续处理下一个请求
+                resume();
+            }
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resume() {
+        paused = false;
+        channel.eventLoop().execute(() -> channel.config().setAutoRead(true));
+    }
+
+    /**
+     * 以流的方式解析整个请求体，边接收边解析
+     */
+    public <T> T readJson(Type type) {
+        return GsonUtil.getGson().fromJson(newJsonReader(), type);
+    }
+
+    /**
+     * 逐个解析 json 数组中的元素，每解析出一个元素就交给 consumer，内存中只保留当前元素
+     *
+     * @return 元素个数
+     */
+    public <T> long readJsonArray(Class<T> type, Consumer<? super T> consumer) throws IOException {
+        TypeAdapter<T> adapter = GsonUtil.getAdapter(type);
+        JsonReader reader = newJsonReader();
+        long count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            consumer.accept(adapter.read(reader));
+            count++;
+        }
+        reader.endArray();
+        return count;
+    }
+
+    /**
+     * 把请求体写入 out，如保存到文件
+     *
+     * @return 写入的字节数
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        for (int n; (n = read(buffer, 0, buffer.length)) != -1; ) {
+            out.write(buffer, 0, n);
+            total += n;
+        }
+        return total;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    private JsonReader newJsonReader() {
+        return GsonUtil.getGson().newJsonReader(new InputStreamReader(this, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+package com.java.frame.http;
+
+import com.java.frame.auto.MyRequestMapping;
+import com.java.frame.util.StringUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * controller 方法的执行器，按 {@link MyRequestMapping#execution()} 决定在哪里执行：
+ * <ul>
+ * <li>inline：EventLoop 线程中直接执行</li>
+ * <li>pool：有界业务线程池，线程数与队列长度由 myport.businessThreads、myport.businessQueue 配置，队列满时拒绝</li>
+ * <li>virtual：每个请求一个虚拟线程（JDK 21+），同时执行的请求数不超过 businessThreads + businessQueue，不支持时退化为 pool</li>
+ * </ul>
+ * 流式读取请求体的路由会阻塞等待数据，不能在 EventLoop 中执行，inline 时改为 pool
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 21:30
+ */
+@Slf4j
+public class MyRequestExecutor {
+
+    private final String defaultExecution;
+
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * 虚拟线程执行器，JDK 不支持时为 null
+     */
+    private final ExecutorService virtual;
+
+    private final Semaphore virtualPermits;
+
+    public MyRequestExecutor(String defaultExecution, int businessThreads, int businessQueue) {
+        this.defaultExecution = StringUtils.isEmpty(defaultExecution) ? MyRequestMapping.INLINE : defaultExecution.trim();
+        AtomicInteger index = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(businessThreads, businessThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(businessQueue), r -> {
+            Thread thread = new Thread(r, "business-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.virtual = newVirtualThreadExecutor();
+        this.virtualPermits = new Semaphore(businessThreads + businessQueue);
+    }
+
+    /**
+     * 是否在 EventLoop 线程中直接执行
+     */
+    public boolean isInline(MyRoute route) {
+        return MyRequestMapping.INLINE.equals(getExecution(route));
+    }
+
+    /**
+     * 提交到业务线程池或者虚拟线程中执行
+     *
+     * @return 超出容量被拒绝时返回 false，调用方返回 503
+     */
+    public boolean execute(MyRoute route, Runnable task) {
+        try {
+            if (MyRequestMapping.VIRTUAL.equals(getExecution(route)) && virtual != null) {
+                if (!virtualPermits.tryAcquire()) {
+                    return false;
+                }
+                try {
+                    virtual.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            virtualPermits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    virtualPermits.release();
+                    throw e;
+                }
+            } else {
+                pool.execute(task);
+            }
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+        if (virtual != null) {
+            virtual.shutdown();
+        }
+    }
+
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return pool.getQueue().size();
+    }
+
+    private String getExecution(MyRoute route) {
+        String execution = StringUtils.isEmpty(route.getExecution()) ? defaultExecution : route.getExecution();
+        return route.isStreaming() && MyRequestMapping.INLINE.equals(execution) ? MyRequestMapping.POOL : execution;
+    }
+
+    /**
+     * 项目以 Java 8 编译，通过反射获取 Executors#newVirtualThreadPerTaskExecutor
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads are not supported by this JDK, virtual execution falls back to the business pool !");
+            return null;
+        }
+    }
+}
@@ -1,31 +1,28 @@
 package com.java.frame.http;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.java.frame.util.DateUtils;
 import com.java.frame.util.GsonUtil;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
+import io.netty.handler.codec.http.multipart.FileUpload;
 import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
 import io.netty.handler.codec.http.multipart.InterfaceHttpData;
 import io.netty.handler.codec.http.multipart.MemoryAttribute;
 import io.netty.util.CharsetUtil;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
-import java.net.URL;
-import java.time.LocalDateTime;
-import java.util.Date;
+import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static com.java.frame.exception.ComponentConstance.GITHUB;
-import static com.java.frame.exception.ComponentConstance.ICON;
 import static com.java.frame.exception.JavaType.*;
 import static io.netty.buffer.Unpooled.copiedBuffer;
 import static java.lang.Boolean.FALSE;
@@ -36,77 +33,137 @@ import static java.lang.Boolean.FALSE;
  */
 public class MyRequestHandlerPlus {
     public Object getValue(Class<?> clazz, Object obj, boolean flag) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        return getConverter(clazz).convert(flag ? obj : null);
+    }
+
+    /**
+     * 根据参数类型生成参数转换器，请求参数不存在时传入 null
+     */
+    public MyParamConverter getConverter(Class<?> clazz) {
+        return getConverter(clazz, clazz);
+    }
+
+    /**
+     * 根据参数类型生成参数转换器，实体、List 等参数按泛型类型预先取得 TypeAdapter
+     */
+    public MyParamConverter getConverter(Class<?> clazz, Type genericType) {
         switch (clazz.getName()) {
             case INTEGER:
-                obj = flag ? Integer.valueOf((String) obj) : Integer.valueOf("0");
-                break;
+                return obj -> obj != null ? Integer.valueOf((String) obj) : Integer.valueOf(0);
             case STRING:
-                obj = flag ? (String) obj : (String) null;
-                break;
+                return obj -> (String) obj;
             case DATE:
-                if (flag) {
-                    obj = DateUtils.getDate((String) obj);
-                } else {
-                    obj = (Date) null;
-                }
-                break;
+                return obj -> obj != null ? DateUtils.getDate((String) obj) : null;
             case LOCAL_DATE_TIME:
-                if (flag) {
-                    obj = DateUtils.getLocalDateTime(DateUtils.getDate((String) obj));
-                } else {
-                    obj = (LocalDateTime) null;
-                }
-                break;
+                return obj -> obj != null ? DateUtils.getLocalDateTime(DateUtils.getDate((String) obj)) : null;
             case SHORT:
-                obj = flag ? Short.valueOf((String) obj) : (Short) null;
-                break;
+                return obj -> obj != null ? Short.valueOf((String) obj) : null;
             case LONG:
-                obj = flag ? Long.valueOf((String) obj) : (Long) null;
-                break;
+                return obj -> obj != null ? Long.valueOf((String) obj) : null;
             case FLOAT:
-                obj = flag ? Float.valueOf((String) obj) : (Float) null;
-                break;
+                return obj -> obj != null ? Float.valueOf((String) obj) : null;
             case DOUBLE:
-                obj = flag ? Double.valueOf((String) obj) : (Double) null;
-                break;
+                return obj -> obj != null ? Double.valueOf((String) obj) : null;
             case BYTE:
-                obj = flag ? Byte.valueOf((String) obj) : (Byte) null;
-                break;
+                return obj -> obj != null ? Byte.valueOf((String) obj) : null;
             case BOOLEAN:
-                obj = flag ? Boolean.valueOf((String) obj) : FALSE;
-                break;
+                return obj -> obj != null ? Boolean.valueOf((String) obj) : FALSE;
             default:
-                if (clazz.getName().contains("List")) {
-                    obj = GsonUtil.parseJsonArrayWithGson((String) obj, clazz);
-                } else {
-                    obj = GsonUtil.parseJsonWithGson((String) obj, clazz);
+                // 流式请求体与上传的文件直接传入
+                if (clazz == MyRequestBody.class || FileUpload.class.isAssignableFrom(clazz)) {
+                    return obj -> obj;
                 }
+                TypeAdapter<?> adapter = GsonUtil.getAdapter(genericType);
+                return obj -> {
+                    if (obj == null) {
+                        return null;
+                    }
+                    try {
+                        return adapter.fromJson((String) obj);
+                    } catch (IOException e) {
+                        throw new JsonSyntaxException(e);
+                    }
+                };
         }
-        return obj;
     }
 
-    void responseMessage(ChannelHandlerContext ctx, FullHttpRequest req, String uri, Object invoke) {
-        Gson gson = new Gson();
-        Map<String, String> resMap = new HashMap<>();
-        resMap.put("method", req.method().name());
-        resMap.put("uri", uri);
-        //String msg = "<html><head><title>test</title></head><body>你请求uri为：" + msss + "</body></html>";
-        String msg = "";
-        if (invoke instanceof String) {
-            msg = (String) invoke;
-        } else {
-            msg = gson.toJson(invoke);
+    void responseMessage(ChannelHandlerContext ctx, FullHttpRequest req, String uri, Object invoke) throws IOException {
+        // 将html write到客户端
+        writeResponse(ctx, req, createResponse(ctx, invoke));
+    }
+
+    /**
+     * 序列化 controller 的返回值并创建 http 响应，业务线程中也可以调用
+     */
+    FullHttpResponse createResponse(ChannelHandlerContext ctx, Object invoke) throws IOException {
+        // 从 channel 的分配器中获取池化的直接内存，直接序列化进去，不再生成中间 String 并拷贝
+        ByteBuf content = ctx.alloc().ioBuffer();
+        try {
+            if (invoke instanceof String) {
+                ByteBufUtil.writeUtf8(content, (String) invoke);
+            } else {
+                MyByteBufWriter writer = new MyByteBufWriter(content);
+                GsonUtil.toJson(invoke, writer);
+                writer.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            content.release();
+            throw e;
         }
         // 创建http响应
         FullHttpResponse response = new DefaultFullHttpResponse(
                 HttpVersion.HTTP_1_1,
                 HttpResponseStatus.OK,
-                copiedBuffer(msg, CharsetUtil.UTF_8));
+                content);
         // 设置头信息
         response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html; charset=UTF-8");
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
         //response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
-        // 将html write到客户端
-        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        return response;
+    }
+
+    /**
+     * 业务线程池已满时返回 503
+     */
+    FullHttpResponse createBusyResponse() {
+        ByteBuf content = copiedBuffer("服务繁忙，请稍后再试！", CharsetUtil.UTF_8);
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.SERVICE_UNAVAILABLE, content);
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+        return response;
+    }
+
+    /**
+     * 纯文本响应，如指标抓取
+     */
+    FullHttpResponse createTextResponse(ChannelHandlerContext ctx, String text, String contentType) {
+        ByteBuf content = ByteBufUtil.writeUtf8(ctx.alloc(), text);
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, content);
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+        return response;
+    }
+
+    /**
+     * 按请求的 HTTP 版本与 Connection 头决定是否保持连接：HTTP/1.1 默认保持，HTTP/1.0 需要 Connection: keep-alive。
+     * 这里只 write，不 flush，由 {@link HttpRequestHandler#channelReadComplete} 在一次读循环结束后统一 flush，
+     * 流水线请求在同一个 channel 上按顺序处理，响应也按顺序写出
+     */
+    void writeResponse(ChannelHandlerContext ctx, HttpRequest req, FullHttpResponse response) {
+        writeResponse(ctx, req.protocolVersion(), HttpUtil.isKeepAlive(req), response);
+    }
+
+    /**
+     * 请求已经被释放时（如业务线程中执行完毕后）使用事先取出的版本与 keep-alive 写出响应
+     */
+    void writeResponse(ChannelHandlerContext ctx, HttpVersion version, boolean keepAlive, FullHttpResponse response) {
+        response.setProtocolVersion(version);
+        HttpUtil.setKeepAlive(response, keepAlive);
+        if (keepAlive) {
+            ctx.write(response, ctx.voidPromise());
+        } else {
+            ctx.write(response).addListener(ChannelFutureListener.CLOSE);
+        }
     }
 
 
@@ -115,22 +172,36 @@ public class MyRequestHandlerPlus {
      */
     Map<String, Object> getGetParamsFromChannel(FullHttpRequest fullHttpRequest) {
 
-        Map<String, Object> params = new HashMap<String, Object>();
-
         if (fullHttpRequest.method() == HttpMethod.GET) {
             // 处理get请求
-            QueryStringDecoder decoder = new QueryStringDecoder(fullHttpRequest.uri());
-            Map<String, List<String>> paramList = decoder.parameters();
-            for (Map.Entry<String, List<String>> entry : paramList.entrySet()) {
-                params.put(entry.getKey(), entry.getValue().get(0));
-            }
-            return params;
+            return getQueryParams(fullHttpRequest);
         } else {
             return null;
         }
 
     }
 
+    /**
+     * 获取 query string 中的参数
+     */
+    Map<String, Object> getQueryParams(HttpRequest request) {
+        Map<String, Object> params = new HashMap<String, Object>();
+        QueryStringDecoder decoder = new QueryStringDecoder(request.uri());
+        Map<String, List<String>> paramList = decoder.parameters();
+        for (Map.Entry<String, List<String>> entry : paramList.entrySet()) {
+            params.put(entry.getKey(), entry.getValue().get(0));
+        }
+        return params;
+    }
+
+    /**
+     * 是否为 json 请求（Content-Type = application/json），请求体由 {@link MyJsonBinder} 直接绑定到方法参数上
+     */
+    boolean isJson(HttpRequest request) {
+        String contentType = request.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        return contentType != null && contentType.contains("application/json");
+    }
+
     /**
      * 获取POST方式传递的参数
      */
@@ -147,13 +218,6 @@ public class MyRequestHandlerPlus {
                 // 上传文件
             } else if (strContentType.contains("multipart/form-data")) {
                 params = getFormParams(fullHttpRequest);
-                // json 请求
-            } else if (strContentType.contains("application/json")) {
-                try {
-                    params = getJSONParams(fullHttpRequest);
-                } catch (UnsupportedEncodingException e) {
-                    return null;
-                }
             } else {
                 return null;
             }
@@ -182,34 +246,6 @@ public class MyRequestHandlerPlus {
         return params;
     }
 
-    /**
-     * 解析json数据（Content-Type = application/json）
-     */
-    Map<String, Object> getJSONParams(FullHttpRequest fullHttpRequest) throws UnsupportedEncodingException {
-        Map<String, Object> params = new HashMap<String, Object>();
-
-        ByteBuf content = fullHttpRequest.content();
-        byte[] reqContent = new byte[content.readableBytes()];
-        content.readBytes(reqContent);
-        String strContent = new String(reqContent, "UTF-8");
-
-        //JSONObject jsonParams = JSONObject.fromObject(strContent);
-        //for (Object key : jsonParams.keySet()) {
-        //    params.put(key.toString(), jsonParams.get(key));
-        //}
-        //Gson gson = new Gson();
-        //JsonElement jsonElement = gson.toJsonTree(strContent);
-        //jsonElement.isJsonObject();
-        //JsonObject jsonObject = jsonElement.getAsJsonObject();
-        //for (Object key : jsonObject.keySet()) {
-        //    params.put(key.toString(), jsonObject.get((String) key));
-        //}
-        //String s = gson.toJson(strContent);
-        //System.out.println(s);
-
-        return params;
-    }
-
     FullHttpResponse responseOK(HttpResponseStatus status, ByteBuf content) {
         FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
         if (content != null) {
@@ -218,24 +254,4 @@ public class MyRequestHandlerPlus {
         }
         return response;
     }
-
-    void getFavicaon(ChannelHandlerContext ctx) throws IOException {
-        FullHttpResponse response;
-        URL url = Thread.currentThread().getContextClassLoader().getResource(ICON);
-        if (url == null) {
-            url = Thread.currentThread().getContextClassLoader().getResource(GITHUB);
-        }
-        FileInputStream in = new FileInputStream(url.getPath());
-        byte[] bytes = new byte[in.available()];
-        in.read(bytes);
-        in.close();
-        // 创建http响应
-        response = new DefaultFullHttpResponse(
-                HttpVersion.HTTP_1_1,
-                HttpResponseStatus.OK,
-                copiedBuffer(bytes));
-        // 设置头信息
-        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/x-png");
-        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
-    }
-}
\ No newline at end of file
+}
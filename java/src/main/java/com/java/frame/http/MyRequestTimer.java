@@ -0,0 +1,50 @@
+package com.java.frame.http;
+
+/**
+ * 按阶段累计一个请求的耗时，每个连接一个实例重复使用。同一连接同一时刻只有一个请求在处理，
+ * 在业务线程中执行时，提交任务与回到 EventLoop 保证了两个线程之间的可见性，不需要同步
+ * <p>
+ * 每次 {@link #lap(int)} 把上一次打点到现在的时间计入指定阶段，一个阶段可以分多段累计
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 09:30
+ */
+public class MyRequestTimer {
+
+    private final long[] phases = new long[MyRouteMetrics.PHASE_NAMES.length];
+
+    private long start;
+
+    private long mark;
+
+    /**
+     * 开始计时
+     *
+     * @param head     请求头解析完成的时间
+     * @param received 完整的请求到达 HttpRequestHandler 的时间，之前的时间计入 decode
+     */
+    public void start(long head, long received) {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = 0;
+        }
+        start = head;
+        mark = head;
+        lap(MyRouteMetrics.DECODE, received);
+    }
+
+    public void lap(int phase) {
+        lap(phase, System.nanoTime());
+    }
+
+    private void lap(int phase, long now) {
+        phases[phase] += now - mark;
+        mark = now;
+    }
+
+    /**
+     * 结束计时并记录到路由上，最后一次打点即为结束时间
+     */
+    public void stop(MyRouteMetrics metrics) {
+        metrics.end(phases, mark - start);
+    }
+}
@@ -0,0 +1,169 @@
+package com.java.frame.http;
+
+import com.java.frame.handler.MyRequestHandler;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一个请求路径对应一个 MyRoute，启动时绑定好 controller 实例与方法，请求时直接调用
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 10:12
+ */
+public class MyRoute {
+
+    /**
+     * 完整请求路径，包含上下文
+     */
+    private final String url;
+
+    /**
+     * 原始的请求处理器
+     */
+    private final MyRequestHandler handler;
+
+    /**
+     * controller 单例
+     */
+    private final Object bean;
+
+    /**
+     * 已经 setAccessible 的目标方法
+     */
+    private final Method method;
+
+    /**
+     * 预先链接好的方法调用器
+     */
+    private final MyHandlerInvoker invoker;
+
+    /**
+     * 方法参数名称
+     */
+    private final String[] paramNames;
+
+    /**
+     * 参数在请求参数 map 中的 key，一般为参数名称，{@link MyRequestBody} 类型的参数为 {@link MyRequestBody#PARAM_KEY}
+     */
+    private final String[] paramKeys;
+
+    /**
+     * 是否声明了 {@link MyRequestBody} 参数，流式读取请求体
+     */
+    private final boolean streaming;
+
+    /**
+     * 方法参数转换器，与参数名称一一对应
+     */
+    private final MyParamConverter[] converters;
+
+    /**
+     * json 请求体绑定器
+     */
+    private final MyJsonBinder jsonBinder;
+
+    /**
+     * 执行方式，为空时使用服务器的默认配置
+     */
+    private final String execution;
+
+    /**
+     * 请求计数与各阶段耗时
+     */
+    private final MyRouteMetrics metrics;
+
+    public MyRoute(String url, MyRequestHandler handler, Object bean, Method method, MyRequestHandlerPlus plus) {
+        this.url = url;
+        this.handler = handler;
+        this.bean = bean;
+        this.method = method;
+        List<String> list = handler.getList();
+        this.paramNames = list.toArray(new String[0]);
+        this.execution = handler.getExecution();
+        this.metrics = new MyRouteMetrics(url);
+        this.invoker = MyHandlerInvoker.create(bean, method);
+        Class<?>[] paramTypes = handler.getMethodParamTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        this.converters = new MyParamConverter[paramTypes.length];
+        this.paramKeys = paramNames.clone();
+        boolean streaming = false;
+        for (int i = 0; i < paramTypes.length; i++) {
+            converters[i] = plus.getConverter(paramTypes[i], genericTypes[i]);
+            if (paramTypes[i] == MyRequestBody.class) {
+                paramKeys[i] = MyRequestBody.PARAM_KEY;
+                streaming = true;
+            }
+        }
+        this.streaming = streaming;
+        this.jsonBinder = MyJsonBinder.create(paramNames, paramTypes, genericTypes, converters);
+    }
+
+    /**
+     * 转换请求参数并调用 controller 方法
+     */
+    public Object invoke(Map<String, Object> params) throws Exception {
+        return invoke(params, null);
+    }
+
+    /**
+     * 先把 json 请求体绑定到参数上，其余参数从 params 中转换
+     *
+     * @param json json 请求体，不是 json 请求时为 null
+     */
+    public Object invoke(Map<String, Object> params, ByteBuf json) throws Exception {
+        return invoke(resolveArguments(params, json));
+    }
+
+    /**
+     * 绑定 json 请求体并转换请求参数，得到 controller 方法的实参
+     */
+    public Object[] resolveArguments(Map<String, Object> params, ByteBuf json) throws Exception {
+        Object[] param = new Object[paramNames.length];
+        boolean[] bound = json == null ? null : jsonBinder.bind(json, param);
+        for (int i = 0; i < paramNames.length; i++) {
+            if (bound == null || !bound[i]) {
+                param[i] = converters[i].convert(params == null ? null : params.get(paramKeys[i]));
+            }
+        }
+        return param;
+    }
+
+    /**
+     * 使用已经转换好的实参调用 controller 方法
+     */
+    public Object invoke(Object[] args) throws Exception {
+        return invoker.invoke(args);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public MyRequestHandler getHandler() {
+        return handler;
+    }
+
+    public Object getBean() {
+        return bean;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getExecution() {
+        return execution;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public MyRouteMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,111 @@
+package com.java.frame.http;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由的请求计数、执行中请求数与各阶段耗时，路由注册时创建，请求时直接通过 {@link MyRoute#getMetrics()} 取得，不再按名称查找
+ * <ul>
+ * <li>decode：请求头解析完成到参数绑定完成，包括接收、聚合请求体，解析 query string、表单与 json 请求体</li>
+ * <li>dispatch：排在同一连接的流水线请求之后等待的时间，以及提交到业务线程、回到 EventLoop 的两次线程切换</li>
+ * <li>handler：controller 方法执行</li>
+ * <li>encode：序列化返回值、创建并写出响应</li>
+ * </ul>
+ * 四个阶段之和等于 total。静态资源与未匹配的请求没有 controller，查找与写出响应都计入 encode
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 09:30
+ */
+public class MyRouteMetrics {
+
+    public static final int DECODE = 0;
+
+    public static final int DISPATCH = 1;
+
+    public static final int HANDLER = 2;
+
+    public static final int ENCODE = 3;
+
+    static final String[] PHASE_NAMES = {"decode", "dispatch", "handler", "encode"};
+
+    private final String name;
+
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * 业务线程池已满被拒绝的请求
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * controller 或序列化抛出异常的请求
+     */
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder inFlight = new LongAdder();
+
+    private final MyLatencyHistogram[] phases = new MyLatencyHistogram[PHASE_NAMES.length];
+
+    private final MyLatencyHistogram total = new MyLatencyHistogram();
+
+    public MyRouteMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new MyLatencyHistogram();
+        }
+    }
+
+    /**
+     * 开始处理请求
+     */
+    public void begin() {
+        requests.increment();
+        inFlight.increment();
+    }
+
+    /**
+     * 请求处理完毕，记录各阶段耗时
+     */
+    public void end(long[] phaseNanos, long totalNanos) {
+        inFlight.decrement();
+        for (int i = 0; i < phases.length; i++) {
+            phases[i].record(phaseNanos[i]);
+        }
+        total.record(totalNanos);
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public MyLatencyHistogram getPhase(int phase) {
+        return phases[phase];
+    }
+
+    public MyLatencyHistogram getTotal() {
+        return total;
+    }
+}
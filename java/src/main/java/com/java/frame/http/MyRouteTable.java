@@ -0,0 +1,143 @@
+package com.java.frame.http;
+
+import com.java.frame.exception.MyRequestMappingException;
+import com.java.frame.handler.MyRequestHandler;
+import com.java.frame.util.StringUtils;
+import io.netty.handler.codec.http.HttpMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 路由表，启动时根据 {@link com.java.frame.factory.MyConfigure} 解析出的 controllerMethods 一次性构建，构建完成后只读，
+ * 多个 EventLoop 线程并发查询无需加锁。请求时只需要一次哈希查找，不再遍历 controller，也不再反射查找方法
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 10:20
+ */
+public class MyRouteTable {
+
+    /**
+     * 目前 MyRequestMapping 不区分请求方式，GET 与 POST 共用同一份路由
+     */
+    private static final HttpMethod[] SUPPORTED_METHODS = {HttpMethod.GET, HttpMethod.POST};
+
+    /**
+     * 请求方式 -> 请求路径 -> 路由
+     */
+    private final Map<HttpMethod, Map<String, MyRoute>> routes;
+
+    /**
+     * 请求方式 -> 小写请求路径 -> 路由，兼容原先忽略大小写的匹配方式
+     */
+    private final Map<HttpMethod, Map<String, MyRoute>> lowerCaseRoutes;
+
+    private MyRouteTable(Map<HttpMethod, Map<String, MyRoute>> routes, Map<HttpMethod, Map<String, MyRoute>> lowerCaseRoutes) {
+        this.routes = routes;
+        this.lowerCaseRoutes = lowerCaseRoutes;
+    }
+
+    /**
+     * 构建路由表
+     *
+     * @param single   单例 bean 们
+     * @param handlers controller 全类名 -> 请求处理器们
+     * @param context  请求上下文
+     */
+    public static MyRouteTable build(Map<String, Object> single, Map<String, Map<MyRequestHandler, String>> handlers, String context) {
+        Map<String, MyRoute> byUrl = new HashMap<>(256);
+        Map<String, MyRoute> byLowerCaseUrl = new HashMap<>(256);
+        MyRequestHandlerPlus plus = new MyRequestHandlerPlus();
+        for (Map.Entry<String, Map<MyRequestHandler, String>> entry : handlers.entrySet()) {
+            String className = entry.getKey();
+            Object bean = single.get(className);
+            for (MyRequestHandler handler : entry.getValue().keySet()) {
+                String url = getContextUrl(context, handler.getUrl());
+                if (byUrl.containsKey(url)) {
+                    throw new MyRequestMappingException("The URL mapping path cannot be repeated: " + url);
+                }
+                MyRoute route = new MyRoute(url, handler, bean, getMethod(className, handler), plus);
+                byUrl.put(url, route);
+                byLowerCaseUrl.putIfAbsent(url.toLowerCase(Locale.ROOT), route);
+            }
+        }
+        return new MyRouteTable(copy(byUrl), copy(byLowerCaseUrl));
+    }
+
+    /**
+     * 根据请求方式与请求路径查找路由，未找到返回 null
+     *
+     * @param method 请求方式
+     * @param uri    请求路径，可以携带 query string
+     */
+    public MyRoute lookup(HttpMethod method, String uri) {
+        Map<String, MyRoute> table = routes.get(method);
+        if (table == null) {
+            return null;
+        }
+        String path = getPath(uri);
+        MyRoute route = table.get(path);
+        if (route == null) {
+            route = lowerCaseRoutes.get(method).get(path.toLowerCase(Locale.ROOT));
+        }
+        return route;
+    }
+
+    public int size() {
+        return routes.get(HttpMethod.GET).size();
+    }
+
+    /**
+     * 所有路由，按请求路径排序
+     */
+    public Collection<MyRoute> getRoutes() {
+        List<MyRoute> list = new ArrayList<>(routes.get(HttpMethod.GET).values());
+        list.sort(Comparator.comparing(MyRoute::getUrl));
+        return list;
+    }
+
+    /**
+     * 去除 query string
+     */
+    public static String getPath(String uri) {
+        int index = uri.indexOf('?');
+        return index == -1 ? uri : uri.substring(0, index);
+    }
+
+    /**
+     * 拼接请求上下文
+     */
+    private static String getContextUrl(String context, String url) {
+        if (StringUtils.isEmpty(context)) {
+            return url;
+        }
+        return context.contains("/") ? context + url : "/" + context + url;
+    }
+
+    private static Method getMethod(String className, MyRequestHandler handler) {
+        try {
+            Class<?> clazz = Class.forName(className);
+            Method method = clazz.getDeclaredMethod(handler.getMethodName(), handler.getMethodParamTypes());
+            method.setAccessible(true);
+            return method;
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new MyRequestMappingException("Unable to resolve handler method " + className + "." + handler.getMethodName());
+        }
+    }
+
+    private static Map<HttpMethod, Map<String, MyRoute>> copy(Map<String, MyRoute> table) {
+        Map<String, MyRoute> readOnly = Collections.unmodifiableMap(new HashMap<>(table));
+        Map<HttpMethod, Map<String, MyRoute>> result = new HashMap<>(4);
+        for (HttpMethod method : SUPPORTED_METHODS) {
+            result.put(method, readOnly);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
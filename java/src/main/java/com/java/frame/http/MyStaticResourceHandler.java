@@ -0,0 +1,790 @@
+package com.java.frame.http;
+
+import com.java.frame.util.StringUtils;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedFile;
+import io.netty.handler.stream.ChunkedStream;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.java.frame.exception.ComponentConstance.*;
+
+/**
+ * 静态资源处理：未匹配到路由的 GET、HEAD 请求按 myport.staticLocations 配置的位置查找静态文件
+ * <ul>
+ * <li>小文件（不超过 staticCacheFileSize）的内容缓存在 LRU 中，总大小不超过 staticCacheSize，不存在的路径也缓存，数量不超过 MAX_MISSING</li>
+ * <li>文件系统与 classloader 的读取都在单独的 IO 线程中进行：缓存中没有的路径在 IO 线程中查找后回调，
+ * 已缓存的资源由 IO 线程每隔 staticRevalidateInterval 毫秒检查一次，文件修改后重新加载，大文件也在 IO 线程中打开，EventLoop 只读缓存</li>
+ * <li>大文件通过 {@link DefaultFileRegion} 零拷贝发送（epoll 下为 sendfile），有 SslHandler 或者关闭 staticZeroCopy 时退回 {@link ChunkedFile}</li>
+ * <li>支持 ETag、Last-Modified 与 304，客户端接受 gzip 且存在 .gz 文件时发送预先压缩的版本，压缩版本有自己的 ETag</li>
+ * <li>支持单个区间的 Range 请求，多个区间时返回整个文件</li>
+ * </ul>
+ * 缓存由所有 EventLoop 与 IO 线程共享，需要加锁
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 09:30
+ */
+@Slf4j
+public class MyStaticResourceHandler {
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final String FILE_PREFIX = "file:";
+
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * 最多缓存的不存在的路径数
+     */
+    private static final int MAX_MISSING = 1024;
+
+    /**
+     * 默认图标 ICON、GITHUB 相对于 classpath 根目录
+     */
+    private static final String[] CLASSPATH_ROOT = {CLASSPATH_PREFIX};
+
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>(32);
+
+    static {
+        CONTENT_TYPES.put("html", "text/html; charset=UTF-8");
+        CONTENT_TYPES.put("htm", "text/html; charset=UTF-8");
+        CONTENT_TYPES.put("css", "text/css; charset=UTF-8");
+        CONTENT_TYPES.put("js", "application/javascript; charset=UTF-8");
+        CONTENT_TYPES.put("json", "application/json; charset=UTF-8");
+        CONTENT_TYPES.put("map", "application/json; charset=UTF-8");
+        CONTENT_TYPES.put("txt", "text/plain; charset=UTF-8");
+        CONTENT_TYPES.put("xml", "application/xml; charset=UTF-8");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+        CONTENT_TYPES.put("png", "image/png");
+        CONTENT_TYPES.put("jpg", "image/jpeg");
+        CONTENT_TYPES.put("jpeg", "image/jpeg");
+        CONTENT_TYPES.put("gif", "image/gif");
+        CONTENT_TYPES.put("ico", "image/x-icon");
+        CONTENT_TYPES.put("webp", "image/webp");
+        CONTENT_TYPES.put("woff", "font/woff");
+        CONTENT_TYPES.put("woff2", "font/woff2");
+        CONTENT_TYPES.put("pdf", "application/pdf");
+        CONTENT_TYPES.put("wasm", "application/wasm");
+    }
+
+    /**
+     * 静态资源位置，classpath: 或者 file: 开头
+     */
+    private final String[] locations;
+
+    private final String context;
+
+    private final long cacheSize;
+
+    private final int cacheFileSize;
+
+    private final boolean zeroCopy;
+
+    private final int maxAge;
+
+    /**
+     * 请求路径 -> 资源，按访问顺序排列，超过 cacheSize 时淘汰最久未访问的资源
+     */
+    private final LinkedHashMap<String, Resource> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * 不存在的请求路径，按访问顺序排列，超过 MAX_MISSING 时淘汰最久未访问的路径
+     */
+    private final LinkedHashMap<String, Boolean> missing = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long cachedBytes;
+
+    /**
+     * 查找、加载、重新校验资源的线程，不占用 EventLoop
+     */
+    private final ScheduledExecutorService io = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("static-io", true));
+
+    /**
+     * @param revalidateInterval 检查已缓存资源是否修改的间隔，单位毫秒，0 表示不检查
+     */
+    public MyStaticResourceHandler(String locations, String context, long cacheSize, int cacheFileSize, boolean zeroCopy, int maxAge,
+                                   int revalidateInterval) {
+        this.locations = StringUtils.isNotEmpty(locations) ? locations.trim().split("\\s*,\\s*") : new String[]{CLASSPATH_PREFIX + "static/"};
+        this.context = StringUtils.isNotEmpty(context) ? "/" + context.trim().replaceAll("^/+|/+$", "") : "";
+        this.cacheSize = cacheSize;
+        this.cacheFileSize = cacheFileSize;
+        this.zeroCopy = zeroCopy;
+        this.maxAge = maxAge;
+        if (revalidateInterval > 0) {
+            io.scheduleWithFixedDelay(this::revalidate, revalidateInterval, revalidateInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 静态资源请求对应的相对路径
+     *
+     * @param path 不带 query string 的请求路径
+     * @return 不是 GET、HEAD 请求或者路径非法时返回 null
+     */
+    String getRelativePath(HttpRequest req, String path) {
+        if (req.method() != HttpMethod.GET && req.method() != HttpMethod.HEAD) {
+            return null;
+        }
+        return getRelativePath(path);
+    }
+
+    /**
+     * 只查缓存，不做任何 IO
+     *
+     * @return 缓存中没有该路径时返回 null，需要调用 {@link #resolve(String, Consumer)}；路径不存在时返回 {@link Resource#MISSING}
+     */
+    Resource lookup(String relative) {
+        synchronized (cache) {
+            Resource resource = cache.get(relative);
+            if (resource == null && missing.get(relative) != null) {
+                resource = Resource.MISSING;
+            }
+            return resource;
+        }
+    }
+
+    /**
+     * 在 IO 线程中查找并缓存资源，完成后在 IO 线程中回调，查找失败时回调 null
+     */
+    void resolve(String relative, Consumer<Resource> callback) {
+        try {
+            io.execute(() -> {
+                Resource resource = null;
+                try {
+                    resource = find(relative);
+                    cache(relative, resource);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Unable to load static resource " + relative + " !", e);
+                }
+                callback.accept(resource);
+            });
+        } catch (RejectedExecutionException e) {
+            callback.accept(null);
+        }
+    }
+
+    /**
+     * 写出静态资源
+     *
+     * @param resource {@link #lookup(String)} 或者 {@link #resolve(String, Consumer)} 的结果
+     * @param written  返回 {@link Outcome#OPENING} 时，响应在 EventLoop 中写出后回调
+     * @return 没有该资源时返回 {@link Outcome#NOT_FOUND}，请求不再使用，可以立即释放
+     */
+    Outcome handle(ChannelHandlerContext ctx, FullHttpRequest req, String relative, Resource resource, Runnable written) {
+        if (resource == null || resource == Resource.MISSING) {
+            if (resource != null && isFavicon(relative)) {
+                write(ctx, req, status(HttpResponseStatus.NOT_FOUND));
+                return Outcome.WRITTEN;
+            }
+            return Outcome.NOT_FOUND;
+        }
+        return serve(ctx, req, resource, written);
+    }
+
+    public void shutdown() {
+        io.shutdownNow();
+    }
+
+    private Outcome serve(ChannelHandlerContext ctx, FullHttpRequest req, Resource resource, Runnable written) {
+        Resource variant = resource;
+        if (resource.gzip != null && acceptsGzip(req)) {
+            variant = resource.gzip;
+        }
+        // 压缩版本与原始版本的 ETag 不同，协商缓存按客户端实际会收到的版本比较
+        if (isNotModified(req, variant)) {
+            HttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.NOT_MODIFIED);
+            setCacheHeaders(response, variant);
+            if (resource.gzip != null) {
+                response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+            }
+            write(ctx, req, response);
+            return Outcome.WRITTEN;
+        }
+        long start = 0;
+        long length = variant.length;
+        HttpResponseStatus status = HttpResponseStatus.OK;
+        // 区间请求只作用于未压缩的版本
+        String range = req.headers().get(HttpHeaderNames.RANGE);
+        if (range != null && variant == resource && isRangeApplicable(req, resource)) {
+            long[] bounds = parseRange(range, resource.length);
+            if (bounds == null) {
+                FullHttpResponse response = status(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + resource.length);
+                write(ctx, req, response);
+                return Outcome.WRITTEN;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                length = bounds[1] - bounds[0] + 1;
+                status = HttpResponseStatus.PARTIAL_CONTENT;
+            }
+        }
+
+        boolean head = req.method() == HttpMethod.HEAD;
+        HttpResponse response;
+        if (head || variant.content != null) {
+            response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
+                    head ? Unpooled.EMPTY_BUFFER : Unpooled.wrappedBuffer(variant.content, (int) start, (int) length));
+        } else {
+            response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status);
+        }
+        setCacheHeaders(response, variant);
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, resource.contentType);
+        response.headers().set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES);
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, length);
+        if (resource.gzip != null) {
+            response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+        }
+        if (variant != resource) {
+            response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+        }
+        if (status == HttpResponseStatus.PARTIAL_CONTENT) {
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + resource.length);
+        }
+        if (response instanceof FullHttpResponse) {
+            write(ctx, req, response);
+            return Outcome.WRITTEN;
+        }
+        openBody(ctx, req, response, variant, start, length, written);
+        return Outcome.OPENING;
+    }
+
+    /**
+     * 大文件：在 IO 线程中打开文件、跳过区间之前的内容，再回到 EventLoop 写出响应头与文件内容
+     */
+    private void openBody(ChannelHandlerContext ctx, FullHttpRequest req, HttpResponse response, Resource resource, long start, long length,
+                          Runnable written) {
+        boolean keepAlive = HttpUtil.isKeepAlive(req);
+        response.setProtocolVersion(req.protocolVersion());
+        HttpUtil.setKeepAlive(response, keepAlive);
+        boolean region = resource.file != null && zeroCopy && ctx.pipeline().get(SslHandler.class) == null;
+        io.execute(() -> {
+            Object body = null;
+            try {
+                body = open(resource, start, length, region);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to open static resource " + (resource.file != null ? resource.file : resource.url) + " !", e);
+            }
+            Object opened = body;
+            try {
+                ctx.executor().execute(() -> writeBody(ctx, response, opened, keepAlive, written));
+            } catch (RejectedExecutionException e) {
+                discard(opened);
+            }
+        });
+    }
+
+    /**
+     * 在 IO 线程中调用
+     *
+     * @return {@link DefaultFileRegion} 或者 {@link HttpChunkedInput}
+     */
+    private Object open(Resource resource, long start, long length, boolean region) throws IOException {
+        if (resource.file != null) {
+            RandomAccessFile raf = new RandomAccessFile(resource.file, "r");
+            try {
+                if (region) {
+                    return new DefaultFileRegion(raf.getChannel(), start, length);
+                }
+                // HttpChunkedInput 在文件结束时会写出 LastHttpContent
+                return new HttpChunkedInput(new ChunkedFile(raf, start, length, CHUNK_SIZE));
+            } catch (IOException | RuntimeException e) {
+                raf.close();
+                throw e;
+            }
+        }
+        // jar 中的大文件，区间之前的内容只能读出后丢弃
+        InputStream in = resource.url.openStream();
+        try {
+            skipFully(in, start);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        return new HttpChunkedInput(new ChunkedStream(new LimitedInputStream(in, length), CHUNK_SIZE));
+    }
+
+    /**
+     * 回到 EventLoop 写出响应头与文件内容，文件在缓存之后被删除或者无法读取时返回 404
+     */
+    private void writeBody(ChannelHandlerContext ctx, HttpResponse response, Object body, boolean keepAlive, Runnable written) {
+        try {
+            ChannelFuture future;
+            if (body == null) {
+                FullHttpResponse notFound = status(HttpResponseStatus.NOT_FOUND);
+                notFound.setProtocolVersion(response.protocolVersion());
+                HttpUtil.setContentLength(notFound, 0);
+                HttpUtil.setKeepAlive(notFound, keepAlive);
+                future = ctx.write(notFound);
+            } else if (body instanceof DefaultFileRegion) {
+                ctx.write(response, ctx.voidPromise());
+                ctx.write(body);
+                future = ctx.write(LastHttpContent.EMPTY_LAST_CONTENT);
+            } else {
+                ctx.write(response, ctx.voidPromise());
+                future = ctx.write(body);
+            }
+            if (!keepAlive) {
+                future.addListener(ChannelFutureListener.CLOSE);
+            }
+        } finally {
+            written.run();
+        }
+    }
+
+    private static void discard(Object body) {
+        if (body instanceof DefaultFileRegion) {
+            ((DefaultFileRegion) body).release();
+        } else if (body instanceof HttpChunkedInput) {
+            try {
+                ((HttpChunkedInput) body).close();
+            } catch (Exception ignored) {
+                // 已经不再使用
+            }
+        }
+    }
+
+    private void write(ChannelHandlerContext ctx, FullHttpRequest req, HttpResponse response) {
+        FullHttpResponse full = (FullHttpResponse) response;
+        if (!full.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
+            HttpUtil.setContentLength(full, full.content().readableBytes());
+        }
+        boolean keepAlive = HttpUtil.isKeepAlive(req);
+        full.setProtocolVersion(req.protocolVersion());
+        HttpUtil.setKeepAlive(full, keepAlive);
+        if (keepAlive) {
+            ctx.write(full, ctx.voidPromise());
+        } else {
+            ctx.write(full).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    private FullHttpResponse status(HttpResponseStatus status) {
+        return new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status);
+    }
+
+    private void setCacheHeaders(HttpResponse response, Resource resource) {
+        response.headers().set(HttpHeaderNames.ETAG, resource.etag);
+        response.headers().set(HttpHeaderNames.LAST_MODIFIED, DateFormatter.format(new Date(resource.lastModified)));
+        if (maxAge > 0) {
+            response.headers().set(HttpHeaderNames.CACHE_CONTROL, "public, max-age=" + maxAge);
+        } else {
+            response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
+        }
+    }
+
+    /**
+     * If-None-Match 优先，没有时比较 If-Modified-Since，精确到秒
+     */
+    private boolean isNotModified(HttpRequest req, Resource resource) {
+        String ifNoneMatch = req.headers().get(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String etag : ifNoneMatch.split(",")) {
+                etag = etag.trim();
+                if ("*".equals(etag) || resource.etag.equals(etag) || ("W/" + resource.etag).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = req.headers().get(HttpHeaderNames.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null) {
+            Date date = DateFormatter.parseHttpDate(ifModifiedSince);
+            return date != null && resource.lastModified / 1000 <= date.getTime() / 1000;
+        }
+        return false;
+    }
+
+    /**
+     * If-Range 与当前版本不一致时忽略 Range，返回整个文件
+     */
+    private boolean isRangeApplicable(HttpRequest req, Resource resource) {
+        String ifRange = req.headers().get(HttpHeaderNames.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return resource.etag.equals(ifRange.trim());
+        }
+        Date date = DateFormatter.parseHttpDate(ifRange);
+        return date != null && resource.lastModified / 1000 <= date.getTime() / 1000;
+    }
+
+    /**
+     * 解析 Range 请求头
+     *
+     * @return 区间的起止位置；多个区间或者格式不支持时返回空数组，表示返回整个文件；区间无法满足时返回 null
+     */
+    static long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') != -1) {
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                // 最后 n 个字节
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private boolean acceptsGzip(HttpRequest req) {
+        String acceptEncoding = req.headers().get(HttpHeaderNames.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    /**
+     * 去掉请求上下文并校验路径，包含 .. 等非法路径时返回 null
+     */
+    private String getRelativePath(String path) {
+        try {
+            path = URLDecoder.decode(path, "UTF-8");
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+        if (!context.isEmpty() && path.startsWith(context + "/")) {
+            path = path.substring(context.length());
+        }
+        if (path.indexOf('\\') != -1 || path.indexOf('\0') != -1 || path.endsWith("/")) {
+            return null;
+        }
+        for (String segment : path.split("/")) {
+            if ("..".equals(segment) || ".".equals(segment)) {
+                return null;
+            }
+        }
+        String relative = path.replaceAll("^/+", "");
+        return relative.isEmpty() ? null : relative;
+    }
+
+    private boolean isFavicon(String relative) {
+        return FAVICON.equalsIgnoreCase("/" + relative);
+    }
+
+    /**
+     * 在配置的位置中查找资源，没有 favicon.ico 时使用默认图标，在 IO 线程中调用
+     *
+     * @return 不存在时返回 {@link Resource#MISSING}
+     */
+    private Resource find(String relative) throws IOException {
+        Resource resource = load(locations, relative);
+        if (resource == null && isFavicon(relative)) {
+            resource = load(CLASSPATH_ROOT, ICON);
+            if (resource == null) {
+                resource = load(CLASSPATH_ROOT, GITHUB);
+            }
+        }
+        return resource == null ? Resource.MISSING : resource;
+    }
+
+    /**
+     * 放入缓存，同时淘汰最久未访问的资源
+     */
+    private void cache(String relative, Resource resource) {
+        synchronized (cache) {
+            Resource old = cache.remove(relative);
+            if (old != null) {
+                cachedBytes -= old.size();
+            }
+            if (resource == Resource.MISSING) {
+                missing.put(relative, Boolean.TRUE);
+                Iterator<String> iterator = missing.keySet().iterator();
+                while (missing.size() > MAX_MISSING && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+                return;
+            }
+            missing.remove(relative);
+            if (resource.size() <= cacheSize) {
+                cache.put(relative, resource);
+                cachedBytes += resource.size();
+                Iterator<Resource> iterator = cache.values().iterator();
+                while (cachedBytes > cacheSize && iterator.hasNext()) {
+                    cachedBytes -= iterator.next().size();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 定时在 IO 线程中检查缓存：修改过的文件重新加载，之前不存在的路径重新查找
+     */
+    private void revalidate() {
+        Map<String, Resource> snapshot;
+        synchronized (cache) {
+            snapshot = new HashMap<>(cache);
+            for (String relative : missing.keySet()) {
+                snapshot.put(relative, Resource.MISSING);
+            }
+        }
+        for (Map.Entry<String, Resource> entry : snapshot.entrySet()) {
+            Resource resource = entry.getValue();
+            if (resource != Resource.MISSING && resource.isValid()) {
+                continue;
+            }
+            try {
+                Resource fresh = find(entry.getKey());
+                if (fresh != Resource.MISSING || resource != Resource.MISSING) {
+                    cache(entry.getKey(), fresh);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to reload static resource " + entry.getKey() + " !", e);
+            }
+        }
+    }
+
+    private Resource load(String[] locations, String relative) throws IOException {
+        for (String location : locations) {
+            Resource resource = load(location, relative);
+            if (resource != null) {
+                Resource gzip = load(location, relative + GZIP_SUFFIX);
+                resource.gzip = gzip != null && gzip.lastModified >= resource.lastModified ? gzip : null;
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    private Resource load(String location, String relative) throws IOException {
+        if (location.startsWith(CLASSPATH_PREFIX)) {
+            String prefix = location.substring(CLASSPATH_PREFIX.length()).replaceAll("^/+", "");
+            URL url = Thread.currentThread().getContextClassLoader().getResource(prefix + relative);
+            if (url == null) {
+                return null;
+            }
+            if ("file".equals(url.getProtocol())) {
+                try {
+                    return loadFile(Paths.get(url.toURI()), relative);
+                } catch (URISyntaxException e) {
+                    return null;
+                }
+            }
+            // jar 中的资源不会变化
+            URLConnection connection = url.openConnection();
+            long length = connection.getContentLengthLong();
+            if (length < 0) {
+                return null;
+            }
+            byte[] content = null;
+            if (length <= cacheFileSize) {
+                try (InputStream in = connection.getInputStream()) {
+                    content = readFully(in, (int) length);
+                }
+            } else {
+                connection.getInputStream().close();
+            }
+            return new Resource(null, url, length, connection.getLastModified(), content, relative);
+        }
+        String dir = location.startsWith(FILE_PREFIX) ? location.substring(FILE_PREFIX.length()) : location;
+        Path root = Paths.get(dir).toAbsolutePath().normalize();
+        Path file = root.resolve(relative).normalize();
+        return file.startsWith(root) ? loadFile(file, relative) : null;
+    }
+
+    private Resource loadFile(Path path, String relative) throws IOException {
+        File file = path.toFile();
+        if (!file.isFile() || !file.canRead()) {
+            return null;
+        }
+        long length = file.length();
+        long lastModified = file.lastModified();
+        byte[] content = length <= cacheFileSize ? Files.readAllBytes(path) : null;
+        if (content != null && content.length != length) {
+            // 读取过程中文件被修改
+            length = content.length;
+        }
+        return new Resource(file, null, length, lastModified, content, relative);
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (int n; offset < length && (n = in.read(bytes, offset, length - offset)) != -1; ) {
+            offset += n;
+        }
+        return offset == length ? bytes : Arrays.copyOf(bytes, offset);
+    }
+
+    private static void skipFully(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                throw new IOException("Unexpected end of resource !");
+            }
+            n -= skipped;
+        }
+    }
+
+    private static String getContentType(String relative) {
+        int dot = relative.lastIndexOf('.');
+        String type = dot == -1 ? null : CONTENT_TYPES.get(relative.substring(dot + 1).toLowerCase(Locale.ROOT));
+        return type != null ? type : "application/octet-stream";
+    }
+
+    /**
+     * {@link #handle} 的结果
+     */
+    enum Outcome {
+        /**
+         * 没有该静态资源，未写出任何内容
+         */
+        NOT_FOUND,
+        /**
+         * 响应已经写出
+         */
+        WRITTEN,
+        /**
+         * 文件在 IO 线程中打开，打开后在 EventLoop 中写出响应并回调，期间同一连接上后续的请求需要排队
+         */
+        OPENING
+    }
+
+    /**
+     * 一个静态资源，小文件带有内容
+     */
+    static final class Resource {
+
+        /**
+         * 不存在的资源
+         */
+        static final Resource MISSING = new Resource(null, null, 0, 0, null, "");
+
+        private final File file;
+
+        private final URL url;
+
+        private final long length;
+
+        private final long lastModified;
+
+        private final byte[] content;
+
+        private final String etag;
+
+        private final String contentType;
+
+        /**
+         * 预先压缩的版本
+         */
+        private Resource gzip;
+
+        Resource(File file, URL url, long length, long lastModified, byte[] content, String relative) {
+            this.file = file;
+            this.url = url;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.content = content;
+            // 压缩版本带上 -gz 后缀，保证与原始版本的 ETag 不同
+            this.etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + (relative.endsWith(GZIP_SUFFIX) ? "-gz" : "") + "\"";
+            this.contentType = getContentType(relative.endsWith(GZIP_SUFFIX) ? relative.substring(0, relative.length() - GZIP_SUFFIX.length()) : relative);
+        }
+
+        /**
+         * 文件是否没有变化，jar 中的资源总是有效
+         */
+        boolean isValid() {
+            if (file == null) {
+                return true;
+            }
+            boolean valid = file.length() == length && file.lastModified() == lastModified;
+            if (gzip != null) {
+                valid &= gzip.isValid();
+            }
+            return valid;
+        }
+
+        /**
+         * 占用的缓存大小
+         */
+        long size() {
+            return (content == null ? 0 : content.length) + (gzip == null ? 0 : gzip.size());
+        }
+    }
+
+    /**
+     * 只读取前 limit 个字节
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+}
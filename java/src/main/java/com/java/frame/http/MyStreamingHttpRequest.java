@@ -0,0 +1,95 @@
+package com.java.frame.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.multipart.Attribute;
+import io.netty.handler.codec.http.multipart.FileUpload;
+import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
+import io.netty.handler.codec.http.multipart.InterfaceHttpData;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 没有经过 HttpObjectAggregator 聚合的请求，由 {@link MyHttpBodyHandler} 生成，content 为空：
+ * <ul>
+ * <li>流式请求：请求头到达时生成，请求体通过 {@link MyRequestBody} 读取</li>
+ * <li>multipart 请求：请求体已经由 {@link HttpPostRequestDecoder} 逐块解码完毕，超过阈值的部分保存在磁盘上</li>
+ * </ul>
+ * 引用计数归零时关闭请求体、删除上传的临时文件
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 22:40
+ */
+public class MyStreamingHttpRequest extends DefaultFullHttpRequest {
+
+    private final MyRequestBody body;
+
+    private final HttpPostRequestDecoder decoder;
+
+    /**
+     * multipart 中解码出的表单字段与文件
+     */
+    private final List<InterfaceHttpData> datas;
+
+    MyStreamingHttpRequest(HttpRequest request, MyRequestBody body, HttpPostRequestDecoder decoder, List<InterfaceHttpData> datas) {
+        super(request.protocolVersion(), request.method(), request.uri(), Unpooled.buffer(0), request.headers(), new DefaultHttpHeaders());
+        this.body = body;
+        this.decoder = decoder;
+        this.datas = datas;
+    }
+
+    /**
+     * query string 参数，加上请求体或者 multipart 中的表单字段与上传文件
+     */
+    Map<String, Object> getParams() throws IOException {
+        Map<String, Object> params = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : new QueryStringDecoder(uri()).parameters().entrySet()) {
+            params.put(entry.getKey(), entry.getValue().get(0));
+        }
+        if (body != null) {
+            params.put(MyRequestBody.PARAM_KEY, body);
+        }
+        if (datas != null) {
+            for (InterfaceHttpData data : datas) {
+                if (data instanceof FileUpload) {
+                    params.put(data.getName(), data);
+                } else if (data instanceof Attribute) {
+                    params.put(data.getName(), ((Attribute) data).getValue());
+                }
+            }
+        }
+        return params;
+    }
+
+    public MyRequestBody getBody() {
+        return body;
+    }
+
+    @Override
+    public boolean release() {
+        return destroyIfReleased(super.release());
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return destroyIfReleased(super.release(decrement));
+    }
+
+    private boolean destroyIfReleased(boolean released) {
+        if (released) {
+            if (body != null) {
+                body.close();
+            }
+            if (decoder != null) {
+                decoder.destroy();
+            }
+        }
+        return released;
+    }
+}
@@ -0,0 +1,133 @@
+package com.java.frame.http;
+
+import com.java.frame.util.StringUtils;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 传输层配置：Linux 上 epoll 可用时使用 epoll（边缘触发），否则退回 NIO；线程数与 socket 参数从 {@link MyPort} 读取
+ * <p>
+ * 开启 SO_REUSEPORT（仅 epoll）时同一端口绑定 acceptors 次，每个 acceptor 占一个 boss 线程，由内核把新连接分散到各个 acceptor
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 22:10
+ */
+@Slf4j
+public class MyTransport {
+
+    public static final String AUTO = "auto";
+
+    public static final String EPOLL = "epoll";
+
+    public static final String NIO = "nio";
+
+    private static final int DEFAULT_BACKLOG = 1024;
+
+    private static final int DEFAULT_LOW_WATER_MARK = 32 * 1024;
+
+    private static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+
+    private final boolean epoll;
+
+    private final int bossThreads;
+
+    private final int workerThreads;
+
+    private final int backlog;
+
+    private final boolean tcpNoDelay;
+
+    private final boolean reusePort;
+
+    private final WriteBufferWaterMark waterMark;
+
+    public MyTransport(MyPort port) {
+        String transport = StringUtils.isNotEmpty(port.getTransport()) ? port.getTransport().trim().toLowerCase() : AUTO;
+        boolean available = Epoll.isAvailable();
+        if (EPOLL.equals(transport) && !available) {
+            log.warn("Epoll is not available, fall back to NIO !", Epoll.unavailabilityCause());
+        }
+        this.epoll = !NIO.equals(transport) && available;
+        boolean reusePort = getBoolean(port.getReusePort(), false);
+        if (reusePort && !epoll) {
+            log.warn("SO_REUSEPORT requires the epoll transport, only one acceptor will be bound !");
+        }
+        this.reusePort = reusePort && epoll;
+        this.bossThreads = this.reusePort ? getInt(port.getBossThreads(), Runtime.getRuntime().availableProcessors()) : getInt(port.getBossThreads(), 1);
+        // 0 表示使用 netty 默认值：cpu 核数 * 2
+        this.workerThreads = getInt(port.getWorkerThreads(), 0);
+        this.backlog = getInt(port.getBacklog(), DEFAULT_BACKLOG);
+        this.tcpNoDelay = getBoolean(port.getTcpNoDelay(), true);
+        this.waterMark = new WriteBufferWaterMark(getInt(port.getWriteBufferLowWaterMark(), DEFAULT_LOW_WATER_MARK),
+                getInt(port.getWriteBufferHighWaterMark(), DEFAULT_HIGH_WATER_MARK));
+    }
+
+    public EventLoopGroup newBossGroup() {
+        DefaultThreadFactory factory = new DefaultThreadFactory("boss");
+        return epoll ? new EpollEventLoopGroup(bossThreads, factory) : new NioEventLoopGroup(bossThreads, factory);
+    }
+
+    public EventLoopGroup newWorkerGroup() {
+        DefaultThreadFactory factory = new DefaultThreadFactory("worker");
+        return epoll ? new EpollEventLoopGroup(workerThreads, factory) : new NioEventLoopGroup(workerThreads, factory);
+    }
+
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    /**
+     * 设置服务端 channel 与连接的 socket 参数
+     */
+    public void configure(ServerBootstrap bootstrap) {
+        bootstrap.channel(getServerChannelClass())
+                .option(ChannelOption.SO_BACKLOG, backlog)
+                .option(ChannelOption.SO_REUSEADDR, true)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay)
+                .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
+        if (epoll) {
+            bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+                    .childOption(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+            if (reusePort) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            }
+        }
+    }
+
+    /**
+     * 同一端口绑定的次数，开启 SO_REUSEPORT 时每个 boss 线程一个 acceptor
+     */
+    public int getAcceptors() {
+        return reusePort ? bossThreads : 1;
+    }
+
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    @Override
+    public String toString() {
+        return (epoll ? EPOLL : NIO) + " transport, boss threads " + bossThreads + ", worker threads "
+                + (workerThreads == 0 ? "default" : String.valueOf(workerThreads)) + ", acceptors " + getAcceptors()
+                + ", backlog " + backlog + ", tcpNoDelay " + tcpNoDelay + ", " + waterMark;
+    }
+
+    private static int getInt(String value, int defaultValue) {
+        return StringUtils.isNotEmpty(value) ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private static boolean getBoolean(String value, boolean defaultValue) {
+        return StringUtils.isNotEmpty(value) ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+}
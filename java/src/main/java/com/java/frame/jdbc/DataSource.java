@@ -22,6 +22,56 @@ public class DataSource {
     @MyValue("${className}")
     private String className;
 
+    /**
+     * 最小连接数
+     */
+    @MyValue("${minIdle}")
+    private String minIdle;
+
+    /**
+     * 最大连接数
+     */
+    @MyValue("${maxActive}")
+    private String maxActive;
+
+    /**
+     * 获取连接最长等待时间，单位毫秒
+     */
+    @MyValue("${maxWait}")
+    private String maxWait;
+
+    /**
+     * 空闲连接回收时间，单位毫秒
+     */
+    @MyValue("${idleTimeout}")
+    private String idleTimeout;
+
+    /**
+     * 连接借出超过该时间未归还视为泄漏，单位毫秒，0 表示不检测
+     */
+    @MyValue("${leakDetectionThreshold}")
+    private String leakDetectionThreshold;
+
+    /**
+     * 每个连接缓存的 PreparedStatement 个数，0 表示不缓存
+     */
+    @MyValue("${statementCacheSize}")
+    private String statementCacheSize;
+
+    /**
+     * 批量 insert、update 时每批提交的行数，MySQL 需要在 url 中开启 rewriteBatchedStatements=true，
+     * 否则 Connector/J 仍然逐条发送
+     */
+    @MyValue("${batchSize}")
+    private String batchSize;
+
+    /**
+     * 游标查询每次拉取的行数，MySQL 需要在 url 中开启 useCursorFetch=true，否则 Connector/J 忽略 fetchSize，
+     * 一次读入整个结果集
+     */
+    @MyValue("${fetchSize}")
+    private String fetchSize;
+
     public String getUrl() {
         return url;
     }
@@ -53,4 +103,68 @@ public class DataSource {
     public void setClassName(String className) {
         this.className = className;
     }
+
+    public String getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(String minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public String getMaxActive() {
+        return maxActive;
+    }
+
+    public void setMaxActive(String maxActive) {
+        this.maxActive = maxActive;
+    }
+
+    public String getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(String maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public String getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(String idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public String getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(String leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public String getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(String statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public String getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(String batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(String fetchSize) {
+        this.fetchSize = fetchSize;
+    }
 }
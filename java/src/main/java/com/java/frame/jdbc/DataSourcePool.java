@@ -1,34 +1,138 @@
 package com.java.frame.jdbc;
 
 import com.java.frame.util.LogUtils;
+import com.java.frame.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.SQLTransientConnectionException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * 数据库连接池
+ * <ul>
+ * <li>空闲连接放在无锁的 {@link ConcurrentLinkedDeque} 中，后进先出，优先复用最近归还的连接</li>
+ * <li>借出数量由 {@link Semaphore} 控制，连接耗尽时最多等待 maxWait 毫秒，超时抛出 {@link SQLTransientConnectionException}</li>
+ * <li>借出时校验连接是否可用，后台线程负责回收空闲连接、补足最小连接数以及检测连接泄漏</li>
+ * <li>每个连接维护一个 LRU 的 {@link PreparedStatement} 缓存，相同 sql 不再重复 prepare</li>
+ * </ul>
+ *
  * @author xuweizhi
  * @date 2019/04/09 13:31
  */
 @Slf4j
 public class DataSourcePool {
 
-    private List<Connection> poolConnection = new ArrayList<>();
+    private static final int DEFAULT_MIN_IDLE = 2;
+
+    private static final int DEFAULT_MAX_ACTIVE = 10;
+
+    private static final long DEFAULT_MAX_WAIT = 3000;
+
+    private static final long DEFAULT_IDLE_TIMEOUT = 10 * 60 * 1000;
+
+    private static final long DEFAULT_LEAK_DETECTION_THRESHOLD = 0;
+
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * 最近使用过的连接在这个时间窗口内借出时不再校验
+     */
+    private static final long VALIDATION_BYPASS_WINDOW = 500;
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 3;
+
+    private static final long HOUSEKEEPING_PERIOD = 30 * 1000;
+
+    private final DataSource dataSource;
+
+    private final int minIdle;
+
+    private final int maxActive;
+
+    private final long maxWait;
+
+    private final long idleTimeout;
+
+    private final long leakDetectionThreshold;
+
+    private final int statementCacheSize;
+
+    private final int batchSize;
+
+    private final int fetchSize;
+
+    /**
+     * 空闲连接们
+     */
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+    /**
+     * 借出的连接们
+     */
+    private final Map<Connection, PooledConnection> borrowed = new ConcurrentHashMap<>();
+
+    /**
+     * 可借出的连接数
+     */
+    private final Semaphore permits;
+
+    /**
+     * 当前物理连接数
+     */
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+
+    private final LongAdder timeoutCount = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final LongAdder statementCacheHits = new LongAdder();
+
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed;
 
     public DataSourcePool(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.maxActive = Math.max(1, parseInt(dataSource.getMaxActive(), DEFAULT_MAX_ACTIVE));
+        this.minIdle = Math.min(maxActive, Math.max(0, parseInt(dataSource.getMinIdle(), DEFAULT_MIN_IDLE)));
+        this.maxWait = parseLong(dataSource.getMaxWait(), DEFAULT_MAX_WAIT);
+        this.idleTimeout = parseLong(dataSource.getIdleTimeout(), DEFAULT_IDLE_TIMEOUT);
+        this.leakDetectionThreshold = parseLong(dataSource.getLeakDetectionThreshold(), DEFAULT_LEAK_DETECTION_THRESHOLD);
+        this.statementCacheSize = parseInt(dataSource.getStatementCacheSize(), DEFAULT_STATEMENT_CACHE_SIZE);
+        this.batchSize = Math.max(1, parseInt(dataSource.getBatchSize(), DEFAULT_BATCH_SIZE));
+        this.fetchSize = parseInt(dataSource.getFetchSize(), DEFAULT_FETCH_SIZE);
+        this.permits = new Semaphore(maxActive);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "data-source-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
         initConnections(dataSource);
+        housekeeper.scheduleWithFixedDelay(this::housekeeping, HOUSEKEEPING_PERIOD, HOUSEKEEPING_PERIOD, TimeUnit.MILLISECONDS);
     }
 
     private void initConnections(DataSource dataSource) {
         try {
             Class.forName(dataSource.getClassName());
-            for (int i = 0; i < 10; i++) {
-                poolConnection.add(DriverManager.getConnection(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword()));
-            }
+            fillMinIdle();
             LogUtils.printLog(log, "The database connection pool was successfully initialized !");
         } catch (ClassNotFoundException | SQLException e) {
             LogUtils.printLog(log, "数据库连接失败");
@@ -36,19 +140,102 @@ public class DataSourcePool {
         }
     }
 
-    public Connection getConnection() {
-        Connection con = null;
-        if (poolConnection.size() >= 1) {
-            con = poolConnection.get(0);
-            poolConnection.remove(0);
-            return con;
-        } else {
-            return con;
+    /**
+     * 借出连接，连接耗尽时最多等待 maxWait 毫秒
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("The database connection pool has been closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTransientConnectionException("Connection is not available, request timed out after " + maxWait + "ms, "
+                        + "active: " + getActiveCount() + ", idle: " + getIdleCount() + ", waiting: " + getThreadsAwaitingConnection());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (validate(pooled)) {
+                    break;
+                }
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = create();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.leakReported = false;
+            pooled.borrowStack = leakDetectionThreshold > 0 ? new Throwable("Connection borrowed here") : null;
+            borrowed.put(pooled.connection, pooled);
+            borrowCount.increment();
+            return pooled.connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 从借出连接的缓存中获取 PreparedStatement，调用方不要关闭它，由连接池负责关闭。
+     * 同一个连接同一时间只会被一个线程持有，所以缓存本身不需要同步
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        PooledConnection pooled = borrowed.get(connection);
+        if (pooled == null) {
+            throw new SQLException("The connection was not borrowed from this pool");
         }
+        if (statementCacheSize <= 0) {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            pooled.uncached.add(statement);
+            return statement;
+        }
+        PreparedStatement statement = pooled.statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            statementCacheHits.increment();
+            return statement;
+        }
+        statementCacheMisses.increment();
+        statement = connection.prepareStatement(sql);
+        pooled.statements.put(sql, statement);
+        return statement;
     }
 
+    /**
+     * 归还连接，非本连接池借出的连接或者重复归还将被忽略
+     */
     public void close(Connection connection) {
-        poolConnection.add(connection);
+        if (connection == null) {
+            return;
+        }
+        PooledConnection pooled = borrowed.remove(connection);
+        if (pooled == null) {
+            return;
+        }
+        try {
+            pooled.lastAccess = System.currentTimeMillis();
+            pooled.borrowStack = null;
+            pooled.closeUncached();
+            if (closed || connection.isClosed() || total.get() > maxActive) {
+                destroy(pooled);
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
     }
 
     public static void close(PreparedStatement pre, Connection con) {
@@ -64,9 +251,237 @@ public class DataSourcePool {
         }
     }
 
-    //public static void main(String[] args) throws SQLException {
-    //    Connection con = ConnectionUtils.getConnections("192.168.26.20:3306/wtf", "root", "158262751");
-    //    ConnectionUtils.close(null, con);
-    //}
+    /**
+     * 关闭连接池以及所有物理连接
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        for (PooledConnection connection : borrowed.values()) {
+            destroy(connection);
+        }
+        borrowed.clear();
+    }
+
+    private PooledConnection create() throws SQLException {
+        total.incrementAndGet();
+        try {
+            Connection connection = DriverManager.getConnection(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+            return new PooledConnection(connection, statementCacheSize);
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            log.debug("Closing connection failed", e);
+        }
+    }
+
+    private boolean validate(PooledConnection pooled) {
+        try {
+            if (System.currentTimeMillis() - pooled.lastAccess < VALIDATION_BYPASS_WINDOW) {
+                return !pooled.connection.isClosed();
+            }
+            return pooled.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        long max;
+        while (nanos > (max = maxWaitNanos.get())) {
+            if (maxWaitNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 回收超时的空闲连接，补足最小连接数，检测连接泄漏
+     */
+    private void housekeeping() {
+        try {
+            long now = System.currentTimeMillis();
+            if (idleTimeout > 0) {
+                Iterator<PooledConnection> iterator = idle.descendingIterator();
+                while (iterator.hasNext() && total.get() > minIdle) {
+                    PooledConnection pooled = iterator.next();
+                    if (now - pooled.lastAccess > idleTimeout && idle.removeFirstOccurrence(pooled)) {
+                        destroy(pooled);
+                    }
+                }
+            }
+            if (leakDetectionThreshold > 0) {
+                for (PooledConnection pooled : borrowed.values()) {
+                    Throwable stack = pooled.borrowStack;
+                    if (!pooled.leakReported && stack != null && now - pooled.borrowedAt > leakDetectionThreshold) {
+                        pooled.leakReported = true;
+                        log.warn("Connection leak detection triggered, connection borrowed " + (now - pooled.borrowedAt) + "ms ago", stack);
+                    }
+                }
+            }
+            fillMinIdle();
+        } catch (Exception e) {
+            log.warn("Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void fillMinIdle() throws SQLException {
+        while (!closed && total.get() < minIdle) {
+            PooledConnection pooled = create();
+            pooled.lastAccess = System.currentTimeMillis();
+            idle.offerLast(pooled);
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        return StringUtils.isEmpty(value) ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        return StringUtils.isEmpty(value) ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /**
+     * 借出中的连接数
+     */
+    public int getActiveCount() {
+        return maxActive - permits.availablePermits();
+    }
+
+    /**
+     * 空闲连接数
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * 物理连接数
+     */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    /**
+     * 正在等待连接的线程数
+     */
+    public int getThreadsAwaitingConnection() {
+        return permits.getQueueLength();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * 平均等待时间，单位纳秒
+     */
+    public long getAverageWaitNanos() {
+        long count = borrowCount.sum();
+        return count == 0 ? 0 : waitNanos.sum() / count;
+    }
+
+    /**
+     * 最长等待时间，单位纳秒
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public int getMaxActive() {
+        return maxActive;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * 池化连接
+     */
+    private static final class PooledConnection {
+
+        final Connection connection;
+
+        volatile long lastAccess = System.currentTimeMillis();
+
+        volatile long borrowedAt;
+
+        volatile Throwable borrowStack;
+
+        volatile boolean leakReported;
+
+        /**
+         * sql -> PreparedStatement，按访问顺序淘汰
+         */
+        final Map<String, PreparedStatement> statements;
+
+        /**
+         * 未开启缓存时借出期间创建的 PreparedStatement，归还时关闭
+         */
+        final List<PreparedStatement> uncached = new ArrayList<>();
+
+        PooledConnection(Connection connection, int statementCacheSize) {
+            this.connection = connection;
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > statementCacheSize) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        void closeUncached() {
+            for (PreparedStatement statement : uncached) {
+                closeQuietly(statement);
+            }
+            uncached.clear();
+        }
+
+        static void closeQuietly(PreparedStatement statement) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
 
 }
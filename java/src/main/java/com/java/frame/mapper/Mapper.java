@@ -7,6 +7,8 @@ import com.java.frame.model.User;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author xuweizhi
@@ -41,10 +43,29 @@ public interface Mapper {
     @MySelect(value = "select * from user", nameSpace = "com.java.frame.model.User")
     List<User> getUserC();
 
+    /**
+     * 游标查询，使用完需要关闭 Stream
+     */
+    @MySelect(value = "select * from user where role = #{role}", nameSpace = "com.java.frame.model.User", fetchSize = 500)
+    Stream<User> streamUser(Integer role);
+
+    /**
+     * 游标查询，逐行回调，返回行数
+     */
+    @MySelect(value = "select * from user", nameSpace = "com.java.frame.model.User")
+    long eachUser(Consumer<User> consumer);
+
     @MyInsert(value = " insert into user (u_id,address,role) values (null,#{address},#{role})",
             nameSpace = "com.java.frame.model.User")
     boolean addUser(User uer);
 
+    /**
+     * 批量新增，返回每一行的更新条数
+     */
+    @MyInsert(value = " insert into user (u_id,address,role) values (null,#{address},#{role})",
+            nameSpace = "com.java.frame.model.User", batchSize = 1000)
+    int[] addUsers(List<User> users);
+
 
     @MyUpdate(value = " update user set address =#{address},apartment=#{apartment},create_time=#{createTime}" +
             ",password=#{password},phone_number=#{phoneNumber},username=#{username},role=#{role} where u_id = #{uId}",
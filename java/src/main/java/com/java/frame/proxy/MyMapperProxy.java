@@ -1,10 +1,9 @@
 package com.java.frame.proxy;
 
-import com.java.frame.auto.MyColumn;
 import com.java.frame.exception.MyComponentException;
+import com.java.frame.exception.MyJdbcException;
 import com.java.frame.handler.*;
 import com.java.frame.jdbc.DataSourcePool;
-import com.java.frame.util.PatternUtils;
 import com.java.frame.util.StringUtils;
 import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.cglib.proxy.MethodProxy;
@@ -12,14 +11,12 @@ import org.springframework.cglib.proxy.MethodProxy;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.sql.*;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-
-import static com.java.frame.exception.JavaType.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * 自定义MethodInterceptor
@@ -40,6 +37,13 @@ public class MyMapperProxy implements MethodInterceptor {
 
     private DataSourcePool pool;
 
+    /**
+     * Method -> sql 解析结果，没有对应解析结果的方法缓存为 NONE
+     */
+    private final Map<Method, Object> mappings = new ConcurrentHashMap<>();
+
+    private static final Object NONE = new Object();
+
     public MyMapperProxy(Map<String, Object> mapper, Class<?> clazz, DataSourcePool pool) {
         this.mapper = mapper;
         this.clazz = clazz;
@@ -49,111 +53,22 @@ public class MyMapperProxy implements MethodInterceptor {
     @Override
     public Object intercept(Object sub, Method method, Object[] objects, MethodProxy methodProxy) throws Throwable {
         Object invoke = null;
-        String methodKey = this.clazz.getName() + "#" + method.getName();
-        Object obj = mapper.get(methodKey);
+        Object obj = getMapping(method);
         // 1. 解析 MySelect 注解
         if (obj instanceof MySelectMapping) {
             invoke = invokeSelect(method, objects, (MySelectMapping) obj);
         }
         // 2. 解析 MyInsert 注解
         if (obj instanceof MyInsertMapping) {
-            MyInsertMapping mapping = (MyInsertMapping) obj;
-            String sql = mapping.getSql();
-            Class<?> clazz = Class.forName(mapping.getNameSpace());
-            Object clazzObject = objects[0];
-            parseMyInsert(sql, clazz, clazzObject);
-            //if (method.getReturnType().getName().equals(boolean.class) || method.getReturnType().getName().equals(Boolean.class)) {
-            //    invoke = execute;
-            //}
-            //if (method.getReturnType().getName().equals(int.class) || method.getReturnType().getName().equals(Integer.class)) {
-            //    if (execute) {
-            //        invoke = 1;
-            //    } else {
-            //        invoke = 2;
-            //    }
-            //}
+            invoke = getUpdateResult(method.getReturnType(), executeUpdate((MyInsertMapping) obj, objects[0]));
         }
         // 3. 解析 MyUpdateMapping 注解
         if (obj instanceof MyUpdateMapping) {
-            MyUpdateMapping mapping = (MyUpdateMapping) obj;
-            String sql = mapping.getSql();
-            Class<?> clazz = Class.forName(mapping.getNameSpace());
-            Object clazzObject = objects[0];
-            parseMyInsert(sql, clazz, clazzObject);
+            invoke = getUpdateResult(method.getReturnType(), executeUpdate((MyUpdateMapping) obj, objects[0]));
         }
         // 4. 解析 MyDelete 注解
         if (obj instanceof MyDeleteMapping) {
-
-            MyDeleteMapping mapping = (MyDeleteMapping) obj;
-
-            // sql
-            String sql = mapping.getSql();
-
-            // sql 对应数据库实体
-            Class<?> clazz = Class.forName(mapping.getNameSpace());
-
-            if (sql.indexOf("where") != -1 || sql.indexOf("WHERE") != -1) {
-                int indexOf = sql.indexOf(("where"));
-                if (indexOf == -1) {
-                    indexOf = sql.indexOf(("WHERE"));
-                }
-                // delete * from select where
-                String prefix = sql.substring(0, indexOf + 5);
-                // u_id = #{uId} and
-                String suffix = sql.substring(indexOf + 5);
-                // 替换掉所有的 and
-                suffix = suffix.replaceAll("\\band\\b", "");
-                StringBuilder sb = new StringBuilder(prefix + " 1 = 1");
-
-                List<String> list = new ArrayList<>();
-                while (suffix.contains("}")) {
-                    list.add(" and " + suffix.substring(0, suffix.indexOf("}") + 1).trim());
-                    suffix = suffix.substring(suffix.indexOf("}") + 1, suffix.length());
-                }
-
-                if (objects.length == 1) {
-                    Object param = objects[0];
-                    // 1. 如果是哪个啥，哈哈哈
-                    if (param.getClass().getName().equals(clazz.getName())) {
-                        int end = 0;
-                        List<Object> objs = new ArrayList<>();
-                        List<String> objss = new ArrayList<>();
-                        for (String str : list) {
-                            Field field = clazz.getDeclaredField(str.substring(str.indexOf("{") + 1, str.indexOf("}")).trim());
-                            field.setAccessible(true);
-                            Object o = field.get(param);
-                            if (o != null) {
-                                sb.append(str);
-                                end++;
-                                objs.add(o);
-                                objss.add(o.getClass().getName());
-                            }
-                        }
-                        sql = PatternUtils.replaceSql(sb.toString());
-                        PreparedStatement ps = pool.getConnection().prepareStatement(sql);
-                        for (int i = 0; i < end; i++) {
-                            setParam(objs.toArray(), objss, ps, i, i + 1);
-                        }
-                        ps.execute();
-                        // 2. 如果参数是 int 或者Integer 类型
-                    } else {
-                        sb.append(list.get(0));
-                        sql = PatternUtils.replaceSql(sb.toString());
-                        PreparedStatement ps = pool.getConnection().prepareStatement(sql);
-                        setParam(param, param.getClass().getName(), ps, 1);
-                        ps.execute();
-                    }
-                }
-
-            } else if (sql.indexOf("orderby") != -1 || sql.indexOf("ORDERBY") != -1) {
-                int indexOf = sql.indexOf(("orderby"));
-                if (indexOf == -1) {
-                    indexOf = sql.indexOf(("ORDERBY"));
-                }
-            } else {
-                PreparedStatement prepareStatement = pool.getConnection().prepareStatement(mapping.getSql());
-                prepareStatement.execute();
-            }
+            invokeDelete(objects, (MyDeleteMapping) obj);
         }
         // 5.解析 MyLocalMethod 注解
         if (obj instanceof MyLocalMethodMapping) {
@@ -165,280 +80,311 @@ public class MyMapperProxy implements MethodInterceptor {
         return invoke;
     }
 
-    private void parseMyInsert(String sql, Class<?> clazz, Object clazzObject) throws SQLException, NoSuchFieldException, IllegalAccessException {
-        String replaceSql = PatternUtils.replaceSql(sql);
-        PreparedStatement prepareStatement = pool.getConnection().prepareStatement(replaceSql);
-        Matcher matcher = PatternUtils.getSqlMatcher(sql);
-        List<String> javaTypes = new ArrayList<>();
-        while (matcher.find()) {
-            javaTypes.add(matcher.group().substring(2, matcher.group().length() - 1).trim());
+    /**
+     * 获取方法对应的 sql 解析结果，按 Method 缓存，避免每次拼接 key
+     */
+    private Object getMapping(Method method) {
+        Object mapping = mappings.computeIfAbsent(method, m -> {
+            Object value = mapper.get(this.clazz.getName() + "#" + m.getName());
+            return value == null ? NONE : value;
+        });
+        return mapping == NONE ? null : mapping;
+    }
+
+    /**
+     * 执行 delete，实体参数时根据非空字段拼接条件
+     */
+    private void invokeDelete(Object[] objects, MyDeleteMapping mapping) throws SQLException, IllegalAccessException {
+        if (mapping.getWherePrefix() == null) {
+            if (mapping.getSql().indexOf("orderby") != -1 || mapping.getSql().indexOf("ORDERBY") != -1) {
+                return;
+            }
+            Connection con = pool.getConnection();
+            try {
+                pool.prepareStatement(con, mapping.getPreparedSql()).execute();
+            } finally {
+                pool.close(con);
+            }
+            return;
+        }
+        if (objects.length != 1 || mapping.getConditions().isEmpty()) {
+            return;
         }
-        for (int i = 0; i < javaTypes.size(); i++) {
-            Field field = clazz.getDeclaredField(javaTypes.get(i));
-            MyColumn column = field.getAnnotation(MyColumn.class);
-            field.setAccessible(true);
-            if (column != null) {
-                Object o = field.get(clazzObject);
-                setParam(o, field.getType().getName(), prepareStatement, i + 1);
+        Object param = objects[0];
+        Connection con = pool.getConnection();
+        try {
+            // 1. 如果是哪个啥，哈哈哈
+            if (param.getClass() == mapping.getEntityClass()) {
+                Field[] fields = mapping.getParamFields();
+                ParamBinder[] binders = mapping.getParamBinders();
+                List<String> conditions = mapping.getConditions();
+                StringBuilder sb = new StringBuilder(mapping.getWherePrefix());
+                Object[] values = new Object[fields.length];
+                ParamBinder[] bound = new ParamBinder[fields.length];
+                int end = 0;
+                for (int i = 0; i < fields.length; i++) {
+                    Object o = fields[i].get(param);
+                    if (o != null) {
+                        sb.append(conditions.get(i));
+                        values[end] = o;
+                        bound[end++] = binders[i];
+                    }
+                }
+                PreparedStatement ps = pool.prepareStatement(con, sb.toString());
+                for (int i = 0; i < end; i++) {
+                    bound[i].bind(ps, i + 1, values[i]);
+                }
+                ps.execute();
+                // 2. 如果参数是 int 或者Integer 类型
             } else {
-                throw new MyComponentException(clazz.getName() + field.getName() + "must indicate " + MyColumn.class + " annotations !");
+                PreparedStatement ps = pool.prepareStatement(con, mapping.getSingleParamSql());
+                ParamBinder.of(param.getClass()).bind(ps, 1, param);
+                ps.execute();
             }
+        } finally {
+            pool.close(con);
+        }
+    }
+
+    /**
+     * 执行 insert、update，参数为 Iterable 时批量执行，返回每一行的更新条数
+     */
+    private int[] executeUpdate(MySqlMapping mapping, Object param) throws SQLException, IllegalAccessException {
+        if (param instanceof Iterable) {
+            return executeBatch(mapping, (Iterable<?>) param);
         }
-        boolean execute = prepareStatement.execute();
+        return new int[]{executeEntity(mapping, param)};
     }
 
-    private Object invokeSelect(Method method, Object[] objects, MySelectMapping obj) throws SQLException, NoSuchFieldException, IllegalAccessException, ClassNotFoundException, InstantiationException, java.lang.reflect.InvocationTargetException, NoSuchMethodException {
-        Object invoke;
-        MySelectMapping select = obj;
+    /**
+     * 执行 insert、update，参数为实体对象
+     */
+    private int executeEntity(MySqlMapping mapping, Object clazzObject) throws SQLException, IllegalAccessException {
         Connection con = pool.getConnection();
-        List<String> paramList = select.getParamList();
-        List<String> nameList = select.getParamNameList();
-        Object[] params = new Object[paramList.size()];
         try {
-            String sql = PatternUtils.replaceSql(select.getSql());
-            PreparedStatement preparedStatement = con.prepareStatement(sql);
-            boolean flag = true;
-            if (objects.length == 1) {
-                if (objects[0] instanceof Map && flag) {
-                    Map map = (Map) objects[0];
-                    for (int i = 0; i < nameList.size(); i++) {
-                        Object o = map.get(nameList.get(i));
-                        if (o != null) {
-                            params[i] = o;
-                        }
+            PreparedStatement prepareStatement = pool.prepareStatement(con, mapping.getPreparedSql());
+            bindEntity(mapping, clazzObject, prepareStatement);
+            return prepareStatement.executeUpdate();
+        } finally {
+            pool.close(con);
+        }
+    }
+
+    /**
+     * 批量执行 insert、update：同一个连接、同一个事务内按 batchSize 分批 addBatch、executeBatch，全部成功后提交，
+     * 任意一批失败则整体回滚（由连接池归还连接时回滚）
+     */
+    private int[] executeBatch(MySqlMapping mapping, Iterable<?> entities) throws SQLException, IllegalAccessException {
+        int batchSize = mapping.getBatchSize() > 0 ? mapping.getBatchSize() : pool.getBatchSize();
+        int[] counts = new int[entities instanceof Collection ? ((Collection<?>) entities).size() : batchSize];
+        int size = 0;
+        Connection con = pool.getConnection();
+        try {
+            con.setAutoCommit(false);
+            PreparedStatement prepareStatement = pool.prepareStatement(con, mapping.getPreparedSql());
+            try {
+                int pending = 0;
+                for (Object entity : entities) {
+                    if (entity == null) {
+                        throw new IllegalArgumentException("Batch " + mapping.getNameSpace() + " entity cannot be null !");
                     }
-                    flag = false;
-                }
-                if (objects[0] instanceof List && flag) {
-                    List list = (List) objects[0];
-                    for (int i = 0; i < nameList.size(); i++) {
-                        Object o = list.get(i);
-                        if (o != null) {
-                            params[i] = o;
-                        }
+                    bindEntity(mapping, entity, prepareStatement);
+                    prepareStatement.addBatch();
+                    if (++pending == batchSize) {
+                        counts = append(counts, size, prepareStatement.executeBatch());
+                        size += pending;
+                        pending = 0;
                     }
-                    flag = false;
                 }
-                if (checkParamType(objects[0].getClass().getName(), true) && flag) {
-                    Object object = objects[0];
-                    Class<?> objectClass = object.getClass();
-                    for (int i = 0; i < nameList.size(); i++) {
-                        Field field = objectClass.getDeclaredField(nameList.get(i).trim());
-                        field.setAccessible(true);
-                        if (field.get(object) != null) {
-                            params[i] = field.get(object);
-                        }
-                    }
-                    flag = false;
+                if (pending > 0) {
+                    counts = append(counts, size, prepareStatement.executeBatch());
+                    size += pending;
                 }
+            } finally {
+                // 缓存的 PreparedStatement 会被复用，失败时不能留下未执行的批次
+                prepareStatement.clearBatch();
             }
-            if (flag) {
-                params = objects;
-            }
-            for (int i = 0; i < paramList.size(); i++) {
-                int tag = i + 1;
-                setParam(params, paramList, preparedStatement, i, tag);
+            con.commit();
+        } finally {
+            pool.close(con);
+        }
+        return size == counts.length ? counts : Arrays.copyOf(counts, size);
+    }
+
+    private void bindEntity(MySqlMapping mapping, Object entity, PreparedStatement prepareStatement) throws SQLException, IllegalAccessException {
+        Field[] fields = mapping.getParamFields();
+        ParamBinder[] binders = mapping.getParamBinders();
+        for (int i = 0; i < fields.length; i++) {
+            binders[i].bind(prepareStatement, i + 1, fields[i].get(entity));
+        }
+    }
+
+    private static int[] append(int[] counts, int size, int[] batch) {
+        if (size + batch.length > counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, size + batch.length));
+        }
+        System.arraycopy(batch, 0, counts, size, batch.length);
+        return counts;
+    }
+
+    /**
+     * 按方法返回值类型转换更新条数：int[] 返回每行的更新条数，int、long 返回总条数，boolean 返回是否全部成功，其余返回 null
+     */
+    private Object getUpdateResult(Class<?> returnType, int[] counts) {
+        if (returnType == int[].class) {
+            return counts;
+        }
+        long total = 0;
+        boolean success = counts.length > 0;
+        for (int count : counts) {
+            if (count > 0) {
+                total += count;
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                // 驱动未返回条数时按一行计算
+                total++;
+            } else {
+                success = false;
             }
-            ResultSet resultSet = preparedStatement.executeQuery();
-            List<Object> list = list = new ArrayList<>();
-            while (resultSet.next()) {
-                int count = resultSet.getMetaData().getColumnCount();
-                Class<?> returnType = method.getReturnType();
-                Class<?> in = Class.forName(select.getNameSpace());
-                Object newInstance = in.getDeclaredConstructor().newInstance();
-                Field[] fields = in.getDeclaredFields();
-                for (Field field : fields) {
-                    if (field.getAnnotation(MyColumn.class) != null) {
-                        field.setAccessible(true);
-                        getFieldValue(resultSet, field.getAnnotation(MyColumn.class).value(), field, newInstance);
-                    }
+        }
+        if (returnType == int.class || returnType == Integer.class) {
+            return (int) total;
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return total;
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return success;
+        }
+        return null;
+    }
+
+    private Object invokeSelect(Method method, Object[] objects, MySelectMapping select) throws SQLException, NoSuchFieldException, IllegalAccessException {
+        int resultType = select.getResultType();
+        if (resultType == MySelectMapping.RESULT_CALLBACK) {
+            // 方法签名的最后一个参数是 Consumer，元素类型由 nameSpace 对应的实体决定，编译期无法检查
+            @SuppressWarnings("unchecked")
+            Consumer<Object> callback = (Consumer<Object>) objects[objects.length - 1];
+            Object[] params = getSelectParams(Arrays.copyOf(objects, objects.length - 1), select);
+            long count = 0;
+            try (MyResultCursor<?> cursor = openCursor(select, params)) {
+                while (cursor.hasNext()) {
+                    callback.accept(cursor.next());
+                    count++;
                 }
-                list.add(newInstance);
-                //for (int i = 1; i <= count; i++) {
-                //    System.out.println(resultSet.getObject(i));
-                //}
             }
-            if (list.size() == 1) {
-                invoke = list.get(0);
-            } else {
-                invoke = list;
+            Class<?> returnType = method.getReturnType();
+            if (returnType == int.class || returnType == Integer.class) {
+                return (int) count;
+            }
+            return returnType == long.class || returnType == Long.class ? count : null;
+        }
+        Object[] params = getSelectParams(objects, select);
+        if (resultType == MySelectMapping.RESULT_STREAM) {
+            return openCursor(select, params).stream();
+        }
+        if (resultType == MySelectMapping.RESULT_ITERATOR) {
+            return openCursor(select, params);
+        }
+        List<?> list;
+        Connection con = pool.getConnection();
+        try {
+            PreparedStatement preparedStatement = pool.prepareStatement(con, select.getPreparedSql());
+            bindParams(select, params, preparedStatement);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                list = select.getRowMapper().mapAll(resultSet);
             }
         } finally {
             pool.close(con);
         }
-        return invoke;
-    }
-
-    private void getFieldValue(ResultSet resultSet, String sqlDateType, Field type, Object newInstance) throws SQLException, IllegalAccessException {
-        type.setAccessible(true);
-        switch (type.getType().getName()) {
-            case INTEGER:
-                int resultSetInt = resultSet.getInt(sqlDateType);
-                type.set(newInstance, Integer.valueOf(resultSetInt == 0 ? 0 : resultSetInt));
-                break;
-            case STRING:
-                String resultSetString = resultSet.getString(sqlDateType);
-                if (StringUtils.isNotEmpty(resultSetString)) {
-                    type.set(newInstance, resultSetString);
-                }
-                break;
-            case DATE:
-                Date date = resultSet.getDate(sqlDateType);
-                if (date != null) {
-                    type.set(newInstance, new java.util.Date(date.getTime()));
-                }
-                break;
-            case LOCAL_DATE_TIME:
-                Date localDate = resultSet.getDate(sqlDateType);
-                if (localDate != null) {
-                    type.set(newInstance, LocalDateTime.ofEpochSecond(localDate.getTime(), 0, ZoneOffset.ofHours(8)));
-                }
-                break;
-            case SHORT:
-                short resultSetShort = resultSet.getShort(sqlDateType);
-                if (resultSetShort != 0) {
-                    type.set(newInstance, Short.valueOf(resultSetShort));
-                }
-                break;
-            case LONG:
-                long resultSetLong = resultSet.getLong(sqlDateType);
-                if (resultSetLong != 0) {
-                    type.set(newInstance, Long.valueOf(resultSetLong));
-                }
-                break;
-            case FLOAT:
-                float resultSetFloat = resultSet.getFloat(sqlDateType);
-                if (resultSetFloat != 0) {
-                    type.set(newInstance, Float.valueOf(resultSetFloat));
-                }
-                break;
-            case DOUBLE:
-                double resultSetDouble = resultSet.getDouble(sqlDateType);
-                if (resultSetDouble != 0) {
-                    type.set(newInstance, Double.valueOf(resultSetDouble));
-                }
-                break;
-            case BYTE:
-                byte resultSetByte = resultSet.getByte(sqlDateType);
-                if (resultSetByte != 0) {
-                    type.set(newInstance, Byte.valueOf(resultSetByte));
-                }
-                break;
-            case BOOLEAN:
-                boolean resultSetBoolean = resultSet.getBoolean(sqlDateType);
-                type.set(newInstance, Boolean.valueOf(resultSetBoolean));
-                break;
-            default:
+        if (resultType == MySelectMapping.RESULT_LIST) {
+            return list;
         }
+        if (resultType == MySelectMapping.RESULT_ONE) {
+            if (list.size() > 1) {
+                throw new MyJdbcException("Expected one result but found " + list.size() + " : " + select.getSql());
+            }
+            return list.isEmpty() ? null : list.get(0);
+        }
+        return list.size() == 1 ? list.get(0) : list;
     }
 
-    private boolean checkParamType(String name, Boolean access) {
-        switch (name) {
-            case INTEGER:
-                access = false;
-                break;
-            case STRING:
-                access = false;
-                break;
-            case DATE:
-                access = false;
-                break;
-            case SHORT:
-                access = false;
-                break;
-            case LONG:
-                access = false;
-                break;
-            case FLOAT:
-                access = false;
-                break;
-            case LOCAL_DATE_TIME:
-                access = false;
-                break;
-            case DOUBLE:
-                access = false;
-                break;
-            case BYTE:
-                access = false;
-                break;
-            case BOOLEAN:
-                access = false;
-                break;
-            default:
+    /**
+     * 打开只进游标，独占一个连接直到游标关闭。部分驱动（PostgreSQL）只有关闭自动提交时才按 fetchSize 分批拉取，
+     * 归还连接时连接池会回滚并恢复自动提交。MySQL 需要在 url 中开启 useCursorFetch=true，否则 fetchSize 不生效，
+     * 整个结果集会在 executeQuery 时全部读入内存
+     */
+    private MyResultCursor<?> openCursor(MySelectMapping select, Object[] params) throws SQLException {
+        Connection con = pool.getConnection();
+        PreparedStatement preparedStatement = null;
+        try {
+            con.setAutoCommit(false);
+            preparedStatement = con.prepareStatement(select.getPreparedSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(select.getFetchSize() != 0 ? select.getFetchSize() : pool.getFetchSize());
+            bindParams(select, params, preparedStatement);
+            return new MyResultCursor<>(pool, con, preparedStatement, preparedStatement.executeQuery(), select.getRowMapper());
+        } catch (SQLException | RuntimeException e) {
+            DataSourcePool.close(preparedStatement, null);
+            pool.close(con);
+            throw e;
         }
-        return access;
     }
 
-    private void setParam(Object object, String paramType, PreparedStatement preparedStatement, int tag) throws SQLException {
-        switch (paramType) {
-            case INTEGER:
-                preparedStatement.setInt(tag, object == null ? 0 : (Integer) object);
-                break;
-            case STRING:
-                preparedStatement.setString(tag, object == null ? "" : (String) object);
-                break;
-            case DATE:
-                preparedStatement.setDate(tag, object == null ? new Date(System.currentTimeMillis()) : new Date(((java.util.Date) object).getTime()));
-                break;
-            case LOCAL_DATE_TIME:
-                preparedStatement.setDate(tag, object == null ? new Date(System.currentTimeMillis()) : new Date(((LocalDateTime) object).toEpochSecond(ZoneOffset.ofHours(8))));
-                break;
-            case SHORT:
-                preparedStatement.setShort(tag, object == null ? Short.valueOf("0") : (Short) object);
-                break;
-            case LONG:
-                preparedStatement.setLong(tag, object == null ? Long.valueOf(0) : (Long) object);
-                break;
-            case FLOAT:
-                preparedStatement.setFloat(tag, object == null ? Float.valueOf(0) : (Float) object);
-                break;
-            case DOUBLE:
-                preparedStatement.setDouble(tag, object == null ? Double.valueOf(0) : (Double) object);
-                break;
-            case BYTE:
-                preparedStatement.setByte(tag, object == null ? Byte.valueOf("0") : (Byte) object);
-                break;
-            case BOOLEAN:
-                preparedStatement.setBoolean(tag, object == null ? false : (Boolean) object);
-                break;
-            default:
+    private void bindParams(MySelectMapping select, Object[] params, PreparedStatement preparedStatement) throws SQLException {
+        ParamBinder[] binders = select.getParamBinders();
+        for (int i = 0; i < binders.length; i++) {
+            binders[i].bind(preparedStatement, i + 1, params[i]);
         }
     }
 
-    private void setParam(Object[] objects, List<String> paramList, PreparedStatement preparedStatement, int i, int tag) throws SQLException {
-        switch (paramList.get(i)) {
-            case INTEGER:
-                preparedStatement.setInt(tag, objects[i] == null ? 0 : (Integer) objects[i]);
-                break;
-            case STRING:
-                preparedStatement.setString(tag, objects[i] == null ? "" : (String) objects[i]);
-                break;
-            case DATE:
-                preparedStatement.setDate(tag, objects[i] == null ? new Date(System.currentTimeMillis()) : new Date(((java.util.Date) objects[i]).getTime()));
-                break;
-            case LOCAL_DATE_TIME:
-                preparedStatement.setDate(tag, objects[i] == null ? new Date(System.currentTimeMillis()) : new Date(((LocalDateTime) objects[i]).toEpochSecond(ZoneOffset.ofHours(8))));
-                break;
-            case SHORT:
-                preparedStatement.setShort(tag, objects[i] == null ? Short.valueOf("0") : (Short) objects[i]);
-                break;
-            case LONG:
-                preparedStatement.setLong(tag, objects[i] == null ? Long.valueOf(0) : (Long) objects[i]);
-                break;
-            case FLOAT:
-                preparedStatement.setFloat(tag, objects[i] == null ? Float.valueOf(0) : (Float) objects[i]);
-                break;
-            case DOUBLE:
-                preparedStatement.setDouble(tag, objects[i] == null ? Double.valueOf(0) : (Double) objects[i]);
-                break;
-            case BYTE:
-                preparedStatement.setByte(tag, objects[i] == null ? Byte.valueOf("0") : (Byte) objects[i]);
-                break;
-            case BOOLEAN:
-                preparedStatement.setBoolean(tag, objects[i] == null ? false : (Boolean) objects[i]);
-                break;
-            default:
+    /**
+     * 按 #{} 的顺序取出查询参数，支持 Map、List、实体对象以及按顺序传入的参数
+     */
+    private Object[] getSelectParams(Object[] objects, MySelectMapping select) throws NoSuchFieldException, IllegalAccessException {
+        List<String> nameList = select.getParamNameList();
+        Object[] params = new Object[nameList.size()];
+        boolean flag = true;
+        if (objects.length == 1) {
+            if (objects[0] instanceof Map && flag) {
+                Map<?, ?> map = (Map<?, ?>) objects[0];
+                for (int i = 0; i < nameList.size(); i++) {
+                    Object o = map.get(nameList.get(i));
+                    if (o != null) {
+                        params[i] = o;
+                    }
+                }
+                flag = false;
+            }
+            if (objects[0] instanceof List && flag) {
+                List<?> list = (List<?>) objects[0];
+                for (int i = 0; i < nameList.size(); i++) {
+                    Object o = list.get(i);
+                    if (o != null) {
+                        params[i] = o;
+                    }
+                }
+                flag = false;
+            }
+            if (!ParamBinder.isScalar(objects[0].getClass()) && flag) {
+                Object object = objects[0];
+                Class<?> objectClass = object.getClass();
+                Field[] fields = select.getParamFields();
+                for (int i = 0; i < nameList.size(); i++) {
+                    Field field;
+                    if (objectClass == select.getEntityClass()) {
+                        field = fields[i];
+                    } else {
+                        field = objectClass.getDeclaredField(nameList.get(i).trim());
+                        field.setAccessible(true);
+                    }
+                    params[i] = field.get(object);
+                }
+                flag = false;
+            }
+        }
+        if (flag) {
+            params = objects;
         }
+        return params;
     }
 
     private Object parseReinforce(Method method, Object[] objects, Object invoke) throws ClassNotFoundException, NoSuchMethodException, InstantiationException, IllegalAccessException, java.lang.reflect.InvocationTargetException {
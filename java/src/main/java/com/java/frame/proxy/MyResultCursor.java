@@ -0,0 +1,117 @@
+package com.java.frame.proxy;
+
+import com.java.frame.exception.MyJdbcException;
+import com.java.frame.jdbc.DataSourcePool;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 只进游标，逐行映射，不缓存整个结果集。独占一个连接，直到 {@link #close()} 或遍历结束时归还：
+ * 返回 Iterator 时遍历结束自动关闭，提前结束需要强转为 AutoCloseable 关闭；返回 Stream 时需要 try-with-resources
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 18:25
+ */
+@Slf4j
+public class MyResultCursor<T> implements Iterator<T>, AutoCloseable {
+
+    private final DataSourcePool pool;
+
+    private final Connection connection;
+
+    private final PreparedStatement statement;
+
+    private final ResultSet resultSet;
+
+    private final MyRowMapper<T> mapper;
+
+    private final int[] indexes;
+
+    /**
+     * 预读的下一行，hasNext 后映射好
+     */
+    private T next;
+
+    private boolean closed;
+
+    MyResultCursor(DataSourcePool pool, Connection connection, PreparedStatement statement, ResultSet resultSet, MyRowMapper<T> mapper) throws SQLException {
+        this.pool = pool;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        this.indexes = mapper.resolveColumns(resultSet);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            if (resultSet.next()) {
+                next = mapper.mapRow(resultSet, indexes);
+                return true;
+            }
+        } catch (SQLException e) {
+            close();
+            throw new MyJdbcException("Unable to fetch next row of " + mapper.getEntityClass().getName(), e);
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * 转换为顺序流，流关闭时释放连接
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 关闭结果集与语句并归还连接，可以重复调用
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        next = null;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close result set !", e);
+        }
+        DataSourcePool.close(statement, null);
+        pool.close(connection);
+    }
+}
@@ -0,0 +1,221 @@
+package com.java.frame.proxy;
+
+import com.java.frame.auto.MyColumn;
+import com.java.frame.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.java.frame.exception.JavaType.*;
+
+/**
+ * 行映射器，每个实体类只解析一次：构造器与标注了 {@link MyColumn} 的字段的 setter 都预先转换为 MethodHandle，
+ * 每个字段按类型生成专用的读取器，使用基本类型的 ResultSet getter。查询时先按列名解析出列下标，逐行映射时只按下标读取
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 17:05
+ */
+public class MyRowMapper<T> {
+
+    private static final Map<Class<?>, MyRowMapper<?>> MAPPERS = new ConcurrentHashMap<>(64);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private final Class<T> entityClass;
+
+    private final MethodHandle constructor;
+
+    /**
+     * 列名，与 readers 一一对应
+     */
+    private final String[] columns;
+
+    private final ColumnReader[] readers;
+
+    private MyRowMapper(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<String> columnList = new ArrayList<>();
+        List<ColumnReader> readerList = new ArrayList<>();
+        try {
+            java.lang.reflect.Constructor<T> declared = entityClass.getDeclaredConstructor();
+            declared.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(declared).asType(CONSTRUCTOR_TYPE);
+            for (Field field : entityClass.getDeclaredFields()) {
+                MyColumn column = field.getAnnotation(MyColumn.class);
+                if (column == null || Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                ColumnReader reader = createReader(field.getType().getName(), lookup.unreflectSetter(field).asType(SETTER_TYPE));
+                if (reader != null) {
+                    columnList.add(column.value());
+                    readerList.add(reader);
+                }
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Unable to compile row mapper for " + entityClass.getName(), e);
+        }
+        this.columns = columnList.toArray(new String[0]);
+        this.readers = readerList.toArray(new ColumnReader[0]);
+    }
+
+    /**
+     * 获取实体类的行映射器，同一个实体类只编译一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MyRowMapper<T> of(Class<T> entityClass) {
+        return (MyRowMapper<T>) MAPPERS.computeIfAbsent(entityClass, MyRowMapper::new);
+    }
+
+    /**
+     * 按列名解析出每个字段对应的列下标，结果集中不存在的列为 0，映射时跳过
+     */
+    public int[] resolveColumns(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        Map<String, Integer> labels = new HashMap<>();
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            labels.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer index = labels.get(columns[i].toLowerCase(Locale.ROOT));
+            indexes[i] = index == null ? 0 : index;
+        }
+        return indexes;
+    }
+
+    /**
+     * 映射当前行
+     *
+     * @param indexes {@link #resolveColumns(ResultSet)} 的结果
+     */
+    @SuppressWarnings("unchecked")
+    public T mapRow(ResultSet resultSet, int[] indexes) throws SQLException {
+        try {
+            Object instance = constructor.invokeExact();
+            for (int i = 0; i < readers.length; i++) {
+                if (indexes[i] != 0) {
+                    readers[i].read(resultSet, indexes[i], instance);
+                }
+            }
+            return (T) instance;
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new SQLException("Unable to map row to " + entityClass.getName(), t);
+        }
+    }
+
+    /**
+     * 映射整个结果集
+     */
+    public List<T> mapAll(ResultSet resultSet) throws SQLException {
+        int[] indexes = resolveColumns(resultSet);
+        List<T> list = new ArrayList<>();
+        while (resultSet.next()) {
+            list.add(mapRow(resultSet, indexes));
+        }
+        return list;
+    }
+
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * 按字段类型生成读取器，与原先 MyMapperProxy#getFieldValue 的取值规则保持一致，不支持的类型返回 null
+     */
+    private static ColumnReader createReader(String type, MethodHandle setter) {
+        switch (type) {
+            case INTEGER:
+                return (rs, index, target) -> {
+                    setter.invokeExact(target, (Object) Integer.valueOf(rs.getInt(index)));
+                };
+            case STRING:
+                return (rs, index, target) -> {
+                    String value = rs.getString(index);
+                    if (StringUtils.isNotEmpty(value)) {
+                        setter.invokeExact(target, (Object) value);
+                    }
+                };
+            case DATE:
+                return (rs, index, target) -> {
+                    Date date = rs.getDate(index);
+                    if (date != null) {
+                        setter.invokeExact(target, (Object) new java.util.Date(date.getTime()));
+                    }
+                };
+            case LOCAL_DATE_TIME:
+                return (rs, index, target) -> {
+                    Date date = rs.getDate(index);
+                    if (date != null) {
+                        setter.invokeExact(target, (Object) LocalDateTime.ofEpochSecond(date.getTime(), 0, ZoneOffset.ofHours(8)));
+                    }
+                };
+            case SHORT:
+                return (rs, index, target) -> {
+                    short value = rs.getShort(index);
+                    if (value != 0) {
+                        setter.invokeExact(target, (Object) Short.valueOf(value));
+                    }
+                };
+            case LONG:
+                return (rs, index, target) -> {
+                    long value = rs.getLong(index);
+                    if (value != 0) {
+                        setter.invokeExact(target, (Object) Long.valueOf(value));
+                    }
+                };
+            case FLOAT:
+                return (rs, index, target) -> {
+                    float value = rs.getFloat(index);
+                    if (value != 0) {
+                        setter.invokeExact(target, (Object) Float.valueOf(value));
+                    }
+                };
+            case DOUBLE:
+                return (rs, index, target) -> {
+                    double value = rs.getDouble(index);
+                    if (value != 0) {
+                        setter.invokeExact(target, (Object) Double.valueOf(value));
+                    }
+                };
+            case BYTE:
+                return (rs, index, target) -> {
+                    byte value = rs.getByte(index);
+                    if (value != 0) {
+                        setter.invokeExact(target, (Object) Byte.valueOf(value));
+                    }
+                };
+            case BOOLEAN:
+                return (rs, index, target) -> {
+                    setter.invokeExact(target, (Object) Boolean.valueOf(rs.getBoolean(index)));
+                };
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 单列读取器
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+
+        void read(ResultSet resultSet, int index, Object target) throws Throwable;
+    }
+}
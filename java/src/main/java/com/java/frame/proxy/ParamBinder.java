@@ -0,0 +1,82 @@
+package com.java.frame.proxy;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.java.frame.exception.JavaType.*;
+
+/**
+ * 参数绑定器，启动时按参数字段的类型生成，调用时直接按下标绑定，不再按类型名称 switch。
+ * 取值规则与原先 MyMapperProxy#setParam 保持一致：null 绑定为对应类型的默认值
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 09:12
+ */
+@FunctionalInterface
+public interface ParamBinder {
+
+    void bind(PreparedStatement preparedStatement, int index, Object value) throws SQLException;
+
+    /**
+     * 获取参数类型对应的绑定器，同一个类型只生成一次，不支持的类型交给驱动 setObject
+     */
+    static ParamBinder of(Class<?> type) {
+        return Binders.BINDERS.computeIfAbsent(type, Binders::create);
+    }
+
+    /**
+     * 是否为可以直接绑定的简单类型，实体、Map、List 等返回 false
+     */
+    static boolean isScalar(Class<?> type) {
+        return of(type) != Binders.OBJECT;
+    }
+
+    final class Binders {
+
+        private static final Map<Class<?>, ParamBinder> BINDERS = new ConcurrentHashMap<>(32);
+
+        private static final ParamBinder OBJECT = (ps, index, value) -> ps.setObject(index, value);
+
+        private Binders() {
+        }
+
+        private static ParamBinder create(Class<?> type) {
+            switch (type.getName()) {
+                case INTEGER:
+                case "int":
+                    return (ps, index, value) -> ps.setInt(index, value == null ? 0 : (Integer) value);
+                case STRING:
+                    return (ps, index, value) -> ps.setString(index, value == null ? "" : (String) value);
+                case DATE:
+                    return (ps, index, value) -> ps.setDate(index, value == null ? new Date(System.currentTimeMillis()) : new Date(((java.util.Date) value).getTime()));
+                case LOCAL_DATE_TIME:
+                    return (ps, index, value) -> ps.setDate(index, value == null ? new Date(System.currentTimeMillis()) : new Date(((LocalDateTime) value).toEpochSecond(ZoneOffset.ofHours(8))));
+                case SHORT:
+                case "short":
+                    return (ps, index, value) -> ps.setShort(index, value == null ? 0 : (Short) value);
+                case LONG:
+                case "long":
+                    return (ps, index, value) -> ps.setLong(index, value == null ? 0L : (Long) value);
+                case FLOAT:
+                case "float":
+                    return (ps, index, value) -> ps.setFloat(index, value == null ? 0F : (Float) value);
+                case DOUBLE:
+                case "double":
+                    return (ps, index, value) -> ps.setDouble(index, value == null ? 0D : (Double) value);
+                case BYTE:
+                case "byte":
+                    return (ps, index, value) -> ps.setByte(index, value == null ? 0 : (Byte) value);
+                case BOOLEAN:
+                case "boolean":
+                    return (ps, index, value) -> ps.setBoolean(index, value != null && (Boolean) value);
+                default:
+                    return OBJECT;
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.java.frame.util;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * class 文件的轻量解析结果：只读取常量池、类名、父类、接口以及类上运行时可见的注解，不加载、不初始化类
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 19:10
+ */
+public class ClassMetadata {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final String className;
+
+    private final String superClassName;
+
+    private final String[] interfaceNames;
+
+    private final int access;
+
+    /**
+     * 类上运行时可见注解的全类名
+     */
+    private final List<String> annotationNames;
+
+    private ClassMetadata(String className, String superClassName, String[] interfaceNames, int access, List<String> annotationNames) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+        this.access = access;
+        this.annotationNames = annotationNames;
+    }
+
+    public static ClassMetadata read(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        byte[] buffer = new byte[4096];
+        for (int n; (n = is.read(buffer)) != -1; ) {
+            out.write(buffer, 0, n);
+        }
+        return read(out.toByteArray());
+    }
+
+    public static ClassMetadata read(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file !");
+        }
+        // minor_version、major_version
+        skip(in, 4);
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7:
+                    classes[i] = in.readUnsignedShort();
+                    break;
+                case 5:
+                case 6:
+                    skip(in, 8);
+                    // long、double 占两个常量池位置
+                    i++;
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    skip(in, 4);
+                    break;
+                case 15:
+                    skip(in, 3);
+                    break;
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    skip(in, 2);
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        int access = in.readUnsignedShort();
+        String className = toClassName(utf8[classes[in.readUnsignedShort()]]);
+        int superIndex = in.readUnsignedShort();
+        String superClassName = superIndex == 0 ? null : toClassName(utf8[classes[superIndex]]);
+        String[] interfaceNames = new String[in.readUnsignedShort()];
+        for (int i = 0; i < interfaceNames.length; i++) {
+            interfaceNames[i] = toClassName(utf8[classes[in.readUnsignedShort()]]);
+        }
+        // fields、methods
+        skipMembers(in);
+        skipMembers(in);
+        List<String> annotationNames = Collections.emptyList();
+        int attributes = in.readUnsignedShort();
+        for (int i = 0; i < attributes; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                skip(in, length);
+                continue;
+            }
+            int annotations = in.readUnsignedShort();
+            annotationNames = new ArrayList<>(annotations);
+            for (int j = 0; j < annotations; j++) {
+                annotationNames.add(readAnnotation(in, utf8));
+            }
+        }
+        return new ClassMetadata(className, superClassName, interfaceNames, access, annotationNames);
+    }
+
+    /**
+     * 读取一个注解，返回注解的全类名，属性值全部跳过
+     */
+    private static String readAnnotation(DataInputStream in, String[] utf8) throws IOException {
+        String descriptor = utf8[in.readUnsignedShort()];
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            skip(in, 2);
+            skipElementValue(in, utf8);
+        }
+        return toClassName(descriptor.substring(1, descriptor.length() - 1));
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                skip(in, 4);
+                break;
+            case '@':
+                readAnnotation(in, utf8);
+                break;
+            case '[':
+                int values = in.readUnsignedShort();
+                for (int i = 0; i < values; i++) {
+                    skipElementValue(in, utf8);
+                }
+                break;
+            default:
+                // B C D F I J S Z s c
+                skip(in, 2);
+        }
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int members = in.readUnsignedShort();
+        for (int i = 0; i < members; i++) {
+            // access_flags、name_index、descriptor_index
+            skip(in, 6);
+            int attributes = in.readUnsignedShort();
+            for (int j = 0; j < attributes; j++) {
+                skip(in, 2);
+                skip(in, in.readInt());
+            }
+        }
+    }
+
+    private static void skip(DataInputStream in, int length) throws IOException {
+        if (in.skipBytes(length) != length) {
+            throw new EOFException();
+        }
+    }
+
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public String[] getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    public List<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean hasAnnotation(String annotationName) {
+        return annotationNames.contains(annotationName);
+    }
+}
@@ -0,0 +1,144 @@
+package com.java.frame.util;
+
+import com.java.frame.auto.MyComponent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * 组件索引文件 META-INF/my-components.index，构建时由 gradle componentIndex 任务生成（gradle -PcomponentIndex 开启）。
+ * 索引只代表它所在的 classpath 根（同一个 jar 或者同一个目录），这些根不再扫描，其余的根照常扫描，
+ * 每行格式：组件全类名=组件注解全类名,组件注解全类名
+ * <p>
+ * 启动参数 -Dmy.component.index=false 时忽略索引
+ *
+ * @author xuweizhi
+ * @date 2026/10/18 19:40
+ */
+@Slf4j
+public class ComponentIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/my-components.index";
+
+    public static final String ENABLED_PROPERTY = "my.component.index";
+
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * 索引文件所在的 classpath 根，不带结尾的 /
+     */
+    private final Set<String> roots;
+
+    /**
+     * 组件全类名 -> 组件注解全类名们
+     */
+    private final Map<String, List<String>> components;
+
+    private ComponentIndex(Set<String> roots, Map<String, List<String>> components) {
+        this.roots = roots;
+        this.components = components;
+    }
+
+    /**
+     * 读取 classpath 下所有的索引文件，没有索引文件返回 null
+     */
+    public static ComponentIndex read(ClassLoader classLoader) throws IOException {
+        List<URL> urls = Collections.list(classLoader.getResources(INDEX_LOCATION));
+        if (urls.isEmpty()) {
+            return null;
+        }
+        Set<String> roots = new HashSet<>();
+        Map<String, List<String>> components = new HashMap<>(256);
+        for (URL url : urls) {
+            roots.add(root(url, INDEX_LOCATION));
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                for (String line; (line = reader.readLine()) != null; ) {
+                    line = line.trim();
+                    int index = line.indexOf('=');
+                    if (line.isEmpty() || line.startsWith("#") || index == -1) {
+                        continue;
+                    }
+                    components.put(line.substring(0, index), Arrays.asList(line.substring(index + 1).split(",")));
+                }
+            }
+        }
+        log.info("Load {} components from {} component index files !", components.size(), urls.size());
+        return new ComponentIndex(roots, components);
+    }
+
+    /**
+     * 包路径所在的 classpath 根是否已经有索引
+     *
+     * @param url         classLoader.getResources(packagePath) 返回的地址
+     * @param packagePath 以 / 分隔的包路径
+     */
+    public boolean covers(URL url, String packagePath) {
+        return roots.contains(root(url, packagePath));
+    }
+
+    public Map<String, List<String>> getComponents() {
+        return components;
+    }
+
+    /**
+     * 去掉资源地址结尾的资源路径，得到 classpath 根，例如 jar:file:/a.jar!/com/java -> jar:file:/a.jar!
+     */
+    private static String root(URL url, String resourcePath) {
+        String external = trimSlash(url.toExternalForm());
+        String path = trimSlash(resourcePath);
+        if (!path.isEmpty() && external.endsWith(path)) {
+            external = trimSlash(external.substring(0, external.length() - path.length()));
+        }
+        return external;
+    }
+
+    private static String trimSlash(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(0, end);
+    }
+
+    /**
+     * 写入索引文件，按类名排序，保证每次构建结果一致
+     */
+    public static void write(Map<String, List<String>> components, Path outputDir) throws IOException {
+        Path index = outputDir.resolve(INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, List<String>> entry : new TreeMap<>(components).entrySet()) {
+                writer.write(entry.getKey() + "=" + String.join(",", entry.getValue()));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * 构建时生成索引
+     *
+     * @param args 0：class 输出目录们，以路径分隔符分隔；1：索引文件输出目录
+     */
+    public static void main(String[] args) throws IOException {
+        PathUtils scan = new PathUtils();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<PathUtils.ClassResource> resources = new ArrayList<>();
+        for (String classesDir : args[0].split(File.pathSeparator)) {
+            File dir = new File(classesDir);
+            if (dir.isDirectory()) {
+                resources.addAll(scan.list(new PathUtils.ClassResource("", dir.toURI().toURL())));
+            }
+        }
+        Map<String, List<String>> components = scan.findComponents(resources, MyComponent.class, classLoader);
+        write(components, Paths.get(args[1]));
+        log.info("Write {} components to {} !", components.size(), Paths.get(args[1]).resolve(INDEX_LOCATION));
+    }
+}
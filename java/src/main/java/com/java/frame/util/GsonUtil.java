@@ -1,23 +1,74 @@
 package com.java.frame.util;
 
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import com.java.frame.model.User;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 封装的GSON解析工具类，提供泛型参数
  */
 public class GsonUtil {
+
+    /**
+     * Gson 本身是线程安全的，全局共享一个实例
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * 类型 -> TypeAdapter 缓存，避免每次序列化、反序列化都去 Gson 内部查找
+     */
+    private static final Map<Type, TypeAdapter<?>> ADAPTERS = new ConcurrentHashMap<>(64);
+
+    public static Gson getGson() {
+        return GSON;
+    }
+
+    /**
+     * 获取指定类型的 TypeAdapter
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeAdapter<T> getAdapter(Class<T> type) {
+        return (TypeAdapter<T>) getAdapter((Type) type);
+    }
+
+    /**
+     * 获取指定泛型类型的 TypeAdapter，如 List&lt;User&gt;
+     */
+    public static TypeAdapter<?> getAdapter(Type type) {
+        return ADAPTERS.computeIfAbsent(type, key -> GSON.getAdapter(TypeToken.get(key)));
+    }
+
+    /**
+     * 将对象序列化后直接写入 Writer，不生成中间 String
+     */
+    @SuppressWarnings("unchecked")
+    public static void toJson(Object src, Writer writer) throws IOException {
+        JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+        jsonWriter.setLenient(true);
+        jsonWriter.setHtmlSafe(GSON.htmlSafe());
+        if (src == null) {
+            jsonWriter.nullValue();
+        } else {
+            ((TypeAdapter<Object>) getAdapter(src.getClass())).write(jsonWriter, src);
+        }
+        jsonWriter.flush();
+    }
+
     /**
      * 将Json数据解析成相应的映射对象
      */
 
     public static <T> T parseJsonWithGson(String jsonData, Class<T> type) {
-        Gson gson = new Gson();
-        T result = gson.fromJson(jsonData, type);
-        return result;
+        return GSON.fromJson(jsonData, type);
     }
 
     /**
@@ -25,10 +76,7 @@ public class GsonUtil {
      */
     public static <T> List<T> parseJsonArrayWithGson(String jsonData,
                                                      Class<T> type) {
-        Gson gson = new Gson();
-        List<T> result = gson.fromJson(jsonData, new TypeToken<List<T>>() {
-        }.getType());
-        return result;
+        return GSON.fromJson(jsonData, TypeToken.getParameterized(List.class, type).getType());
     }
 
     public static void main(String[] args) {
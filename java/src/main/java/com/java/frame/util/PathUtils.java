@@ -8,15 +8,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
-import java.net.MalformedURLException;
+import java.lang.annotation.Inherited;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author xuweizhi
@@ -35,6 +43,13 @@ public class PathUtils {
 
     private String regex;
 
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * 注解全类名 -> 是否为组件注解
+     */
+    private final Map<String, Boolean> componentAnnotations = new ConcurrentHashMap<>();
+
     public Set<Class<?>> services = new HashSet<>();
     public Set<Class<?>> mappers = new HashSet<>();
     public Set<Class<?>> controllers = new HashSet<>();
@@ -88,39 +103,156 @@ public class PathUtils {
             basePath = path;
         }
         inPath.add(basePath);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ComponentIndex index = ComponentIndex.isEnabled() && annotationClazz == MyComponent.class ?
+                ComponentIndex.read(classLoader) : null;
+        Map<String, List<String>> found = scan(inPath, annotationClazz, classLoader, index);
         Set<Class<?>> result = new HashSet<>();
+        for (Map.Entry<String, List<String>> entry : found.entrySet()) {
+            String className = entry.getKey();
+            if (isIncluded(className.replace('.', '/'), inPath)) {
+                addComponent(className, entry.getValue(), classLoader, result);
+            }
+        }
         for (String packagePath : inPath) {
-            result.addAll(getBeanClass(annotationClazz, packagePath));
             LogUtils.printLog(logger, packagePath + " Package scanning completed !");
         }
         return result;
     }
 
     /**
-     * 获取 指定路径下的包们
+     * 并行扫描包路径下的 class 文件：目录与 jar 并行遍历，只解析 class 文件常量池判断注解，不加载类
      *
-     * @param component 指定组件
-     * @param basePath  扫描的基本包路径
-     * @return 指定路径下的classes 们
-     * @throws IOException IO 异常
+     * @param index 组件索引，索引覆盖的 classpath 根直接使用索引结果，不再扫描，可以为 null
+     * @return 组件全类名 -> 组件注解全类名们
      */
-    private Set<Class<?>> getBeanClass(Class<?> component, String basePath) throws IOException {
-        ArrayList<URL> list = Collections.list(Thread.currentThread().getContextClassLoader().getResources(basePath));
+    public Map<String, List<String>> scan(List<String> packagePaths, Class<?> component, ClassLoader classLoader, ComponentIndex index) throws IOException {
+        List<ClassResource> roots = new ArrayList<>();
+        for (String packagePath : packagePaths) {
+            for (URL url : Collections.list(classLoader.getResources(packagePath))) {
+                if (index == null || !index.covers(url, packagePath)) {
+                    roots.add(new ClassResource(packagePath, url));
+                }
+            }
+        }
+        List<ClassResource> resources = roots.parallelStream()
+                .flatMap(root -> list(root).stream())
+                .filter(resource -> isIncluded(resource.name, packagePaths))
+                .collect(Collectors.toList());
+        Map<String, List<String>> found = findComponents(resources, component, classLoader);
+        if (index != null) {
+            index.getComponents().forEach(found::putIfAbsent);
+        }
+        return found;
+    }
 
-        List<String> result = new ArrayList<>();
+    /**
+     * 解析 class 文件，找出包含指定注解或者组件注解的类
+     */
+    public Map<String, List<String>> findComponents(List<ClassResource> resources, Class<?> component, ClassLoader classLoader) {
+        boolean inherited = component.isAnnotationPresent(Inherited.class);
+        Map<String, List<String>> found = new ConcurrentHashMap<>();
+        resources.parallelStream().forEach(resource -> {
+            try (InputStream is = resource.open()) {
+                ClassMetadata metadata = ClassMetadata.read(is);
+                List<String> stereotypes = new ArrayList<>();
+                for (String annotationName : metadata.getAnnotationNames()) {
+                    if (annotationName.equals(component.getName()) || isComponentAnnotation(annotationName, classLoader)) {
+                        stereotypes.add(annotationName);
+                    }
+                }
+                if (stereotypes.isEmpty() && inherited && isInherited(metadata, component.getName(), classLoader)) {
+                    stereotypes.add(component.getName());
+                }
+                if (!stereotypes.isEmpty()) {
+                    found.put(metadata.getClassName(), stereotypes);
+                }
+            } catch (IOException e) {
+                log.warn(resource.name + " can not be parsed and will be ignored !", e);
+            }
+        });
+        return found;
+    }
 
-        Set<Class<?>> set = new HashSet<>();
+    /**
+     * 注解本身是否标注了 {@link MyComponent}，按注解全类名缓存
+     */
+    private boolean isComponentAnnotation(String annotationName, ClassLoader classLoader) {
+        Boolean cached = componentAnnotations.get(annotationName);
+        if (cached != null) {
+            return cached;
+        }
+        ClassMetadata metadata = readMetadata(annotationName, classLoader);
+        boolean component = metadata != null && metadata.hasAnnotation(MyComponent.class.getName());
+        componentAnnotations.put(annotationName, component);
+        return component;
+    }
 
-        list.forEach(url -> {
-            result.addAll(
-                    list(url, basePath).stream().filter(value -> value.endsWith(".class")).collect(Collectors.toList()));
-        });
+    /**
+     * 父类上是否有可继承的注解
+     */
+    private boolean isInherited(ClassMetadata metadata, String annotationName, ClassLoader classLoader) {
+        String superClassName = metadata.getSuperClassName();
+        while (superClassName != null && !superClassName.startsWith("java.")) {
+            ClassMetadata superMetadata = readMetadata(superClassName, classLoader);
+            if (superMetadata == null) {
+                return false;
+            }
+            if (superMetadata.hasAnnotation(annotationName)) {
+                return true;
+            }
+            superClassName = superMetadata.getSuperClassName();
+        }
+        return false;
+    }
 
-        result.forEach(className -> {
-            // 获得全类名
-            match(className, component, set);
-        });
-        return set;
+    private ClassMetadata readMetadata(String className, ClassLoader classLoader) {
+        if (className.startsWith("java.")) {
+            return null;
+        }
+        try (InputStream is = classLoader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+            return is == null ? null : ClassMetadata.read(is);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 加载组件类，不初始化，并按注解归类到 services、mappers、controllers
+     */
+    private void addComponent(String className, List<String> stereotypes, ClassLoader classLoader, Set<Class<?>> result) {
+        try {
+            Class<?> clazz = Class.forName(className, false, classLoader);
+            result.add(clazz);
+            if (stereotypes.contains(MyService.class.getName())) {
+                services.add(clazz);
+            }
+            if (stereotypes.contains(MyMapper.class.getName())) {
+                mappers.add(clazz);
+            }
+            if (stereotypes.contains(MyController.class.getName())) {
+                controllers.add(clazz);
+            }
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 资源是否在扫描的包路径下，且不在排除的包路径下
+     */
+    private boolean isIncluded(String resourceName, List<String> packagePaths) {
+        for (String e : exPath) {
+            if (StringUtils.isNotEmpty(e) && resourceName.startsWith(e + "/")) {
+                return false;
+            }
+        }
+        for (String packagePath : packagePaths) {
+            if (resourceName.startsWith(packagePath + "/")) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -182,80 +314,79 @@ public class PathUtils {
     }
 
     /**
-     * 模拟 Mybatis 包扫描
+     * 列出根路径下的 class 文件，目录递归遍历，jar 遍历条目
      */
-    public void match(String className, Class<?> component, Set<Class<?>> set) {
-        // 获取全雷鸣
-        String externalName = className.substring(0, className.indexOf('.')).replace('/', '.');
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    public List<ClassResource> list(ClassResource root) {
+        List<ClassResource> resources = new ArrayList<>();
         try {
-            Class<?> clazz = classLoader.loadClass(externalName);
-            if (match(clazz, component)) {
-                set.add(clazz);
+            if ("jar".equals(root.url.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) root.url.openConnection();
+                JarFile jarFile = connection.getJarFile();
+                String prefix = connection.getEntryName() == null ? "" : connection.getEntryName();
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.getName().startsWith(prefix) && entry.getName().endsWith(CLASS_SUFFIX)) {
+                        resources.add(new ClassResource(entry.getName(), jarFile, entry));
+                    }
+                }
+            } else {
+                Path base = Paths.get(root.url.toURI());
+                try (Stream<Path> paths = Files.walk(base)) {
+                    paths.filter(file -> file.toString().endsWith(CLASS_SUFFIX)).forEach(file -> {
+                        String relative = base.relativize(file).toString().replace(File.separatorChar, '/');
+                        resources.add(new ClassResource(root.name.isEmpty() ? relative : root.name + "/" + relative, file));
+                    });
+                }
             }
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
+        } catch (IOException | URISyntaxException e) {
+            log.warn(root.url + " can not be scanned and will be ignored !", e);
         }
-    }
-
-    protected static List<URL> getResources(String path) throws IOException {
-        return Collections.list(Thread.currentThread().getContextClassLoader().getResources(path));
+        return resources;
     }
 
     /**
-     * 获取指定包下的 URL .class 文件
+     * 待解析的 class 文件，来自目录或者 jar
      */
-    public List<String> list(URL url, String path) {
-        InputStream is = null;
-        List<String> resources = new ArrayList<String>();
-        for (String e : exPath) {
-            if (url.getPath().contains(e)) {
-                LogUtils.printLog(logger, e + " The file under the package path is not scanned and will be ignored!");
+    public static class ClassResource {
 
-                return resources;
-            }
+        /**
+         * 资源名称，如 com/java/frame/mapper/Mapper.class，根路径时为包路径
+         */
+        final String name;
+
+        URL url;
+
+        Path file;
+
+        JarFile jarFile;
+
+        JarEntry entry;
+
+        ClassResource(String name, URL url) {
+            this.name = name;
+            this.url = url;
         }
-        List<String> children = new ArrayList<String>();
-        try {
-            //获取该路径下的资源
-            is = url.openStream();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(is));
-            List<String> lines = new ArrayList<String>();
-            for (String line; (line = reader.readLine()) != null; ) {
-                lines.add(line);
-                if (getResources(path + "/" + line).isEmpty()) {
-                    lines.clear();
-                    break;
-                }
-            }
-            children.addAll(lines);
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                is.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+
+        ClassResource(String name, Path file) {
+            this.name = name;
+            this.file = file;
         }
 
-        String prefix = url.toExternalForm();
-        if (!prefix.endsWith("/")) {
-            prefix = prefix + "/";
+        ClassResource(String name, JarFile jarFile, JarEntry entry) {
+            this.name = name;
+            this.jarFile = jarFile;
+            this.entry = entry;
         }
 
-        // Iterate over immediate children, adding files and recursing into directories
-        for (String child : children) {
-            String resourcePath = path + "/" + child;
-            resources.add(resourcePath);
-            URL childUrl = null;
-            try {
-                childUrl = new URL(prefix + child);
-            } catch (MalformedURLException e) {
-                e.printStackTrace();
+        InputStream open() throws IOException {
+            if (file != null) {
+                return Files.newInputStream(file);
             }
-            resources.addAll(list(childUrl, resourcePath));
+            if (jarFile != null) {
+                return jarFile.getInputStream(entry);
+            }
+            return url.openStream();
         }
-        return resources;
     }
 }
@@ -12,6 +12,13 @@ import static com.java.frame.exception.ComponentConstance.SQL_PATTERN;
  */
 public class PatternUtils {
 
+    /**
+     * 预编译，避免每次调用都重新编译正则
+     */
+    private static final Pattern SQL = Pattern.compile(SQL_PATTERN);
+
+    private static final Pattern BRACKETS_IN = Pattern.compile(BRACKETS_IN_PATTERN);
+
     public static Pattern getSqlPatter(String regex) {
         return Pattern.compile(regex);
     }
@@ -20,17 +27,17 @@ public class PatternUtils {
      * 获取 #{} 内部中的内容，包括括号
      */
     public static Matcher getSqlMatcher(String sql) {
-        return getSqlPatter(SQL_PATTERN).matcher(sql);
+        return SQL.matcher(sql);
     }
 
     /**
      * 获取 ()内部中的内容，不包括括号
      */
     public static Matcher getBarcketMatcher(String sql) {
-        return getSqlPatter(BRACKETS_IN_PATTERN).matcher(sql);
+        return BRACKETS_IN.matcher(sql);
     }
 
     public static String replaceSql(String sql){
-        return  sql.replaceAll(SQL_PATTERN, "?");
+        return SQL.matcher(sql).replaceAll("?");
     }
 }
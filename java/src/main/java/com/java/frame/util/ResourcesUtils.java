@@ -65,6 +65,17 @@ public class ResourcesUtils {
 
     }
 
+    /**
+     * 配置文件解析结果：配置前缀（大写） -> 属性名#属性值
+     */
+    public Map<String, List<String>> getProperties() {
+        return map;
+    }
+
+    public void setProperties(Map<String, List<String>> properties) {
+        this.map = properties;
+    }
+
     public String resolver(Class<?> clazz, Field field, Object instance) {
         List<String> list = map.get(clazz.getSimpleName().toUpperCase());
         MyValue myValue = field.getAnnotation(MyValue.class);
@@ -0,0 +1,55 @@
+package com.java.frame.http;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Range 请求头解析
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 10:20
+ */
+public class MyStaticResourceHandlerTest {
+
+    private static final long[] WHOLE = new long[0];
+
+    @Test
+    public void closedRange() {
+        assertArrayEquals(new long[]{0, 99}, MyStaticResourceHandler.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{100, 199}, MyStaticResourceHandler.parseRange("bytes= 100-199", 1000));
+    }
+
+    @Test
+    public void endIsClampedToLength() {
+        assertArrayEquals(new long[]{900, 999}, MyStaticResourceHandler.parseRange("bytes=900-5000", 1000));
+    }
+
+    @Test
+    public void openEndedRange() {
+        assertArrayEquals(new long[]{500, 999}, MyStaticResourceHandler.parseRange("bytes=500-", 1000));
+    }
+
+    @Test
+    public void suffixRange() {
+        assertArrayEquals(new long[]{900, 999}, MyStaticResourceHandler.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{0, 999}, MyStaticResourceHandler.parseRange("bytes=-5000", 1000));
+    }
+
+    @Test
+    public void unsatisfiableRange() {
+        assertNull(MyStaticResourceHandler.parseRange("bytes=1000-", 1000));
+        assertNull(MyStaticResourceHandler.parseRange("bytes=200-100", 1000));
+        assertNull(MyStaticResourceHandler.parseRange("bytes=-0", 1000));
+        assertNull(MyStaticResourceHandler.parseRange("bytes=0-0", 0));
+    }
+
+    @Test
+    public void unsupportedRangeReturnsWholeFile() {
+        assertArrayEquals(WHOLE, MyStaticResourceHandler.parseRange("bytes=0-1,5-6", 1000));
+        assertArrayEquals(WHOLE, MyStaticResourceHandler.parseRange("items=0-1", 1000));
+        assertArrayEquals(WHOLE, MyStaticResourceHandler.parseRange("bytes=100", 1000));
+        assertArrayEquals(WHOLE, MyStaticResourceHandler.parseRange("bytes=a-b", 1000));
+    }
+}
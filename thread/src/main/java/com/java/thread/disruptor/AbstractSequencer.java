@@ -15,7 +15,9 @@
  */
 package com.java.thread.disruptor;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.java.thread.disruptor.util.Util;
 
@@ -33,6 +35,8 @@ public abstract class AbstractSequencer implements Sequencer
     protected final WaitStrategy waitStrategy;
     protected final Sequence cursor = new Sequence(INITIAL_CURSOR_VALUE);
     protected volatile Sequence[] gatingSequences = new Sequence[0];
+    private final LongAdder producerStalls = new LongAdder();
+    private final LongAdder producerParks = new LongAdder();
 
     /**
      * Create with the specified buffer size and wait strategy.
@@ -82,6 +86,33 @@ public abstract class AbstractSequencer implements Sequencer
         SequenceGroups.addSequences(this, SEQUENCE_UPDATER, this, gatingSequences);
     }
 
+    /**
+     * @see Sequencer#tryAddGatingSequence(Sequence)
+     */
+    @Override
+    public boolean tryAddGatingSequence(Sequence sequence)
+    {
+        final long value = sequence.get();
+        Sequence[] currentSequences;
+        Sequence[] updatedSequences;
+        do
+        {
+            currentSequences = gatingSequences;
+            updatedSequences = Arrays.copyOf(currentSequences, currentSequences.length + 1);
+            updatedSequences[currentSequences.length] = sequence;
+        }
+        while (!SEQUENCE_UPDATER.compareAndSet(this, currentSequences, updatedSequences));
+
+        // a claim made without seeing the sequence was bounded by the sequences present then, which only move
+        // forward, so they bound it now too
+        if (Util.getMinimumSequence(currentSequences, cursor.get()) > value)
+        {
+            removeGatingSequence(sequence);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * @see Sequencer#removeGatingSequence(Sequence)
      */
@@ -100,6 +131,45 @@ public abstract class AbstractSequencer implements Sequencer
         return Util.getMinimumSequence(gatingSequences, cursor.get());
     }
 
+    /**
+     * @see Sequencer#getProducerStallCount()
+     */
+    @Override
+    public long getProducerStallCount()
+    {
+        return producerStalls.sum();
+    }
+
+    /**
+     * @see Sequencer#getProducerParkCount()
+     */
+    @Override
+    public long getProducerParkCount()
+    {
+        return producerParks.sum();
+    }
+
+    /**
+     * @see Sequencer#getWaitCounters()
+     */
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitStrategy instanceof InstrumentedWaitStrategy ? ((InstrumentedWaitStrategy) waitStrategy).getWaitCounters() : WaitCounters.NONE;
+    }
+
+    /**
+     * Count a claim that had to wait for the gating sequences, called once the claim succeeds so that a producer
+     * spinning on a full ring does not touch the counters on every iteration.
+     *
+     * @param parks the number of times the producer parked.
+     */
+    protected final void recordStall(long parks)
+    {
+        producerStalls.increment();
+        producerParks.add(parks);
+    }
+
     /**
      * @see Sequencer#newBarrier(Sequence...)
      */
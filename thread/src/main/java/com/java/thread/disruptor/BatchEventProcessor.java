@@ -37,6 +37,7 @@ public final class BatchEventProcessor<T>
     private final EventHandler<? super T> eventHandler;
     private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
     private final TimeoutHandler timeoutHandler;
+    private ProcessorMetrics metrics;
 
     /**
      * Construct a {@link EventProcessor} that will automatically track the progress by updating its sequence when
@@ -96,6 +97,24 @@ public final class BatchEventProcessor<T>
         this.exceptionHandler = exceptionHandler;
     }
 
+    /**
+     * Record batch sizes and handler time into the given metrics, must be called before the processor is started.
+     *
+     * @param metrics to record into, or null to stop recording at the next start.
+     */
+    public void setMetrics(final ProcessorMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the metrics this processor records into, or null if none were set.
+     */
+    public ProcessorMetrics getMetrics()
+    {
+        return metrics;
+    }
+
     /**
      * It is ok to have another thread rerun this method after a halt().
      *
@@ -112,6 +131,7 @@ public final class BatchEventProcessor<T>
 
         notifyStart();
 
+        final ProcessorMetrics metrics = this.metrics;
         T event = null;
         long nextSequence = sequence.get() + 1L;
         try
@@ -122,6 +142,9 @@ public final class BatchEventProcessor<T>
                 {
                     final long availableSequence = sequenceBarrier.waitFor(nextSequence);
 
+                    final long batchSize = availableSequence - nextSequence + 1L;
+                    final long batchStart = metrics != null ? System.nanoTime() : 0L;
+
                     while (nextSequence <= availableSequence)
                     {
                         event = dataProvider.get(nextSequence);
@@ -129,6 +152,11 @@ public final class BatchEventProcessor<T>
                         nextSequence++;
                     }
 
+                    if (metrics != null && batchSize > 0)
+                    {
+                        metrics.recordBatch(batchSize, System.nanoTime() - batchStart);
+                    }
+
                     sequence.set(availableSequence);
                 }
                 catch (final TimeoutException e)
@@ -24,36 +24,53 @@ import java.util.concurrent.locks.ReentrantLock;
  *
  * This strategy can be used when throughput and low-latency are not as important as CPU resource.
  */
-public final class BlockingWaitStrategy implements WaitStrategy
+public final class BlockingWaitStrategy implements InstrumentedWaitStrategy
 {
     private final Lock lock = new ReentrantLock();
     private final Condition processorNotifyCondition = lock.newCondition();
+    private final WaitCounters waitCounters = new WaitCounters();
 
     @Override
     public long waitFor(long sequence, Sequence cursorSequence, Sequence dependentSequence, SequenceBarrier barrier)
         throws AlertException, InterruptedException
     {
         long availableSequence;
-        if ((availableSequence = cursorSequence.get()) < sequence)
+        if ((availableSequence = dependentSequence.get()) >= sequence)
         {
-            lock.lock();
-            try
+            return availableSequence;
+        }
+
+        long spins = 0;
+        long parks = 0;
+        try
+        {
+            if ((availableSequence = cursorSequence.get()) < sequence)
             {
-                while ((availableSequence = cursorSequence.get()) < sequence)
+                lock.lock();
+                try
                 {
-                    barrier.checkAlert();
-                    processorNotifyCondition.await();
+                    while ((availableSequence = cursorSequence.get()) < sequence)
+                    {
+                        barrier.checkAlert();
+                        processorNotifyCondition.await();
+                        parks++;
+                    }
+                }
+                finally
+                {
+                    lock.unlock();
                 }
             }
-            finally
+
+            while ((availableSequence = dependentSequence.get()) < sequence)
             {
-                lock.unlock();
+                barrier.checkAlert();
+                spins++;
             }
         }
-
-        while ((availableSequence = dependentSequence.get()) < sequence)
+        finally
         {
-            barrier.checkAlert();
+            waitCounters.record(spins, 0, parks);
         }
 
         return availableSequence;
@@ -72,4 +89,10 @@ public final class BlockingWaitStrategy implements WaitStrategy
             lock.unlock();
         }
     }
+
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
 }
@@ -22,17 +22,33 @@ package com.java.thread.disruptor;
  * This strategy will use CPU resource to avoid syscalls which can introduce latency jitter.  It is best
  * used when threads can be bound to specific CPU cores.
  */
-public final class BusySpinWaitStrategy implements WaitStrategy
+public final class BusySpinWaitStrategy implements InstrumentedWaitStrategy
 {
+    private final WaitCounters waitCounters = new WaitCounters();
+
     @Override
     public long waitFor(final long sequence, Sequence cursor, final Sequence dependentSequence, final SequenceBarrier barrier)
         throws AlertException, InterruptedException
     {
         long availableSequence;
+        if ((availableSequence = dependentSequence.get()) >= sequence)
+        {
+            return availableSequence;
+        }
 
-        while ((availableSequence = dependentSequence.get()) < sequence)
+        long spins = 0;
+        try
+        {
+            do
+            {
+                barrier.checkAlert();
+                spins++;
+            }
+            while ((availableSequence = dependentSequence.get()) < sequence);
+        }
+        finally
         {
-            barrier.checkAlert();
+            waitCounters.record(spins, 0, 0);
         }
 
         return availableSequence;
@@ -42,4 +58,10 @@ public final class BusySpinWaitStrategy implements WaitStrategy
     public void signalAllWhenBlocking()
     {
     }
+
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
 }
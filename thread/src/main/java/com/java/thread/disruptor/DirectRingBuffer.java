@@ -0,0 +1,332 @@
+package com.java.thread.disruptor;
+
+import com.java.thread.disruptor.dsl.ProducerType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>Ring of fixed-size binary records held in a single off-heap region, either direct memory or a memory-mapped
+ * file.  Unlike {@link RingBuffer} there are no preallocated event objects: the ring is invisible to the garbage
+ * collector and record <tt>n</tt> always starts at <tt>n * recordSize</tt>, so a consumer walks the region
+ * sequentially.</p>
+ *
+ * <p>Records are read and written through {@link Flyweight}s.  Claiming, publishing and waiting are done by the
+ * usual {@link Sequencer}, so consumers are ordinary {@link BatchEventProcessor}s:</p>
+ * <pre>
+ * DirectRingBuffer ring = DirectRingBuffer.createDirect(ProducerType.SINGLE, 1 &lt;&lt; 20, Quote.SIZE, new YieldingWaitStrategy());
+ * BatchEventProcessor&lt;Quote&gt; processor =
+ *         new BatchEventProcessor&lt;&gt;(ring.newReader(new Quote()), ring.newBarrier(), handler);
+ * ring.addGatingSequences(processor.getSequence());
+ *
+ * Quote quote = new Quote();                     // one per producer thread
+ * ring.publishEvent(quote, (q, sequence, price) -&gt; q.price(price), 101L);
+ * </pre>
+ *
+ * <p>The record size is rounded up to a multiple of 8 so that every long field stays aligned.  A mapped region
+ * starts on a page boundary, so records of 64 bytes (or a multiple of it) never straddle a cache line there.
+ * Direct memory is released when the ring buffer is garbage collected; a mapped file keeps the last records
+ * written but is not a journal, nothing records which of them were published.</p>
+ */
+public final class DirectRingBuffer implements Cursored, Sequenced {
+    private final Sequencer sequencer;
+    private final ByteBuffer buffer;
+    private final int bufferSize;
+    private final int recordSize;
+    private final int indexMask;
+
+    DirectRingBuffer(final Sequencer sequencer, final ByteBuffer buffer, final int recordSize) {
+        this.sequencer = sequencer;
+        this.buffer = buffer.order(ByteOrder.nativeOrder());
+        this.bufferSize = sequencer.getBufferSize();
+        this.recordSize = recordSize;
+        this.indexMask = bufferSize - 1;
+    }
+
+    /**
+     * Create a ring buffer in direct memory.
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of records, must be a power of 2.
+     * @param recordSize   size of one record in bytes, rounded up to a multiple of 8.
+     * @param waitStrategy used to determine how to wait for new records to become available.
+     * @throws IllegalArgumentException if bufferSize is not a power of 2 or the region would exceed 2GB.
+     */
+    public static DirectRingBuffer createDirect(ProducerType producerType,
+                                                int bufferSize,
+                                                int recordSize,
+                                                WaitStrategy waitStrategy) {
+        int alignedSize = alignedRecordSize(recordSize);
+        return new DirectRingBuffer(newSequencer(producerType, bufferSize, waitStrategy),
+                ByteBuffer.allocateDirect(regionSize(bufferSize, alignedSize)), alignedSize);
+    }
+
+    /**
+     * Create a ring buffer over a memory-mapped file, the file is created or extended as needed.
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param file         file backing the region.
+     * @param bufferSize   number of records, must be a power of 2.
+     * @param recordSize   size of one record in bytes, rounded up to a multiple of 8.
+     * @param waitStrategy used to determine how to wait for new records to become available.
+     * @throws IOException              if the file cannot be opened or mapped.
+     * @throws IllegalArgumentException if bufferSize is not a power of 2 or the region would exceed 2GB.
+     */
+    public static DirectRingBuffer createMapped(ProducerType producerType,
+                                                File file,
+                                                int bufferSize,
+                                                int recordSize,
+                                                WaitStrategy waitStrategy) throws IOException {
+        int alignedSize = alignedRecordSize(recordSize);
+        Sequencer sequencer = newSequencer(producerType, bufferSize, waitStrategy);
+        int regionSize = regionSize(bufferSize, alignedSize);
+        // the mapping stays valid after the channel is closed
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+            return new DirectRingBuffer(sequencer, mapped, alignedSize);
+        }
+    }
+
+    private static Sequencer newSequencer(ProducerType producerType, int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        switch (producerType) {
+            case SINGLE:
+                return new SingleProducerSequencer(bufferSize, waitStrategy);
+            case MULTI:
+                return new MultiProducerSequencer(bufferSize, waitStrategy);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
+    private static int alignedRecordSize(int recordSize) {
+        if (recordSize < 1) {
+            throw new IllegalArgumentException("recordSize must be positive but was " + recordSize);
+        }
+        return (recordSize + 7) & ~7;
+    }
+
+    private static int regionSize(int bufferSize, int recordSize) {
+        long size = (long) bufferSize * recordSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bufferSize * recordSize must not exceed 2GB but was " + size);
+        }
+        return (int) size;
+    }
+
+    /**
+     * Position a flyweight on the record for the given sequence, for use after {@link #next()} and before
+     * {@link #publish(long)}, or by a consumer after {@link SequenceBarrier#waitFor(long)}.
+     *
+     * @param flyweight to position, owned by the calling thread.
+     * @param sequence  of the record.
+     * @param <F>       the record layout.
+     * @return the flyweight.
+     */
+    public <F extends Flyweight> F wrap(final F flyweight, final long sequence) {
+        flyweight.wrap(buffer, ((int) sequence & indexMask) * recordSize, sequence);
+        return flyweight;
+    }
+
+    /**
+     * Create a {@link DataProvider} for one consumer.  Every {@link DataProvider#get(long)} repositions and returns
+     * the supplied flyweight, so a {@link BatchEventProcessor} built on it hands its handler the same instance for
+     * every record.
+     *
+     * @param flyweight used only by this consumer.
+     * @param <F>       the record layout.
+     * @return a data provider over this ring buffer.
+     */
+    public <F extends Flyweight> DataProvider<F> newReader(final F flyweight) {
+        return sequence -> wrap(flyweight, sequence);
+    }
+
+    /**
+     * Claim the next record, let the translator write it and publish it.
+     *
+     * @param flyweight  owned by the calling thread.
+     * @param translator writes the record through the flyweight.
+     * @param <F>        the record layout.
+     */
+    public <F extends Flyweight> void publishEvent(F flyweight, EventTranslator<F> translator) {
+        final long sequence = sequencer.next();
+        try {
+            translator.translateTo(wrap(flyweight, sequence), sequence);
+        } finally {
+            sequencer.publish(sequence);
+        }
+    }
+
+    /**
+     * Like {@link #publishEvent(Flyweight, EventTranslator)}, but does not wait when the ring is full.
+     *
+     * @return true if the record was published.
+     */
+    public <F extends Flyweight> boolean tryPublishEvent(F flyweight, EventTranslator<F> translator) {
+        try {
+            final long sequence = sequencer.tryNext();
+            try {
+                translator.translateTo(wrap(flyweight, sequence), sequence);
+            } finally {
+                sequencer.publish(sequence);
+            }
+            return true;
+        } catch (InsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @see #publishEvent(Flyweight, EventTranslator)
+     */
+    public <F extends Flyweight, A> void publishEvent(F flyweight, EventTranslatorOneArg<F, A> translator, A arg0) {
+        final long sequence = sequencer.next();
+        try {
+            translator.translateTo(wrap(flyweight, sequence), sequence, arg0);
+        } finally {
+            sequencer.publish(sequence);
+        }
+    }
+
+    /**
+     * @see #tryPublishEvent(Flyweight, EventTranslator)
+     */
+    public <F extends Flyweight, A> boolean tryPublishEvent(F flyweight, EventTranslatorOneArg<F, A> translator, A arg0) {
+        try {
+            final long sequence = sequencer.tryNext();
+            try {
+                translator.translateTo(wrap(flyweight, sequence), sequence, arg0);
+            } finally {
+                sequencer.publish(sequence);
+            }
+            return true;
+        } catch (InsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @see #publishEvent(Flyweight, EventTranslator)
+     */
+    public <F extends Flyweight, A, B> void publishEvent(F flyweight, EventTranslatorTwoArg<F, A, B> translator, A arg0, B arg1) {
+        final long sequence = sequencer.next();
+        try {
+            translator.translateTo(wrap(flyweight, sequence), sequence, arg0, arg1);
+        } finally {
+            sequencer.publish(sequence);
+        }
+    }
+
+    /**
+     * Add the specified gating sequences, the ring will not wrap past the slowest of them.
+     *
+     * @param gatingSequences The sequences to add.
+     */
+    public void addGatingSequences(Sequence... gatingSequences) {
+        sequencer.addGatingSequences(gatingSequences);
+    }
+
+    /**
+     * Remove the specified sequence from this ring buffer.
+     *
+     * @param sequence to be removed.
+     * @return <tt>true</tt> if this sequence was found, <tt>false</tt> otherwise.
+     */
+    public boolean removeGatingSequence(Sequence sequence) {
+        return sequencer.removeGatingSequence(sequence);
+    }
+
+    /**
+     * Get the minimum sequence value from all of the gating sequences.
+     *
+     * @return The minimum gating sequence or the cursor sequence if no sequences have been added.
+     */
+    public long getMinimumGatingSequence() {
+        return sequencer.getMinimumSequence();
+    }
+
+    /**
+     * Create a new SequenceBarrier to be used by an EventProcessor to track which records
+     * are available to be read given a list of sequences to track.
+     *
+     * @param sequencesToTrack the additional sequences to track
+     * @return A sequence barrier that will track the specified sequences.
+     */
+    public SequenceBarrier newBarrier(Sequence... sequencesToTrack) {
+        return sequencer.newBarrier(sequencesToTrack);
+    }
+
+    /**
+     * @return the size of one record in bytes, after alignment.
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    @Override
+    public long getCursor() {
+        return sequencer.getCursor();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public boolean hasAvailableCapacity(int requiredCapacity) {
+        return sequencer.hasAvailableCapacity(requiredCapacity);
+    }
+
+    @Override
+    public long remainingCapacity() {
+        return sequencer.remainingCapacity();
+    }
+
+    @Override
+    public long next() {
+        return sequencer.next();
+    }
+
+    @Override
+    public long next(int n) {
+        return sequencer.next(n);
+    }
+
+    @Override
+    public long tryNext() throws InsufficientCapacityException {
+        return sequencer.tryNext();
+    }
+
+    @Override
+    public long tryNext(int n) throws InsufficientCapacityException {
+        return sequencer.tryNext(n);
+    }
+
+    @Override
+    public void publish(long sequence) {
+        sequencer.publish(sequence);
+    }
+
+    @Override
+    public void publish(long lo, long hi) {
+        sequencer.publish(lo, hi);
+    }
+
+    @Override
+    public String toString() {
+        return "DirectRingBuffer{" +
+                "bufferSize=" + bufferSize +
+                ", recordSize=" + recordSize +
+                ", direct=" + buffer.isDirect() +
+                ", sequencer=" + sequencer +
+                '}';
+    }
+}
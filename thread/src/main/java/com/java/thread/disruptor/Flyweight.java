@@ -0,0 +1,113 @@
+package com.java.thread.disruptor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Accessor over one fixed-size record of a {@link DirectRingBuffer}.  Subclasses declare the record layout
+ * as field offsets and expose typed getters and setters on top of the protected primitive accessors, e.g.</p>
+ * <pre>
+ * public final class Quote extends Flyweight {
+ *     static final int PRICE = 0;
+ *     static final int QUANTITY = 8;
+ *     public static final int SIZE = 16;
+ *
+ *     public long price() { return getLong(PRICE); }
+ *     public void price(long price) { putLong(PRICE, price); }
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>A flyweight is repositioned on every access and is not thread safe: each producer thread and each
+ * consumer uses its own instance, and a handler must copy out any value it needs after
+ * {@link EventHandler#onEvent(Object, long, boolean)} returns.  Field offsets are relative to the start of the
+ * record and must stay below the record size the ring buffer was created with, nothing checks that a write
+ * stays inside its own record.</p>
+ *
+ * <p>All values use the native byte order.</p>
+ */
+public abstract class Flyweight {
+    private ByteBuffer buffer;
+    private int offset;
+    private long sequence;
+
+    final void wrap(final ByteBuffer buffer, final int offset, final long sequence) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return the sequence of the record this flyweight is currently positioned on.
+     */
+    public final long sequence() {
+        return sequence;
+    }
+
+    protected final byte getByte(final int field) {
+        return buffer.get(offset + field);
+    }
+
+    protected final void putByte(final int field, final byte value) {
+        buffer.put(offset + field, value);
+    }
+
+    protected final short getShort(final int field) {
+        return buffer.getShort(offset + field);
+    }
+
+    protected final void putShort(final int field, final short value) {
+        buffer.putShort(offset + field, value);
+    }
+
+    protected final int getInt(final int field) {
+        return buffer.getInt(offset + field);
+    }
+
+    protected final void putInt(final int field, final int value) {
+        buffer.putInt(offset + field, value);
+    }
+
+    protected final long getLong(final int field) {
+        return buffer.getLong(offset + field);
+    }
+
+    protected final void putLong(final int field, final long value) {
+        buffer.putLong(offset + field, value);
+    }
+
+    protected final double getDouble(final int field) {
+        return buffer.getDouble(offset + field);
+    }
+
+    protected final void putDouble(final int field, final double value) {
+        buffer.putDouble(offset + field, value);
+    }
+
+    /**
+     * Copy bytes out of the record.
+     *
+     * @param field  offset of the first byte within the record.
+     * @param dst    destination array.
+     * @param dstOff offset within the destination array.
+     * @param length number of bytes to copy.
+     */
+    protected final void getBytes(final int field, final byte[] dst, final int dstOff, final int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOff + i] = buffer.get(offset + field + i);
+        }
+    }
+
+    /**
+     * Copy bytes into the record.
+     *
+     * @param field  offset of the first byte within the record.
+     * @param src    source array.
+     * @param srcOff offset within the source array.
+     * @param length number of bytes to copy.
+     */
+    protected final void putBytes(final int field, final byte[] src, final int srcOff, final int length) {
+        for (int i = 0; i < length; i++) {
+            buffer.put(offset + field + i, src[srcOff + i]);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.java.thread.disruptor;
+
+/**
+ * A {@link WaitStrategy} that counts how its {@link EventProcessor}s wait.  All the bundled strategies implement
+ * it; a custom strategy that does not is simply reported without counters.
+ */
+public interface InstrumentedWaitStrategy extends WaitStrategy
+{
+    /**
+     * @return the counters shared by every processor waiting with this strategy.
+     */
+    WaitCounters getWaitCounters();
+}
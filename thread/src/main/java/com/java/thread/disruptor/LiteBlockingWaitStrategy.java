@@ -26,10 +26,11 @@ import java.util.concurrent.locks.ReentrantLock;
  * wait strategy should be considered experimental as I have not full proved the correctness of
  * the lock elision code.
  */
-public final class LiteBlockingWaitStrategy implements WaitStrategy
+public final class LiteBlockingWaitStrategy implements InstrumentedWaitStrategy
 {
     private final Lock lock = new ReentrantLock();
     private final Condition processorNotifyCondition = lock.newCondition();
+    private final WaitCounters waitCounters = new WaitCounters();
     private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
 
     @Override
@@ -37,35 +38,51 @@ public final class LiteBlockingWaitStrategy implements WaitStrategy
         throws AlertException, InterruptedException
     {
         long availableSequence;
-        if ((availableSequence = cursorSequence.get()) < sequence)
+        if ((availableSequence = dependentSequence.get()) >= sequence)
         {
-            lock.lock();
+            return availableSequence;
+        }
 
-            try
+        long spins = 0;
+        long parks = 0;
+        try
+        {
+            if ((availableSequence = cursorSequence.get()) < sequence)
             {
-                do
-                {
-                    signalNeeded.getAndSet(true);
+                lock.lock();
 
-                    if ((availableSequence = cursorSequence.get()) >= sequence)
+                try
+                {
+                    do
                     {
-                        break;
-                    }
+                        signalNeeded.getAndSet(true);
+
+                        if ((availableSequence = cursorSequence.get()) >= sequence)
+                        {
+                            break;
+                        }
 
-                    barrier.checkAlert();
-                    processorNotifyCondition.await();
+                        barrier.checkAlert();
+                        processorNotifyCondition.await();
+                        parks++;
+                    }
+                    while ((availableSequence = cursorSequence.get()) < sequence);
+                }
+                finally
+                {
+                    lock.unlock();
                 }
-                while ((availableSequence = cursorSequence.get()) < sequence);
             }
-            finally
+
+            while ((availableSequence = dependentSequence.get()) < sequence)
             {
-                lock.unlock();
+                barrier.checkAlert();
+                spins++;
             }
         }
-
-        while ((availableSequence = dependentSequence.get()) < sequence)
+        finally
         {
-            barrier.checkAlert();
+            waitCounters.record(spins, 0, parks);
         }
 
         return availableSequence;
@@ -87,4 +104,10 @@ public final class LiteBlockingWaitStrategy implements WaitStrategy
             }
         }
     }
+
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
 }
@@ -18,6 +18,7 @@ package com.java.thread.disruptor;
 import com.java.thread.disruptor.util.Util;
 import sun.misc.Unsafe;
 
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.locks.LockSupport;
 
 
@@ -28,17 +29,23 @@ import java.util.concurrent.locks.LockSupport;
  * <p> * <p>Note on {@link Sequencer#getCursor()}:  With this sequencer the cursor value is updated after the call
  * to {@link Sequencer#next()}, to determine the highest available sequence that can be read, then
  * {@link Sequencer#getHighestPublishedSequence(long, long)} should be used.
+ *
+ * <p>The availability flags live in an {@code int[]} written through {@code sun.misc.Unsafe}, or in an
+ * {@link AtomicIntegerArray} when {@link Util#MEMORY_ACCESS_PROPERTY} selects {@link Util#ATOMIC_ACCESS}.
+ * Both publish with an ordered (release) store and check with a volatile (acquire) load.
  */
 public final class MultiProducerSequencer extends AbstractSequencer {
-    private static final Unsafe UNSAFE = Util.getUnsafe();
-    private static final long BASE = UNSAFE.arrayBaseOffset(int[].class);
-    private static final long SCALE = UNSAFE.arrayIndexScale(int[].class);
+    private static final boolean USE_UNSAFE = Util.isUnsafeMemoryAccess();
+    private static final Unsafe UNSAFE = USE_UNSAFE ? Util.getUnsafe() : null;
+    private static final long BASE = USE_UNSAFE ? UNSAFE.arrayBaseOffset(int[].class) : 0;
+    private static final long SCALE = USE_UNSAFE ? UNSAFE.arrayIndexScale(int[].class) : 0;
 
     private final Sequence gatingSequenceCache = new Sequence(INITIAL_CURSOR_VALUE);
 
     // availableBuffer tracks the state of each ringbuffer slot
-    // see below for more details on the approach
+    // see below for more details on the approach, availableFlags replaces it in atomic mode
     private final int[] availableBuffer;
+    private final AtomicIntegerArray availableFlags;
     private final int indexMask;
     private final int indexShift;
 
@@ -50,7 +57,8 @@ public final class MultiProducerSequencer extends AbstractSequencer {
      */
     public MultiProducerSequencer(int bufferSize, final WaitStrategy waitStrategy) {
         super(bufferSize, waitStrategy);
-        availableBuffer = new int[bufferSize];
+        availableBuffer = USE_UNSAFE ? new int[bufferSize] : null;
+        availableFlags = USE_UNSAFE ? null : new AtomicIntegerArray(bufferSize);
         indexMask = bufferSize - 1;
         indexShift = Util.log2(bufferSize);
         initialiseAvailableBuffer();
@@ -107,6 +115,7 @@ public final class MultiProducerSequencer extends AbstractSequencer {
 
         long current;
         long next;
+        long parks = 0;
 
         do {
             current = cursor.get();
@@ -120,6 +129,7 @@ public final class MultiProducerSequencer extends AbstractSequencer {
 
                 if (wrapPoint > gatingSequence) {
                     LockSupport.parkNanos(1); // TODO, should we spin based on the wait strategy?
+                    parks++;
                     continue;
                 }
 
@@ -130,6 +140,10 @@ public final class MultiProducerSequencer extends AbstractSequencer {
         }
         while (true);
 
+        if (parks != 0) {
+            recordStall(parks);
+        }
+
         return next;
     }
 
@@ -177,7 +191,7 @@ public final class MultiProducerSequencer extends AbstractSequencer {
     }
 
     private void initialiseAvailableBuffer() {
-        for (int i = availableBuffer.length - 1; i != 0; i--) {
+        for (int i = bufferSize - 1; i != 0; i--) {
             setAvailableBufferValue(i, -1);
         }
 
@@ -228,8 +242,12 @@ public final class MultiProducerSequencer extends AbstractSequencer {
     }
 
     private void setAvailableBufferValue(int index, int flag) {
-        long bufferAddress = (index * SCALE) + BASE;
-        UNSAFE.putOrderedInt(availableBuffer, bufferAddress, flag);
+        if (USE_UNSAFE) {
+            long bufferAddress = (index * SCALE) + BASE;
+            UNSAFE.putOrderedInt(availableBuffer, bufferAddress, flag);
+        } else {
+            availableFlags.lazySet(index, flag);
+        }
     }
 
     /**
@@ -239,8 +257,11 @@ public final class MultiProducerSequencer extends AbstractSequencer {
     public boolean isAvailable(long sequence) {
         int index = calculateIndex(sequence);
         int flag = calculateAvailabilityFlag(sequence);
-        long bufferAddress = (index * SCALE) + BASE;
-        return UNSAFE.getIntVolatile(availableBuffer, bufferAddress) == flag;
+        if (USE_UNSAFE) {
+            long bufferAddress = (index * SCALE) + BASE;
+            return UNSAFE.getIntVolatile(availableBuffer, bufferAddress) == flag;
+        }
+        return availableFlags.get(index) == flag;
     }
 
     @Override
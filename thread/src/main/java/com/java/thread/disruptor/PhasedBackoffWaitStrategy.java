@@ -23,12 +23,13 @@ import java.util.concurrent.TimeUnit;
  * <p>This strategy can be used when throughput and low-latency are not as important as CPU resource.
  * Spins, then yields, then waits using the configured fallback WaitStrategy.</p>
  */
-public final class PhasedBackoffWaitStrategy implements WaitStrategy
+public final class PhasedBackoffWaitStrategy implements InstrumentedWaitStrategy
 {
     private static final int SPIN_TRIES = 10000;
     private final long spinTimeoutNanos;
     private final long yieldTimeoutNanos;
     private final WaitStrategy fallbackStrategy;
+    private final WaitCounters waitCounters = new WaitCounters();
 
     public PhasedBackoffWaitStrategy(long spinTimeout,
                                      long yieldTimeout,
@@ -78,38 +79,55 @@ public final class PhasedBackoffWaitStrategy implements WaitStrategy
         throws AlertException, InterruptedException, TimeoutException
     {
         long availableSequence;
+        if ((availableSequence = dependentSequence.get()) >= sequence)
+        {
+            return availableSequence;
+        }
+
         long startTime = 0;
         int counter = SPIN_TRIES;
+        long iterations = 0;
+        long yields = 0;
 
-        do
+        try
         {
-            if ((availableSequence = dependentSequence.get()) >= sequence)
-            {
-                return availableSequence;
-            }
-
-            if (0 == --counter)
+            do
             {
-                if (0 == startTime)
+                if ((availableSequence = dependentSequence.get()) >= sequence)
                 {
-                    startTime = System.nanoTime();
+                    return availableSequence;
                 }
-                else
+                iterations++;
+
+                if (0 == --counter)
                 {
-                    long timeDelta = System.nanoTime() - startTime;
-                    if (timeDelta > yieldTimeoutNanos)
+                    if (0 == startTime)
                     {
-                        return fallbackStrategy.waitFor(sequence, cursor, dependentSequence, barrier);
+                        startTime = System.nanoTime();
                     }
-                    else if (timeDelta > spinTimeoutNanos)
+                    else
                     {
-                        Thread.yield();
+                        long timeDelta = System.nanoTime() - startTime;
+                        if (timeDelta > yieldTimeoutNanos)
+                        {
+                            // the fallback strategy counts its own waiting
+                            return fallbackStrategy.waitFor(sequence, cursor, dependentSequence, barrier);
+                        }
+                        else if (timeDelta > spinTimeoutNanos)
+                        {
+                            Thread.yield();
+                            yields++;
+                        }
                     }
+                    counter = SPIN_TRIES;
                 }
-                counter = SPIN_TRIES;
             }
+            while (true);
+        }
+        finally
+        {
+            waitCounters.record(iterations - yields, yields, 0);
         }
-        while (true);
     }
 
     @Override
@@ -117,4 +135,13 @@ public final class PhasedBackoffWaitStrategy implements WaitStrategy
     {
         fallbackStrategy.signalAllWhenBlocking();
     }
+
+    /**
+     * @return the counters of the spin and yield phases, the fallback strategy keeps its own.
+     */
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
 }
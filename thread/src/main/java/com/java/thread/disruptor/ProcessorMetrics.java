@@ -0,0 +1,116 @@
+package com.java.thread.disruptor;
+
+import com.java.thread.disruptor.collections.Histogram;
+
+/**
+ * <p>Batch statistics of one {@link BatchEventProcessor}: how many events each batch held and how long the
+ * {@link EventHandler} took over the whole batch, both as {@link Histogram}s with power of 2 buckets, plus running
+ * totals.  Attach an instance with {@link BatchEventProcessor#setMetrics(ProcessorMetrics)} before the processor
+ * starts.</p>
+ *
+ * <p>Only the processor thread writes, with plain stores and two <code>System.nanoTime()</code> calls per batch, and
+ * publishes the batch count with an ordered store, so recording allocates nothing and shares no cache line with
+ * producers or other processors.  Reading from another thread is wait-free and returns copies; a copy taken while a
+ * batch is being recorded may miss part of that batch.</p>
+ */
+public final class ProcessorMetrics
+{
+    private static final long[] BATCH_SIZE_BOUNDS = powersOfTwo(0, 31);
+    private static final long[] BATCH_NANOS_BOUNDS = powersOfTwo(6, 40);
+
+    private final Histogram batchSizes = new Histogram(BATCH_SIZE_BOUNDS);
+    private final Histogram batchNanos = new Histogram(BATCH_NANOS_BOUNDS);
+    private final Sequence batches = new Sequence(0);
+    private long batchCount;
+    private long eventCount;
+    private long busyNanos;
+
+    private static long[] powersOfTwo(final int fromExponent, final int toExponent)
+    {
+        long[] bounds = new long[toExponent - fromExponent + 2];
+        for (int i = 0; i < bounds.length - 1; i++)
+        {
+            bounds[i] = 1L << (fromExponent + i);
+        }
+        // catch everything above the last power of 2
+        bounds[bounds.length - 1] = Long.MAX_VALUE;
+        return bounds;
+    }
+
+    void recordBatch(final long size, final long nanos)
+    {
+        batchSizes.addObservation(size);
+        batchNanos.addObservation(Math.max(nanos, 1L));
+        eventCount += size;
+        busyNanos += nanos;
+        batches.set(++batchCount);
+    }
+
+    /**
+     * @return the number of batches processed.
+     */
+    public long getBatchCount()
+    {
+        return batches.get();
+    }
+
+    /**
+     * @return the number of events processed.
+     */
+    public long getEventCount()
+    {
+        batches.get();
+        return eventCount;
+    }
+
+    /**
+     * @return the total time the handler spent processing batches, in nanoseconds.
+     */
+    public long getBusyNanos()
+    {
+        batches.get();
+        return busyNanos;
+    }
+
+    /**
+     * @return a copy of the histogram of batch sizes, in events.
+     */
+    public Histogram getBatchSizes()
+    {
+        return copy(batchSizes, BATCH_SIZE_BOUNDS);
+    }
+
+    /**
+     * @return a copy of the histogram of the time the handler spent on each batch, in nanoseconds.
+     */
+    public Histogram getBatchNanos()
+    {
+        return copy(batchNanos, BATCH_NANOS_BOUNDS);
+    }
+
+    private Histogram copy(final Histogram histogram, final long[] bounds)
+    {
+        final Histogram copy = new Histogram(bounds);
+        if (batches.get() != 0)
+        {
+            copy.addObservations(histogram);
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString()
+    {
+        final long batchCount = getBatchCount();
+        final long eventCount = getEventCount();
+        final long busyNanos = getBusyNanos();
+        return "ProcessorMetrics{" +
+            "batches=" + batchCount +
+            ", events=" + eventCount +
+            ", meanBatchSize=" + (batchCount == 0 ? 0 : eventCount / batchCount) +
+            ", meanEventNanos=" + (eventCount == 0 ? 0 : busyNanos / eventCount) +
+            ", batchSizes=" + getBatchSizes() +
+            ", batchNanos=" + getBatchNanos() +
+            '}';
+    }
+}
@@ -25,24 +25,37 @@ abstract class RingBufferPad {
     protected long p1, p2, p3, p4, p5, p6, p7;
 }
 
+/**
+ * Entries are padded on both sides against false sharing.  They are read with a plain load at a raw
+ * {@code sun.misc.Unsafe} offset, or with plain array indexing when {@link Util#MEMORY_ACCESS_PROPERTY}
+ * selects {@link Util#ATOMIC_ACCESS}; either way visibility comes from the sequence that guards the slot.
+ */
 abstract class RingBufferFields<E> extends RingBufferPad {
+    private static final boolean USE_UNSAFE = Util.isUnsafeMemoryAccess();
     private static final int BUFFER_PAD;
     private static final long REF_ARRAY_BASE;
     private static final int REF_ELEMENT_SHIFT;
-    private static final Unsafe UNSAFE = Util.getUnsafe();
+    private static final Unsafe UNSAFE = USE_UNSAFE ? Util.getUnsafe() : null;
 
     static {
-        final int scale = UNSAFE.arrayIndexScale(Object[].class);
-        if (4 == scale) {
-            REF_ELEMENT_SHIFT = 2;
-        } else if (8 == scale) {
-            REF_ELEMENT_SHIFT = 3;
+        if (USE_UNSAFE) {
+            final int scale = UNSAFE.arrayIndexScale(Object[].class);
+            if (4 == scale) {
+                REF_ELEMENT_SHIFT = 2;
+            } else if (8 == scale) {
+                REF_ELEMENT_SHIFT = 3;
+            } else {
+                throw new IllegalStateException("Unknown pointer size");
+            }
+            BUFFER_PAD = 128 / scale;
+            // Including the buffer pad in the array base offset
+            REF_ARRAY_BASE = UNSAFE.arrayBaseOffset(Object[].class) + (BUFFER_PAD << REF_ELEMENT_SHIFT);
         } else {
-            throw new IllegalStateException("Unknown pointer size");
+            // reference size is unknown without Unsafe, pad for compressed oops which covers 128 bytes either way
+            REF_ELEMENT_SHIFT = 0;
+            BUFFER_PAD = 128 / 4;
+            REF_ARRAY_BASE = 0;
         }
-        BUFFER_PAD = 128 / scale;
-        // Including the buffer pad in the array base offset
-        REF_ARRAY_BASE = UNSAFE.arrayBaseOffset(Object[].class) + (BUFFER_PAD << REF_ELEMENT_SHIFT);
     }
 
     private final long indexMask;
@@ -75,7 +88,10 @@ abstract class RingBufferFields<E> extends RingBufferPad {
 
     @SuppressWarnings("unchecked")
     protected final E elementAt(long sequence) {
-        return (E) UNSAFE.getObject(entries, REF_ARRAY_BASE + ((sequence & indexMask) << REF_ELEMENT_SHIFT));
+        if (USE_UNSAFE) {
+            return (E) UNSAFE.getObject(entries, REF_ARRAY_BASE + ((sequence & indexMask) << REF_ELEMENT_SHIFT));
+        }
+        return (E) entries[BUFFER_PAD + (int) (sequence & indexMask)];
     }
 }
 
@@ -332,6 +348,38 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return sequencer.getMinimumSequence();
     }
 
+    /**
+     * @see Sequencer#getProducerStallCount()
+     */
+    public long getProducerStallCount() {
+        return sequencer.getProducerStallCount();
+    }
+
+    /**
+     * @see Sequencer#getProducerParkCount()
+     */
+    public long getProducerParkCount() {
+        return sequencer.getProducerParkCount();
+    }
+
+    /**
+     * @see Sequencer#getWaitCounters()
+     */
+    public WaitCounters getWaitCounters() {
+        return sequencer.getWaitCounters();
+    }
+
+    /**
+     * Add a gating sequence at its current value, for a consumer that starts behind the cursor.
+     *
+     * @param sequence to add.
+     * @return true if added, false if events after the sequence may already have been overwritten.
+     * @see Sequencer#tryAddGatingSequence(Sequence)
+     */
+    public boolean tryAddGatingSequence(Sequence sequence) {
+        return sequencer.tryAddGatingSequence(sequence);
+    }
+
     /**
      * Remove the specified sequence from this ringBuffer.
      *
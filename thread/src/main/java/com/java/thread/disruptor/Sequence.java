@@ -17,6 +17,8 @@ package com.java.thread.disruptor;
 
 import sun.misc.Unsafe;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 import com.java.thread.disruptor.util.Util;
 
 
@@ -42,23 +44,39 @@ class RhsPadding extends Value
  *
  * <p>Also attempts to be more efficient with regards to false
  * sharing by adding padding around the volatile field.
+ *
+ * <p>Ordered writes and CAS go through {@code sun.misc.Unsafe} or, when
+ * {@link Util#MEMORY_ACCESS_PROPERTY} selects {@link Util#ATOMIC_ACCESS},
+ * through an {@link AtomicLongFieldUpdater} ({@code lazySet} is the release store).
  */
 public class Sequence extends RhsPadding
 {
     static final long INITIAL_VALUE = -1L;
+    private static final boolean USE_UNSAFE = Util.isUnsafeMemoryAccess();
     private static final Unsafe UNSAFE;
     private static final long VALUE_OFFSET;
+    private static final AtomicLongFieldUpdater<Value> VALUE_UPDATER;
 
     static
     {
-        UNSAFE = Util.getUnsafe();
-        try
+        if (USE_UNSAFE)
         {
-            VALUE_OFFSET = UNSAFE.objectFieldOffset(Value.class.getDeclaredField("value"));
+            UNSAFE = Util.getUnsafe();
+            try
+            {
+                VALUE_OFFSET = UNSAFE.objectFieldOffset(Value.class.getDeclaredField("value"));
+            }
+            catch (final Exception e)
+            {
+                throw new RuntimeException(e);
+            }
+            VALUE_UPDATER = null;
         }
-        catch (final Exception e)
+        else
         {
-            throw new RuntimeException(e);
+            UNSAFE = null;
+            VALUE_OFFSET = 0;
+            VALUE_UPDATER = AtomicLongFieldUpdater.newUpdater(Value.class, "value");
         }
     }
 
@@ -77,7 +95,15 @@ public class Sequence extends RhsPadding
      */
     public Sequence(final long initialValue)
     {
-        UNSAFE.putOrderedLong(this, VALUE_OFFSET, initialValue);
+        // not set(), subclasses override it
+        if (USE_UNSAFE)
+        {
+            UNSAFE.putOrderedLong(this, VALUE_OFFSET, initialValue);
+        }
+        else
+        {
+            VALUE_UPDATER.lazySet(this, initialValue);
+        }
     }
 
     /**
@@ -99,7 +125,14 @@ public class Sequence extends RhsPadding
      */
     public void set(final long value)
     {
-        UNSAFE.putOrderedLong(this, VALUE_OFFSET, value);
+        if (USE_UNSAFE)
+        {
+            UNSAFE.putOrderedLong(this, VALUE_OFFSET, value);
+        }
+        else
+        {
+            VALUE_UPDATER.lazySet(this, value);
+        }
     }
 
     /**
@@ -112,7 +145,14 @@ public class Sequence extends RhsPadding
      */
     public void setVolatile(final long value)
     {
-        UNSAFE.putLongVolatile(this, VALUE_OFFSET, value);
+        if (USE_UNSAFE)
+        {
+            UNSAFE.putLongVolatile(this, VALUE_OFFSET, value);
+        }
+        else
+        {
+            this.value = value;
+        }
     }
 
     /**
@@ -124,7 +164,11 @@ public class Sequence extends RhsPadding
      */
     public boolean compareAndSet(final long expectedValue, final long newValue)
     {
-        return UNSAFE.compareAndSwapLong(this, VALUE_OFFSET, expectedValue, newValue);
+        if (USE_UNSAFE)
+        {
+            return UNSAFE.compareAndSwapLong(this, VALUE_OFFSET, expectedValue, newValue);
+        }
+        return VALUE_UPDATER.compareAndSet(this, expectedValue, newValue);
     }
 
     /**
@@ -47,6 +47,21 @@ public interface Sequencer extends Cursored, Sequenced
      */
     void addGatingSequences(Sequence... gatingSequences);
 
+    /**
+     * Add a gating sequence at its current value, where {@link #addGatingSequences(Sequence...)} moves the
+     * sequences to the cursor.  Used to start a consumer behind the cursor or to make an already running
+     * consumer gate the producers.
+     *
+     * <p>Producers that claimed slots before the sequence was added did not see it, so it is only kept if the
+     * gating sequences already present guarantee that no slot after its value has been claimed for overwriting,
+     * i.e. if one of them is at or behind it.  With no gating sequences, the value must not be behind the
+     * cursor.</p>
+     *
+     * @param sequence to add, not moved by this method.
+     * @return true if the sequence was added, false if the ring may already have wrapped past its value.
+     */
+    boolean tryAddGatingSequence(Sequence sequence);
+
     /**
      * Remove the specified sequence from this sequencer.
      *
@@ -74,6 +89,38 @@ public interface Sequencer extends Cursored, Sequenced
      */
     long getMinimumSequence();
 
+    /**
+     * Get the number of claims made with {@link #next()} or {@link #next(int)} that found the ring full and had to
+     * wait for the slowest gating sequence.
+     *
+     * @return the number of producer stalls so far, 0 for a sequencer that does not count them.
+     */
+    default long getProducerStallCount()
+    {
+        return 0;
+    }
+
+    /**
+     * Get the number of times producers parked while stalled.
+     *
+     * @return the number of producer parks so far, 0 for a sequencer that does not count them.
+     */
+    default long getProducerParkCount()
+    {
+        return 0;
+    }
+
+    /**
+     * Get the counters of the wait strategy used by the barriers of this sequencer.
+     *
+     * @return the counters, or {@link WaitCounters#NONE} if the wait strategy is not an
+     * {@link InstrumentedWaitStrategy}.
+     */
+    default WaitCounters getWaitCounters()
+    {
+        return WaitCounters.NONE;
+    }
+
     /**
      * Get the highest sequence number that can be safely read from the ring buffer.  Depending
      * on the implementation of the Sequencer this call may need to scan a number of values
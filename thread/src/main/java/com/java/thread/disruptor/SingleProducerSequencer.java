@@ -117,9 +117,15 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
         if (wrapPoint > cachedGatingSequence || cachedGatingSequence > nextValue)
         {
             long minSequence;
+            long parks = 0;
             while (wrapPoint > (minSequence = Util.getMinimumSequence(gatingSequences, nextValue)))
             {
                 LockSupport.parkNanos(1L); // TODO: Use waitStrategy to spin?
+                parks++;
+            }
+            if (parks != 0)
+            {
+                recordStall(parks);
             }
 
             this.cachedValue = minSequence;
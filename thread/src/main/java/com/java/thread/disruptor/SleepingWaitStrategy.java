@@ -26,11 +26,13 @@ import java.util.concurrent.locks.LockSupport;
  * This strategy is a good compromise between performance and CPU resource.
  * Latency spikes can occur after quiet periods.
  */
-public final class SleepingWaitStrategy implements WaitStrategy
+public final class SleepingWaitStrategy implements InstrumentedWaitStrategy
 {
     private static final int DEFAULT_RETRIES = 200;
+    private static final int YIELD_RETRIES = 100;
 
     private final int retries;
+    private final WaitCounters waitCounters = new WaitCounters();
 
     public SleepingWaitStrategy()
     {
@@ -47,11 +49,28 @@ public final class SleepingWaitStrategy implements WaitStrategy
         throws AlertException, InterruptedException
     {
         long availableSequence;
-        int counter = retries;
+        if ((availableSequence = dependentSequence.get()) >= sequence)
+        {
+            return availableSequence;
+        }
 
-        while ((availableSequence = dependentSequence.get()) < sequence)
+        int counter = retries;
+        long iterations = 0;
+        try
+        {
+            do
+            {
+                counter = applyWaitMethod(barrier, counter);
+                iterations++;
+            }
+            while ((availableSequence = dependentSequence.get()) < sequence);
+        }
+        finally
         {
-            counter = applyWaitMethod(barrier, counter);
+            // spin while the counter is above YIELD_RETRIES, yield until it reaches 0, park from then on
+            final long spins = Math.min(iterations, Math.max(retries - YIELD_RETRIES, 0));
+            final long yields = Math.min(iterations - spins, Math.min(retries, YIELD_RETRIES));
+            waitCounters.record(spins, yields, iterations - spins - yields);
         }
 
         return availableSequence;
@@ -62,12 +81,18 @@ public final class SleepingWaitStrategy implements WaitStrategy
     {
     }
 
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
+
     private int applyWaitMethod(final SequenceBarrier barrier, int counter)
         throws AlertException
     {
         barrier.checkAlert();
 
-        if (counter > 100)
+        if (counter > YIELD_RETRIES)
         {
             --counter;
         }
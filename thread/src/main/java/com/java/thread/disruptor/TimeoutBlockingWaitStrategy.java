@@ -5,10 +5,11 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-public class TimeoutBlockingWaitStrategy implements WaitStrategy
+public class TimeoutBlockingWaitStrategy implements InstrumentedWaitStrategy
 {
     private final Lock lock = new ReentrantLock();
     private final Condition processorNotifyCondition = lock.newCondition();
+    private final WaitCounters waitCounters = new WaitCounters();
     private final long timeoutInNanos;
 
     public TimeoutBlockingWaitStrategy(final long timeout, final TimeUnit units)
@@ -26,30 +27,46 @@ public class TimeoutBlockingWaitStrategy implements WaitStrategy
         long nanos = timeoutInNanos;
 
         long availableSequence;
-        if ((availableSequence = cursorSequence.get()) < sequence)
+        if ((availableSequence = dependentSequence.get()) >= sequence)
         {
-            lock.lock();
-            try
+            return availableSequence;
+        }
+
+        long spins = 0;
+        long parks = 0;
+        try
+        {
+            if ((availableSequence = cursorSequence.get()) < sequence)
             {
-                while ((availableSequence = cursorSequence.get()) < sequence)
+                lock.lock();
+                try
                 {
-                    barrier.checkAlert();
-                    nanos = processorNotifyCondition.awaitNanos(nanos);
-                    if (nanos <= 0)
+                    while ((availableSequence = cursorSequence.get()) < sequence)
                     {
-                        throw TimeoutException.INSTANCE;
+                        barrier.checkAlert();
+                        nanos = processorNotifyCondition.awaitNanos(nanos);
+                        parks++;
+                        if (nanos <= 0)
+                        {
+                            throw TimeoutException.INSTANCE;
+                        }
                     }
                 }
+                finally
+                {
+                    lock.unlock();
+                }
             }
-            finally
+
+            while ((availableSequence = dependentSequence.get()) < sequence)
             {
-                lock.unlock();
+                barrier.checkAlert();
+                spins++;
             }
         }
-
-        while ((availableSequence = dependentSequence.get()) < sequence)
+        finally
         {
-            barrier.checkAlert();
+            waitCounters.record(spins, 0, parks);
         }
 
         return availableSequence;
@@ -69,4 +86,9 @@ public class TimeoutBlockingWaitStrategy implements WaitStrategy
         }
     }
 
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
 }
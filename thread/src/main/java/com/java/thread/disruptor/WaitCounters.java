@@ -0,0 +1,87 @@
+package com.java.thread.disruptor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Counts how the {@link EventProcessor}s sharing a wait strategy have waited: how many calls to
+ * {@link WaitStrategy#waitFor(long, Sequence, Sequence, SequenceBarrier)} had to wait at all, and how many times
+ * they re-checked the sequence in a busy loop (spins), gave up the CPU with <code>Thread.yield()</code> (yields) or
+ * were descheduled by a park or a condition wait (parks).</p>
+ *
+ * <p>A strategy keeps the counts of one wait in local variables and adds them here once, when the wait ends, so a
+ * processor that finds its sequence already available pays nothing and one that waits pays a few striped
+ * {@link LongAdder} updates per wait rather than per loop iteration.  The counts only ever grow, sample them
+ * periodically and take differences to get rates.</p>
+ */
+public final class WaitCounters
+{
+    /**
+     * Counters of a wait strategy that does not count, always 0.
+     */
+    public static final WaitCounters NONE = new WaitCounters();
+
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder spins = new LongAdder();
+    private final LongAdder yields = new LongAdder();
+    private final LongAdder parks = new LongAdder();
+
+    void record(final long spinCount, final long yieldCount, final long parkCount)
+    {
+        waits.increment();
+        if (spinCount != 0)
+        {
+            spins.add(spinCount);
+        }
+        if (yieldCount != 0)
+        {
+            yields.add(yieldCount);
+        }
+        if (parkCount != 0)
+        {
+            parks.add(parkCount);
+        }
+    }
+
+    /**
+     * @return the number of waits, calls that did not find the sequence available straight away.
+     */
+    public long getWaitCount()
+    {
+        return waits.sum();
+    }
+
+    /**
+     * @return the number of busy re-checks of the sequence.
+     */
+    public long getSpinCount()
+    {
+        return spins.sum();
+    }
+
+    /**
+     * @return the number of <code>Thread.yield()</code> calls.
+     */
+    public long getYieldCount()
+    {
+        return yields.sum();
+    }
+
+    /**
+     * @return the number of parks and condition waits.
+     */
+    public long getParkCount()
+    {
+        return parks.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WaitCounters{" +
+            "waits=" + getWaitCount() +
+            ", spins=" + getSpinCount() +
+            ", yields=" + getYieldCount() +
+            ", parks=" + getParkCount() +
+            '}';
+    }
+}
@@ -22,25 +22,49 @@ package com.java.thread.disruptor;
  *
  * This strategy is a good compromise between performance and CPU resource without incurring significant latency spikes.
  */
-public final class YieldingWaitStrategy implements WaitStrategy
+public final class YieldingWaitStrategy implements InstrumentedWaitStrategy
 {
     private static final int SPIN_TRIES = 100;
 
+    private final WaitCounters waitCounters = new WaitCounters();
+
     @Override
     public long waitFor(final long sequence, Sequence cursor, final Sequence dependentSequence, final SequenceBarrier barrier)
         throws AlertException, InterruptedException
     {
         long availableSequence;
-        int counter = SPIN_TRIES;
+        if ((availableSequence = dependentSequence.get()) >= sequence)
+        {
+            return availableSequence;
+        }
 
-        while ((availableSequence = dependentSequence.get()) < sequence)
+        int counter = SPIN_TRIES;
+        long iterations = 0;
+        try
         {
-            counter = applyWaitMethod(barrier, counter);
+            do
+            {
+                counter = applyWaitMethod(barrier, counter);
+                iterations++;
+            }
+            while ((availableSequence = dependentSequence.get()) < sequence);
+        }
+        finally
+        {
+            // the first SPIN_TRIES iterations spin, every later one yields
+            final long spins = Math.min(iterations, SPIN_TRIES);
+            waitCounters.record(spins, iterations - spins, 0);
         }
 
         return availableSequence;
     }
 
+    @Override
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
+
     @Override
     public void signalAllWhenBlocking()
     {
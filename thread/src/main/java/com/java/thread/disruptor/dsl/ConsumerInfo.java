@@ -19,5 +19,7 @@ interface ConsumerInfo
 
     void markAsUsedInBarrier();
 
+    void markAsUnusedInBarrier();
+
     boolean isRunning();
 }
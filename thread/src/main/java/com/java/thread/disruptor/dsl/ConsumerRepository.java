@@ -18,9 +18,13 @@ package com.java.thread.disruptor.dsl;
 import com.java.thread.disruptor.*;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Provides a repository mechanism to associate {@link EventHandler}s with {@link EventProcessor}s
+ * <p>Provides a repository mechanism to associate {@link EventHandler}s with {@link EventProcessor}s</p>
+ *
+ * <p>Consumers can be added and removed while the disruptor runs, so lookups are synchronized and iteration works
+ * on a snapshot.</p>
  *
  * @param <T> the type of the {@link EventHandler}
  */
@@ -28,26 +32,55 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
 {
     private final Map<EventHandler<?>, EventProcessorInfo<T>> eventProcessorInfoByEventHandler = new IdentityHashMap<EventHandler<?>, EventProcessorInfo<T>>();
     private final Map<Sequence, ConsumerInfo> eventProcessorInfoBySequence = new IdentityHashMap<Sequence, ConsumerInfo>();
-    private final Collection<ConsumerInfo> consumerInfos = new ArrayList<ConsumerInfo>();
+    private final Collection<ConsumerInfo> consumerInfos = new CopyOnWriteArrayList<ConsumerInfo>();
 
-    public void add(final EventProcessor eventprocessor,
-                    final EventHandler<? super T> handler,
-                    final SequenceBarrier barrier)
+    public synchronized void add(final EventProcessor eventprocessor,
+                                 final EventHandler<? super T> handler,
+                                 final SequenceBarrier barrier,
+                                 final Sequence[] barrierSequences)
     {
-        final EventProcessorInfo<T> consumerInfo = new EventProcessorInfo<T>(eventprocessor, handler, barrier);
+        final EventProcessorInfo<T> consumerInfo = new EventProcessorInfo<T>(eventprocessor, handler, barrier, barrierSequences);
         eventProcessorInfoByEventHandler.put(handler, consumerInfo);
         eventProcessorInfoBySequence.put(eventprocessor.getSequence(), consumerInfo);
         consumerInfos.add(consumerInfo);
+        unMarkEventProcessorsAsEndOfChain(barrierSequences);
+    }
+
+    /**
+     * Forget the stage of a handler and release the consumers it waited for.
+     *
+     * @return the stages that no longer have any consumer waiting for them.
+     */
+    public synchronized List<ConsumerInfo> remove(final EventProcessorInfo<T> consumerInfo)
+    {
+        eventProcessorInfoByEventHandler.remove(consumerInfo.getHandler());
+        eventProcessorInfoBySequence.remove(consumerInfo.getEventProcessor().getSequence());
+        consumerInfos.remove(consumerInfo);
+
+        final List<ConsumerInfo> endOfChain = new ArrayList<ConsumerInfo>();
+        for (Sequence barrierSequence : consumerInfo.getBarrierSequences())
+        {
+            final ConsumerInfo barrierInfo = getEventProcessorInfo(barrierSequence);
+            if (barrierInfo != null)
+            {
+                barrierInfo.markAsUnusedInBarrier();
+                if (barrierInfo.isEndOfChain() && !endOfChain.contains(barrierInfo))
+                {
+                    endOfChain.add(barrierInfo);
+                }
+            }
+        }
+        return endOfChain;
     }
 
-    public void add(final EventProcessor processor)
+    public synchronized void add(final EventProcessor processor)
     {
         final EventProcessorInfo<T> consumerInfo = new EventProcessorInfo<T>(processor, null, null);
         eventProcessorInfoBySequence.put(processor.getSequence(), consumerInfo);
         consumerInfos.add(consumerInfo);
     }
 
-    public void add(final WorkerPool<T> workerPool, final SequenceBarrier sequenceBarrier)
+    public synchronized void add(final WorkerPool<T> workerPool, final SequenceBarrier sequenceBarrier)
     {
         final WorkerPoolInfo<T> workerPoolInfo = new WorkerPoolInfo<T>(workerPool, sequenceBarrier);
         consumerInfos.add(workerPoolInfo);
@@ -57,7 +90,7 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
         }
     }
 
-    public Sequence[] getLastSequenceInChain(boolean includeStopped)
+    public synchronized Sequence[] getLastSequenceInChain(boolean includeStopped)
     {
         List<Sequence> lastSequence = new ArrayList<Sequence>();
         for (ConsumerInfo consumerInfo : consumerInfos)
@@ -72,7 +105,7 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
         return lastSequence.toArray(new Sequence[lastSequence.size()]);
     }
 
-    public EventProcessor getEventProcessorFor(final EventHandler<T> handler)
+    public synchronized EventProcessor getEventProcessorFor(final EventHandler<T> handler)
     {
         final EventProcessorInfo<T> eventprocessorInfo = getEventProcessorInfo(handler);
         if (eventprocessorInfo == null)
@@ -88,7 +121,7 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
         return getEventProcessorFor(handler).getSequence();
     }
 
-    public void unMarkEventProcessorsAsEndOfChain(final Sequence... barrierEventProcessors)
+    public synchronized void unMarkEventProcessorsAsEndOfChain(final Sequence... barrierEventProcessors)
     {
         for (Sequence barrierEventProcessor : barrierEventProcessors)
         {
@@ -102,13 +135,13 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
         return consumerInfos.iterator();
     }
 
-    public SequenceBarrier getBarrierFor(final EventHandler<T> handler)
+    public synchronized SequenceBarrier getBarrierFor(final EventHandler<T> handler)
     {
         final ConsumerInfo consumerInfo = getEventProcessorInfo(handler);
         return consumerInfo != null ? consumerInfo.getBarrier() : null;
     }
 
-    private EventProcessorInfo<T> getEventProcessorInfo(final EventHandler<T> handler)
+    synchronized EventProcessorInfo<T> getEventProcessorInfo(final EventHandler<?> handler)
     {
         return eventProcessorInfoByEventHandler.get(handler);
     }
@@ -45,11 +45,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class Disruptor<T>
 {
+    /** start sequence that makes {@link #attachEventProcessor} start at the cursor */
+    static final long ATTACH_AT_CURSOR = Long.MIN_VALUE;
+
+    /** how long an attached processor may wait for a thread of the executor before the attach is undone */
+    private static final long ATTACH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
     private final RingBuffer<T> ringBuffer;
     private final Executor executor;
     private final ConsumerRepository<T> consumerRepository = new ConsumerRepository<T>();
     private final AtomicBoolean started = new AtomicBoolean(false);
     private ExceptionHandler<? super T> exceptionHandler;
+    private boolean recordProcessorMetrics;
 
     /**
      * Create a new Disruptor. Will default to {@link BlockingWaitStrategy} and
@@ -169,6 +176,97 @@ public class Disruptor<T>
         return createWorkerPool(new Sequence[0], workHandlers);
     }
 
+    /**
+     * <p>Add an event handler to the running disruptor.  It processes every event published after this call,
+     * in parallel with the existing handlers, and gates the producers from then on.  The other processors keep
+     * running.</p>
+     *
+     * <p>To attach a handler that must see events only after other handlers have processed them, use
+     * <code>disruptor.after(A).attachHandler(B)</code>.</p>
+     *
+     * @param handler the event handler, which must not already be processing events.
+     * @return a {@link EventHandlerGroup} that can be used to attach further handlers after this one.
+     * @throws IllegalStateException if the disruptor has not been started, or the executor did not run the
+     *                               processor within 5 seconds, e.g. because it is a bounded pool with no free
+     *                               thread; the handler is not attached then.
+     */
+    public EventHandlerGroup<T> attachHandler(final EventHandler<? super T> handler)
+    {
+        return attachEventProcessor(new Sequence[0], ATTACH_AT_CURSOR, handler);
+    }
+
+    /**
+     * Add an event handler to the running disruptor, starting at an earlier sequence that is still in the ring
+     * buffer.  This is only possible while an existing handler that gates the producers has not yet processed the
+     * start sequence; otherwise the event may already have been overwritten.
+     *
+     * @param startSequence the first sequence the handler processes, at most one past the cursor.
+     * @param handler       the event handler, which must not already be processing events.
+     * @return a {@link EventHandlerGroup} that can be used to attach further handlers after this one.
+     * @throws IllegalArgumentException if the events from startSequence can no longer be guaranteed.
+     * @throws IllegalStateException    if the disruptor has not been started or the executor did not run the
+     *                                  processor in time.
+     * @see #attachHandler(EventHandler)
+     */
+    public EventHandlerGroup<T> attachHandler(final long startSequence, final EventHandler<? super T> handler)
+    {
+        return attachEventProcessor(new Sequence[0], startSequence, handler);
+    }
+
+    /**
+     * <p>Remove an event handler from the running disruptor.  The handler first processes the events published
+     * before this call, then its processor is halted and, once its thread has left
+     * {@link LifecycleAware#onShutdown()}, it stops gating the producers.  The other processors keep running.</p>
+     *
+     * <p>Handlers that this one waited for become the end of the chain again and gate the producers in its
+     * place.  It is critical that the handler keeps up, otherwise this method may never return.</p>
+     *
+     * @param handler a handler set up with {@link #handleEventsWith(EventHandler[])} or
+     *                {@link #attachHandler(EventHandler)}.
+     * @throws IllegalArgumentException if the handler is not processing events.
+     * @throws IllegalStateException    if other handlers wait for this one.
+     */
+    public synchronized void detachHandler(final EventHandler<? super T> handler)
+    {
+        final EventProcessorInfo<T> consumerInfo = consumerRepository.getEventProcessorInfo(handler);
+        if (consumerInfo == null)
+        {
+            throw new IllegalArgumentException("The event handler " + handler + " is not processing events.");
+        }
+        if (!consumerInfo.isEndOfChain())
+        {
+            throw new IllegalStateException("Other event handlers wait for " + handler + ", detach them first.");
+        }
+
+        final EventProcessor processor = consumerInfo.getEventProcessor();
+        final Sequence sequence = processor.getSequence();
+        final long cursor = ringBuffer.getCursor();
+        while (processor.isRunning() && sequence.get() < cursor)
+        {
+            Thread.yield();
+        }
+        processor.halt();
+        while (processor.isRunning())
+        {
+            Thread.yield();
+        }
+
+        // the halted processor is behind the handlers it waited for and keeps gating until they do; they may
+        // already gate, removing them first keeps the gating sequences free of duplicates
+        for (final ConsumerInfo released : consumerRepository.remove(consumerInfo))
+        {
+            for (final Sequence releasedSequence : released.getSequences())
+            {
+                ringBuffer.removeGatingSequence(releasedSequence);
+                if (!ringBuffer.tryAddGatingSequence(releasedSequence))
+                {
+                    throw new IllegalStateException("Unable to gate on " + released + " after detaching " + handler);
+                }
+            }
+        }
+        ringBuffer.removeGatingSequence(sequence);
+    }
+
     /**
      * <p>Specify an exception handler to be used for any future event handlers.</p>
      *
@@ -181,6 +279,19 @@ public class Disruptor<T>
         this.exceptionHandler = exceptionHandler;
     }
 
+    /**
+     * <p>Record batch sizes and handler time in the {@link BatchEventProcessor}s created for any future event
+     * handlers, they are reported by {@link #getStats()}.</p>
+     *
+     * <p>Note that only event handlers set up after calling this method record metrics.</p>
+     *
+     * @see ProcessorMetrics
+     */
+    public void recordProcessorMetrics()
+    {
+        this.recordProcessorMetrics = true;
+    }
+
     /**
      * Override the default exception handler for a specific handler.
      * <pre>disruptorWizard.handleExceptionsIn(eventHandler).with(exceptionHandler);</pre>
@@ -355,6 +466,17 @@ public class Disruptor<T>
         return ringBuffer;
     }
 
+    /**
+     * Sample the cursor, the progress of every consumer and the producer and wait strategy counters.  Cheap enough
+     * to call periodically from a monitoring thread.
+     *
+     * @return a new sample.
+     */
+    public DisruptorStats getStats()
+    {
+        return new DisruptorStats(ringBuffer, consumerRepository);
+    }
+
     /**
      * Get the value of the cursor indicating the published sequence.
      *
@@ -434,17 +556,110 @@ public class Disruptor<T>
             {
                 batchEventProcessor.setExceptionHandler(exceptionHandler);
             }
+            if (recordProcessorMetrics)
+            {
+                batchEventProcessor.setMetrics(new ProcessorMetrics());
+            }
 
-            consumerRepository.add(batchEventProcessor, eventHandler, barrier);
+            consumerRepository.add(batchEventProcessor, eventHandler, barrier, barrierSequences);
             processorSequences[i] = batchEventProcessor.getSequence();
         }
 
-        if (processorSequences.length > 0)
+        return new EventHandlerGroup<T>(this, consumerRepository, processorSequences);
+    }
+
+    synchronized EventHandlerGroup<T> attachEventProcessor(final Sequence[] barrierSequences,
+                                                           final long startSequence,
+                                                           final EventHandler<? super T> eventHandler)
+    {
+        if (!started.get())
+        {
+            throw new IllegalStateException("Handlers can only be attached to a started disruptor, use handleEventsWith before start().");
+        }
+        if (consumerRepository.getEventProcessorInfo(eventHandler) != null)
         {
-            consumerRepository.unMarkEventProcessorsAsEndOfChain(barrierSequences);
+            throw new IllegalArgumentException("The event handler " + eventHandler + " is already processing events.");
         }
 
-        return new EventHandlerGroup<T>(this, consumerRepository, processorSequences);
+        final SequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+        final BatchEventProcessor<T> batchEventProcessor = new BatchEventProcessor<T>(ringBuffer, barrier, eventHandler);
+        if (exceptionHandler != null)
+        {
+            batchEventProcessor.setExceptionHandler(exceptionHandler);
+        }
+        if (recordProcessorMetrics)
+        {
+            batchEventProcessor.setMetrics(new ProcessorMetrics());
+        }
+
+        final Sequence sequence = batchEventProcessor.getSequence();
+        if (startSequence == ATTACH_AT_CURSOR)
+        {
+            ringBuffer.addGatingSequences(sequence);
+        }
+        else
+        {
+            if (startSequence > ringBuffer.getCursor() + 1)
+            {
+                throw new IllegalArgumentException("startSequence " + startSequence + " is ahead of the cursor " + ringBuffer.getCursor());
+            }
+            sequence.set(startSequence - 1);
+            if (!ringBuffer.tryAddGatingSequence(sequence))
+            {
+                throw new IllegalArgumentException("Events from " + startSequence + " may already have been overwritten.");
+            }
+        }
+
+        consumerRepository.add(batchEventProcessor, eventHandler, barrier, barrierSequences);
+        // the first of this method and the executor thread to claim the processor decides whether it runs, so a
+        // processor given up on below cannot start later without gating the producers
+        final AtomicBoolean claimed = new AtomicBoolean(false);
+        try
+        {
+            executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    if (claimed.compareAndSet(false, true))
+                    {
+                        batchEventProcessor.run();
+                    }
+                }
+            });
+        }
+        catch (final RuntimeException e)
+        {
+            claimed.set(true);
+            undoAttach(batchEventProcessor, eventHandler);
+            throw e;
+        }
+
+        // a halt() that comes before run() would be lost, so only return once the processor runs
+        final long deadline = System.nanoTime() + ATTACH_TIMEOUT_NANOS;
+        while (!batchEventProcessor.isRunning())
+        {
+            if (System.nanoTime() - deadline >= 0 && claimed.compareAndSet(false, true))
+            {
+                undoAttach(batchEventProcessor, eventHandler);
+                throw new IllegalStateException("The executor did not run the event processor for " + eventHandler +
+                    " within " + TimeUnit.NANOSECONDS.toMillis(ATTACH_TIMEOUT_NANOS) + " ms, the handler was not attached.");
+            }
+            Thread.yield();
+        }
+
+        return new EventHandlerGroup<T>(this, consumerRepository, new Sequence[] { sequence });
+    }
+
+    /**
+     * Take back a processor that never ran: it stops gating the producers and the handlers it would have waited
+     * for become the end of the chain again.  They still gate, attaching does not remove their sequences.
+     */
+    private void undoAttach(final BatchEventProcessor<T> batchEventProcessor, final EventHandler<? super T> eventHandler)
+    {
+        batchEventProcessor.halt();
+        ringBuffer.removeGatingSequence(batchEventProcessor.getSequence());
+        consumerRepository.remove(consumerRepository.getEventProcessorInfo(eventHandler));
     }
 
     EventHandlerGroup<T> createEventProcessors(final Sequence[] barrierSequences, final EventProcessorFactory<T>[] processorFactories)
@@ -0,0 +1,205 @@
+package com.java.thread.disruptor.dsl;
+
+import com.java.thread.disruptor.BatchEventProcessor;
+import com.java.thread.disruptor.EventProcessor;
+import com.java.thread.disruptor.ProcessorMetrics;
+import com.java.thread.disruptor.RingBuffer;
+import com.java.thread.disruptor.Sequence;
+import com.java.thread.disruptor.WaitCounters;
+import com.java.thread.disruptor.util.Util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Point in time sample of a {@link Disruptor}, taken by {@link Disruptor#getStats()}: the cursor, the sequence
+ * and backlog of every consumer, how often producers stalled on a full ring and how the consumers waited.</p>
+ *
+ * <p>Sampling only reads sequences and counters the processors and producers already maintain, it can be done as
+ * often as needed from a monitoring thread without slowing the ring down.  Counters only ever grow, compare two
+ * samples to get rates.</p>
+ */
+public final class DisruptorStats
+{
+    private final long cursor;
+    private final int bufferSize;
+    private final long producerStallCount;
+    private final long producerParkCount;
+    private final WaitCounters waitCounters;
+    private final List<ConsumerStats> consumers;
+
+    DisruptorStats(final RingBuffer<?> ringBuffer, final Iterable<ConsumerInfo> consumerInfos)
+    {
+        final List<ConsumerStats> consumers = new ArrayList<ConsumerStats>();
+        for (final ConsumerInfo consumerInfo : consumerInfos)
+        {
+            consumers.add(new ConsumerStats(consumerInfo));
+        }
+        // read after the consumer sequences so that no backlog is negative
+        this.cursor = ringBuffer.getCursor();
+        for (final ConsumerStats consumer : consumers)
+        {
+            consumer.backlog = cursor - consumer.sequence;
+        }
+        this.bufferSize = ringBuffer.getBufferSize();
+        this.producerStallCount = ringBuffer.getProducerStallCount();
+        this.producerParkCount = ringBuffer.getProducerParkCount();
+        this.waitCounters = ringBuffer.getWaitCounters();
+        this.consumers = Collections.unmodifiableList(consumers);
+    }
+
+    /**
+     * @return the ring buffer cursor, the highest sequence claimed by a producer.
+     */
+    public long getCursor()
+    {
+        return cursor;
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of claims that found the ring full.
+     * @see com.java.thread.disruptor.Sequencer#getProducerStallCount()
+     */
+    public long getProducerStallCount()
+    {
+        return producerStallCount;
+    }
+
+    /**
+     * @return the number of times producers parked while stalled.
+     */
+    public long getProducerParkCount()
+    {
+        return producerParkCount;
+    }
+
+    /**
+     * @return the live counters of the wait strategy, {@link WaitCounters#NONE} if it does not count.
+     */
+    public WaitCounters getWaitCounters()
+    {
+        return waitCounters;
+    }
+
+    /**
+     * @return one entry per consumer, in the order they were set up.
+     */
+    public List<ConsumerStats> getConsumers()
+    {
+        return consumers;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder()
+            .append("DisruptorStats{cursor=").append(cursor)
+            .append(", bufferSize=").append(bufferSize)
+            .append(", producerStalls=").append(producerStallCount)
+            .append(", producerParks=").append(producerParkCount)
+            .append(", wait=").append(waitCounters);
+        for (final ConsumerStats consumer : consumers)
+        {
+            sb.append("\n  ").append(consumer);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Progress of one event processor or worker pool.
+     */
+    public static final class ConsumerStats
+    {
+        private final String name;
+        private final long sequence;
+        private final boolean running;
+        private final boolean endOfChain;
+        private final ProcessorMetrics metrics;
+        private long backlog;
+
+        ConsumerStats(final ConsumerInfo consumerInfo)
+        {
+            this.sequence = Util.getMinimumSequence(consumerInfo.getSequences());
+            this.running = consumerInfo.isRunning();
+            this.endOfChain = consumerInfo.isEndOfChain();
+            if (consumerInfo instanceof EventProcessorInfo)
+            {
+                final EventProcessorInfo<?> info = (EventProcessorInfo<?>) consumerInfo;
+                final EventProcessor processor = info.getEventProcessor();
+                this.name = String.valueOf(info.getHandler() != null ? info.getHandler() : processor);
+                this.metrics = processor instanceof BatchEventProcessor ? ((BatchEventProcessor<?>) processor).getMetrics() : null;
+            }
+            else
+            {
+                final Sequence[] sequences = consumerInfo.getSequences();
+                this.name = "WorkerPool{workers=" + (sequences.length - 1) + '}';
+                this.metrics = null;
+            }
+        }
+
+        /**
+         * @return the handler, or the processor when it was added without one.
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * @return the last sequence processed, the slowest worker's for a worker pool.
+         */
+        public long getSequence()
+        {
+            return sequence;
+        }
+
+        /**
+         * @return the number of claimed events this consumer has yet to process.
+         */
+        public long getBacklog()
+        {
+            return backlog;
+        }
+
+        public boolean isRunning()
+        {
+            return running;
+        }
+
+        /**
+         * @return true if no other consumer waits for this one, i.e. it gates the producers.
+         */
+        public boolean isEndOfChain()
+        {
+            return endOfChain;
+        }
+
+        /**
+         * @return the live batch metrics, or null if the processor does not record them.
+         * @see Disruptor#recordProcessorMetrics()
+         */
+        public ProcessorMetrics getMetrics()
+        {
+            return metrics;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "ConsumerStats{" +
+                "name=" + name +
+                ", sequence=" + sequence +
+                ", backlog=" + backlog +
+                ", running=" + running +
+                ", endOfChain=" + endOfChain +
+                (metrics != null ? ", metrics=" + metrics : "") +
+                '}';
+        }
+    }
+}
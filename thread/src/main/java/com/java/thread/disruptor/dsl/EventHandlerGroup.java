@@ -180,6 +180,23 @@ public class EventHandlerGroup<T>
         return disruptor.createWorkerPool(sequences, handlers);
     }
 
+    /**
+     * <p>Add an event handler to the running disruptor that only processes events after every {@link EventProcessor}
+     * in this group has processed them.  It starts with the first event published after this call.</p>
+     *
+     * <p>For example if the handler <code>A</code> is running and the handler <code>B</code> must be added behind
+     * it:</p>
+     * <pre><code>dw.after(A).attachHandler(B);</code></pre>
+     *
+     * @param handler the event handler, which must not already be processing events.
+     * @return a {@link EventHandlerGroup} that can be used to attach further handlers after this one.
+     * @see Disruptor#attachHandler(EventHandler)
+     */
+    public EventHandlerGroup<T> attachHandler(final EventHandler<? super T> handler)
+    {
+        return disruptor.attachEventProcessor(sequences, Disruptor.ATTACH_AT_CURSOR, handler);
+    }
+
     /**
      * Create a dependency barrier for the processors in this group.
      * This allows custom event processors to have dependencies on
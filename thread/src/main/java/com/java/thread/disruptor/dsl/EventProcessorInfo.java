@@ -34,13 +34,24 @@ class EventProcessorInfo<T> implements ConsumerInfo
     private final EventProcessor eventprocessor;
     private final EventHandler<? super T> handler;
     private final SequenceBarrier barrier;
-    private boolean endOfChain = true;
+    private final Sequence[] barrierSequences;
+    /** number of consumers whose barrier includes this one, only changed while setting up or while holding the disruptor's lock */
+    private volatile int dependents;
 
     EventProcessorInfo(final EventProcessor eventprocessor, final EventHandler<? super T> handler, final SequenceBarrier barrier)
+    {
+        this(eventprocessor, handler, barrier, new Sequence[0]);
+    }
+
+    EventProcessorInfo(final EventProcessor eventprocessor,
+                       final EventHandler<? super T> handler,
+                       final SequenceBarrier barrier,
+                       final Sequence[] barrierSequences)
     {
         this.eventprocessor = eventprocessor;
         this.handler = handler;
         this.barrier = barrier;
+        this.barrierSequences = barrierSequences;
     }
 
     public EventProcessor getEventProcessor()
@@ -65,10 +76,18 @@ class EventProcessorInfo<T> implements ConsumerInfo
         return barrier;
     }
 
+    /**
+     * @return the sequences of the consumers this stage waits for, empty if it only waits for the cursor.
+     */
+    public Sequence[] getBarrierSequences()
+    {
+        return barrierSequences;
+    }
+
     @Override
     public boolean isEndOfChain()
     {
-        return endOfChain;
+        return dependents == 0;
     }
 
     @Override
@@ -83,13 +102,16 @@ class EventProcessorInfo<T> implements ConsumerInfo
         eventprocessor.halt();
     }
 
-    /**
-     *
-     */
     @Override
     public void markAsUsedInBarrier()
     {
-        endOfChain = false;
+        dependents++;
+    }
+
+    @Override
+    public void markAsUnusedInBarrier()
+    {
+        dependents--;
     }
 
     @Override
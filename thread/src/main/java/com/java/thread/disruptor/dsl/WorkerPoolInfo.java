@@ -10,7 +10,8 @@ class WorkerPoolInfo<T> implements ConsumerInfo
 {
     private final WorkerPool<T> workerPool;
     private final SequenceBarrier sequenceBarrier;
-    private boolean endOfChain = true;
+    /** number of consumers whose barrier includes this one, only changed while setting up or while holding the disruptor's lock */
+    private volatile int dependents;
 
     public WorkerPoolInfo(final WorkerPool<T> workerPool, final SequenceBarrier sequenceBarrier)
     {
@@ -33,7 +34,7 @@ class WorkerPoolInfo<T> implements ConsumerInfo
     @Override
     public boolean isEndOfChain()
     {
-        return endOfChain;
+        return dependents == 0;
     }
 
     @Override
@@ -51,7 +52,13 @@ class WorkerPoolInfo<T> implements ConsumerInfo
     @Override
     public void markAsUsedInBarrier()
     {
-        endOfChain = false;
+        dependents++;
+    }
+
+    @Override
+    public void markAsUnusedInBarrier()
+    {
+        dependents--;
     }
 
     @Override
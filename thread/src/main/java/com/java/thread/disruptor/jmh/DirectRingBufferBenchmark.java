@@ -0,0 +1,140 @@
+package com.java.thread.disruptor.jmh;
+
+import com.java.thread.disruptor.*;
+import com.java.thread.disruptor.dsl.ProducerType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One producer, one {@link BatchEventProcessor}, a 1M slot ring of quotes (instrument, price, quantity):
+ * <ul>
+ * <li>heap: {@link RingBuffer} of preallocated objects</li>
+ * <li>direct: {@link DirectRingBuffer} of 24 byte records in direct memory, read and written through {@link Flyweight}s</li>
+ * </ul>
+ * The heap ring holds a million live objects for the whole run, the direct ring none.
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 15:00
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectRingBufferBenchmark {
+
+    static final int BUFFER_SIZE = 1 << 20;
+
+    public static final class QuoteEvent {
+        long instrument;
+        long price;
+        long quantity;
+    }
+
+    public static final class Quote extends Flyweight {
+        static final int INSTRUMENT = 0;
+        static final int PRICE = 8;
+        static final int QUANTITY = 16;
+        static final int SIZE = 24;
+
+        long instrument() {
+            return getLong(INSTRUMENT);
+        }
+
+        long price() {
+            return getLong(PRICE);
+        }
+
+        long quantity() {
+            return getLong(QUANTITY);
+        }
+
+        void set(long instrument, long price, long quantity) {
+            putLong(INSTRUMENT, instrument);
+            putLong(PRICE, price);
+            putLong(QUANTITY, quantity);
+        }
+    }
+
+    abstract static class Consumer {
+        private BatchEventProcessor<?> processor;
+
+        private Thread thread;
+
+        void start(BatchEventProcessor<?> processor) {
+            this.processor = processor;
+            thread = new Thread(processor, "consumer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws InterruptedException {
+            processor.halt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Heap extends Consumer {
+        RingBuffer<QuoteEvent> ringBuffer;
+
+        long notional;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ringBuffer = RingBuffer.createSingleProducer(QuoteEvent::new, BUFFER_SIZE, new YieldingWaitStrategy());
+            BatchEventProcessor<QuoteEvent> processor = new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(),
+                    (event, sequence, endOfBatch) -> notional += event.price * event.quantity + event.instrument);
+            ringBuffer.addGatingSequences(processor.getSequence());
+            start(processor);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Direct extends Consumer {
+        DirectRingBuffer ringBuffer;
+
+        final Quote writer = new Quote();
+
+        long notional;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ringBuffer = DirectRingBuffer.createDirect(ProducerType.SINGLE, BUFFER_SIZE, Quote.SIZE, new YieldingWaitStrategy());
+            BatchEventProcessor<Quote> processor = new BatchEventProcessor<>(ringBuffer.newReader(new Quote()), ringBuffer.newBarrier(),
+                    (quote, sequence, endOfBatch) -> notional += quote.price() * quote.quantity() + quote.instrument());
+            ringBuffer.addGatingSequences(processor.getSequence());
+            start(processor);
+        }
+    }
+
+    @Benchmark
+    public void heap(Heap state) {
+        RingBuffer<QuoteEvent> ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        QuoteEvent event = ringBuffer.get(sequence);
+        event.instrument = sequence & 1023;
+        event.price = sequence;
+        event.quantity = 100;
+        ringBuffer.publish(sequence);
+    }
+
+    @Benchmark
+    public void direct(Direct state) {
+        DirectRingBuffer ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.wrap(state.writer, sequence).set(sequence & 1023, sequence, 100);
+        ringBuffer.publish(sequence);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(DirectRingBufferBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
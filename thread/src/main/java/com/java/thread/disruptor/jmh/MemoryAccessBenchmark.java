@@ -0,0 +1,151 @@
+package com.java.thread.disruptor.jmh;
+
+import com.java.thread.disruptor.*;
+import com.java.thread.disruptor.util.Util;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the ring buffer with the two memory access modes of {@link Util#MEMORY_ACCESS_PROPERTY}.
+ * The mode is fixed when the classes are initialised, so each mode runs in its own fork:
+ * {@link UnsafeAccess} and {@link AtomicAccess} inherit the same benchmarks.
+ * <ul>
+ * <li>oneToOne: one producer thread, one {@link BatchEventProcessor}, single producer sequencer</li>
+ * <li>threeToOne: three producer threads, one {@link BatchEventProcessor}, multi producer sequencer</li>
+ * <li>multicast: one producer thread, three {@link BatchEventProcessor}s each seeing every event</li>
+ * </ul>
+ * Each operation publishes one event.  Producers wait when the ring is full, so in steady state the score
+ * is the rate at which events pass through the slowest consumer.
+ *
+ * @author xuweizhi
+ * @date 2026/10/19 14:00
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class MemoryAccessBenchmark {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    public static final class ValueEvent {
+        long value;
+    }
+
+    static final class SummingHandler implements EventHandler<ValueEvent> {
+        long sum;
+
+        @Override
+        public void onEvent(ValueEvent event, long sequence, boolean endOfBatch) {
+            sum += event.value;
+        }
+    }
+
+    /**
+     * A ring buffer with its consumers running on their own threads for the whole trial.
+     */
+    public abstract static class Topology {
+        RingBuffer<ValueEvent> ringBuffer;
+
+        private final List<BatchEventProcessor<ValueEvent>> processors = new ArrayList<>();
+
+        private final List<Thread> threads = new ArrayList<>();
+
+        void start(RingBuffer<ValueEvent> ringBuffer, int consumers) {
+            this.ringBuffer = ringBuffer;
+            SequenceBarrier barrier = ringBuffer.newBarrier();
+            for (int i = 0; i < consumers; i++) {
+                BatchEventProcessor<ValueEvent> processor = new BatchEventProcessor<>(ringBuffer, barrier, new SummingHandler());
+                ringBuffer.addGatingSequences(processor.getSequence());
+                Thread thread = new Thread(processor, "consumer-" + i);
+                thread.setDaemon(true);
+                processors.add(processor);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws InterruptedException {
+            for (BatchEventProcessor<ValueEvent> processor : processors) {
+                processor.halt();
+            }
+            for (Thread thread : threads) {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        }
+
+        static WaitStrategy waitStrategy() {
+            // the consumers share cores with the producers on small machines, busy spinning would starve them
+            return new YieldingWaitStrategy();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OneToOne extends Topology {
+        @Setup(Level.Trial)
+        public void setup() {
+            start(RingBuffer.createSingleProducer(ValueEvent::new, BUFFER_SIZE, waitStrategy()), 1);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ThreeToOne extends Topology {
+        @Setup(Level.Trial)
+        public void setup() {
+            start(RingBuffer.createMultiProducer(ValueEvent::new, BUFFER_SIZE, waitStrategy()), 1);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Multicast extends Topology {
+        @Setup(Level.Trial)
+        public void setup() {
+            start(RingBuffer.createSingleProducer(ValueEvent::new, BUFFER_SIZE, waitStrategy()), 3);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void oneToOne(OneToOne topology) {
+        publish(topology.ringBuffer);
+    }
+
+    @Benchmark
+    @Threads(3)
+    public void threeToOne(ThreeToOne topology) {
+        publish(topology.ringBuffer);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void multicast(Multicast topology) {
+        publish(topology.ringBuffer);
+    }
+
+    private static void publish(RingBuffer<ValueEvent> ringBuffer) {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+    @Fork(value = 1, jvmArgsAppend = "-D" + Util.MEMORY_ACCESS_PROPERTY + "=" + Util.UNSAFE_ACCESS)
+    public static class UnsafeAccess extends MemoryAccessBenchmark {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = "-D" + Util.MEMORY_ACCESS_PROPERTY + "=" + Util.ATOMIC_ACCESS)
+    public static class AtomicAccess extends MemoryAccessBenchmark {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(MemoryAccessBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,34 @@
+package com.java.thread.disruptor.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts events to and from the payload of a journal record.
+ *
+ * @param <T> the type of event journaled.
+ */
+public interface EventCodec<T>
+{
+    /**
+     * @return the largest payload {@link #encode(Object, ByteBuffer)} writes, in bytes.
+     */
+    int maxLength();
+
+    /**
+     * Write the event at the buffer's position, advancing it.  The buffer's limit is set {@link #maxLength()}
+     * bytes past the position and its byte order is big-endian.  Called on the journal thread for every event, so it
+     * should not allocate.
+     *
+     * @param event  to write.
+     * @param buffer positioned at the start of the payload.
+     */
+    void encode(T event, ByteBuffer buffer);
+
+    /**
+     * Read a payload written by {@link #encode(Object, ByteBuffer)} into a preallocated event.
+     *
+     * @param buffer positioned at the start of the payload, limited to its end.
+     * @param event  to fill, a ring buffer entry claimed for replay.
+     */
+    void decode(ByteBuffer buffer, T event);
+}
@@ -0,0 +1,16 @@
+package com.java.thread.disruptor.journal;
+
+/**
+ * When a {@link JournalEventHandler} forces appended records from the page cache to disk.
+ */
+public enum FsyncPolicy
+{
+    /** Force at the end of every batch, downstream handlers only see events that are on disk */
+    PER_BATCH,
+
+    /** Force at the end of a batch, or on a wait strategy timeout, once the fsync interval has elapsed */
+    TIMED,
+
+    /** Never force, records reach the page cache and survive a process crash but not a machine crash */
+    NONE
+}
@@ -0,0 +1,429 @@
+package com.java.thread.disruptor.journal;
+
+import com.java.thread.disruptor.EventHandler;
+import com.java.thread.disruptor.LifecycleAware;
+import com.java.thread.disruptor.RingBuffer;
+import com.java.thread.disruptor.TimeoutHandler;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Write-ahead journal stage for a {@link com.java.thread.disruptor.dsl.Disruptor}.  Every event is appended to
+ * memory-mapped segment files in the journal thread, so producers never touch the disk.  Put it in front of the
+ * business handlers:</p>
+ * <pre>
+ * JournalEventHandler&lt;Order&gt; journal = new JournalEventHandler&lt;&gt;(dir, codec, FsyncPolicy.PER_BATCH);
+ * disruptor.handleEventsWith(journal).then(matchingEngine);
+ * RingBuffer&lt;Order&gt; ringBuffer = disruptor.start();
+ * journal.replay(snapshot.journalSequence + 1, ringBuffer);   // on restart, before producers start
+ * </pre>
+ * where the matching engine stores <code>journal.journalSequenceOf(sequence)</code> of the last event it applied
+ * along with its state, the ring buffer sequence it is handed means nothing after a restart.
+ *
+ * <p>A {@link com.java.thread.disruptor.BatchEventProcessor} advances its sequence once per batch, after the
+ * last {@link #onEvent(Object, long, boolean)} of the batch returns.  The records are forced according to the
+ * {@link FsyncPolicy} in that last call, so with {@link FsyncPolicy#PER_BATCH} downstream handlers only ever see
+ * events that are on disk, and a large burst costs one fsync rather than one per event.</p>
+ *
+ * <p>Records carry a journal sequence that counts journaled events from the first one ever written and keeps
+ * counting across restarts; it is unrelated to the ring buffer sequence, which starts again at 0 with every
+ * process, {@link #journalSequenceOf(long)} maps one to the other.  A segment is rolled when the next record might not fit, the full segment is unmapped as soon as it is
+ * rolled and the one being written when the handler shuts down or is closed.</p>
+ *
+ * @param <T> the type of event journaled.
+ */
+public final class JournalEventHandler<T> implements EventHandler<T>, LifecycleAware, TimeoutHandler, Closeable
+{
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_FSYNC_INTERVAL_MILLIS = 10;
+
+    private final File directory;
+    private final EventCodec<T> codec;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final int maxRecordLength;
+    private final CRC32 crc = new CRC32();
+
+    private final List<JournalSegment> segments;
+    private JournalSegment currentSegment;
+    private MappedByteBuffer current;
+
+    /** journal sequence the next appended record gets */
+    private long nextSequence;
+    private final long recoveredSequence;
+    private boolean dirty;
+    private long lastSyncNanos;
+
+    /** highest journal sequence that has been forced, or written for {@link FsyncPolicy#NONE} */
+    private volatile long durableSequence;
+
+    /** ring buffer sequences up to this one carry replayed events, which are already in the journal */
+    private volatile long replayedThrough = -1;
+
+    /** journal sequence of the first replayed event and the ring buffer sequence it was replayed into */
+    private long replayFrom;
+    private long replayBase;
+
+    /**
+     * Journal with {@link #DEFAULT_SEGMENT_SIZE} segments and, for {@link FsyncPolicy#TIMED}, a
+     * {@link #DEFAULT_FSYNC_INTERVAL_MILLIS} interval.
+     *
+     * @see #JournalEventHandler(File, EventCodec, FsyncPolicy, int, long)
+     */
+    public JournalEventHandler(final File directory, final EventCodec<T> codec, final FsyncPolicy fsyncPolicy) throws IOException
+    {
+        this(directory, codec, fsyncPolicy, DEFAULT_SEGMENT_SIZE, DEFAULT_FSYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Open the journal in the directory, creating it if needed.  The last segment is scanned to find the end of
+     * the valid records, a record torn by a crash and anything after it are overwritten by the next append.
+     *
+     * @param directory           holding the segment files.
+     * @param codec               to write events as records and read them back on replay.
+     * @param fsyncPolicy         when appended records are forced to disk.
+     * @param segmentSize         size of each segment file in bytes.
+     * @param fsyncIntervalMillis for {@link FsyncPolicy#TIMED}, the longest time records stay unforced while events
+     *                            keep arriving or the wait strategy times out.
+     * @throws IOException              if the directory or the last segment cannot be read.
+     * @throws IllegalArgumentException if a record of {@link EventCodec#maxLength()} does not fit in a segment.
+     */
+    public JournalEventHandler(final File directory,
+                               final EventCodec<T> codec,
+                               final FsyncPolicy fsyncPolicy,
+                               final int segmentSize,
+                               final long fsyncIntervalMillis) throws IOException
+    {
+        this.directory = directory;
+        this.codec = codec;
+        this.fsyncPolicy = fsyncPolicy;
+        this.segmentSize = segmentSize;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        // record plus the zero length that marks the end of the segment
+        this.maxRecordLength = JournalSegment.RECORD_OVERHEAD + codec.maxLength() + 4;
+        if (maxRecordLength > segmentSize)
+        {
+            throw new IllegalArgumentException("segmentSize " + segmentSize + " cannot hold a record of " + maxRecordLength + " bytes");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Unable to create journal directory " + directory);
+        }
+
+        this.segments = new CopyOnWriteArrayList<>(JournalSegment.list(directory));
+        if (!segments.isEmpty())
+        {
+            JournalSegment last = segments.get(segments.size() - 1);
+            MappedByteBuffer buffer = last.map(FileChannel.MapMode.READ_WRITE, Math.max(segmentSize, last.file.length()));
+            long[] next = {last.firstSequence};
+            buffer.position(last.scan(buffer, (sequence, payload) -> next[0] = sequence + 1));
+            nextSequence = next[0];
+            currentSegment = last;
+            current = buffer;
+        }
+        this.recoveredSequence = nextSequence;
+        this.durableSequence = nextSequence - 1;
+    }
+
+    @Override
+    public void onEvent(final T event, final long sequence, final boolean endOfBatch) throws Exception
+    {
+        if (sequence > replayedThrough)
+        {
+            append(event);
+        }
+        if (endOfBatch)
+        {
+            endOfBatch();
+        }
+    }
+
+    private void append(final T event) throws IOException
+    {
+        if (current == null || current.remaining() < maxRecordLength)
+        {
+            roll();
+        }
+        final MappedByteBuffer buffer = current;
+        final int start = buffer.position();
+        final int payloadStart = start + JournalSegment.HEADER;
+
+        buffer.limit(payloadStart + codec.maxLength()).position(payloadStart);
+        codec.encode(event, buffer);
+        final int checksumAt = buffer.position();
+        buffer.limit(buffer.capacity());
+
+        buffer.putLong(start + 4, nextSequence);
+        buffer.limit(checksumAt).position(start + 4);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(buffer.capacity());
+        buffer.putInt(checksumAt, (int) crc.getValue());
+
+        final int end = checksumAt + JournalSegment.TRAILER;
+        buffer.putInt(end, 0);
+        // length last, a record is not valid before it is complete
+        buffer.putInt(start, end - start);
+        buffer.position(end);
+
+        nextSequence++;
+        dirty = true;
+    }
+
+    private void roll() throws IOException
+    {
+        if (current != null && dirty && fsyncPolicy != FsyncPolicy.NONE)
+        {
+            current.force();
+        }
+        JournalSegment.unmap(current);
+        current = null;
+        // after close() the segment may still be empty, it is reopened rather than listed twice
+        JournalSegment segment = currentSegment != null && currentSegment.firstSequence == nextSequence ?
+            currentSegment : JournalSegment.create(directory, nextSequence);
+        current = segment.map(FileChannel.MapMode.READ_WRITE, segmentSize);
+        if (segment != currentSegment)
+        {
+            currentSegment = segment;
+            segments.add(segment);
+        }
+    }
+
+    private void endOfBatch()
+    {
+        if (!dirty)
+        {
+            return;
+        }
+        switch (fsyncPolicy)
+        {
+            case PER_BATCH:
+                force();
+                break;
+            case TIMED:
+                if (System.nanoTime() - lastSyncNanos >= fsyncIntervalNanos)
+                {
+                    force();
+                }
+                break;
+            default:
+                dirty = false;
+                durableSequence = nextSequence - 1;
+        }
+    }
+
+    private void force()
+    {
+        current.force();
+        dirty = false;
+        lastSyncNanos = System.nanoTime();
+        durableSequence = nextSequence - 1;
+    }
+
+    /**
+     * Force records left unforced by {@link FsyncPolicy#TIMED} when no more events arrive, needs a wait strategy
+     * that times out such as {@link com.java.thread.disruptor.TimeoutBlockingWaitStrategy}.
+     */
+    @Override
+    public void onTimeout(final long sequence)
+    {
+        if (dirty && fsyncPolicy == FsyncPolicy.TIMED && System.nanoTime() - lastSyncNanos >= fsyncIntervalNanos)
+        {
+            force();
+        }
+    }
+
+    @Override
+    public void onStart()
+    {
+        lastSyncNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onShutdown()
+    {
+        close();
+    }
+
+    /**
+     * Force any unforced records and unmap the segment being written.  Called by {@link #onShutdown()}, call it
+     * directly when the handler was opened but never run; it must not run concurrently with the journal thread.
+     * An event appended afterwards starts a new segment.
+     */
+    @Override
+    public void close()
+    {
+        if (current == null)
+        {
+            return;
+        }
+        if (dirty && fsyncPolicy != FsyncPolicy.NONE)
+        {
+            force();
+        }
+        JournalSegment.unmap(current);
+        current = null;
+    }
+
+    /**
+     * <p>Re-publish journaled events into the ring buffer, from the given journal sequence up to the last record
+     * found when the journal was opened.  This handler recognises the replayed ring buffer sequences and does not
+     * journal them again, downstream handlers see them like any other event.</p>
+     *
+     * <p>Call it after the disruptor has started, so the ring drains while it is filled, and before any producer
+     * publishes: an event published by someone else during the replay would be taken for a replayed one.</p>
+     *
+     * @param fromSequence first journal sequence to replay, e.g. one past the {@link #journalSequenceOf(long)} a
+     *                     downstream handler stored for the last event it processed before the restart.
+     * @param ringBuffer   the ring buffer this handler consumes from.
+     * @return the number of events replayed.
+     * @throws IOException              if a segment cannot be read.
+     * @throws IllegalArgumentException if fromSequence is older than the oldest segment left, e.g. one removed by
+     *                                  {@link #deleteSegmentsBefore(long)}.
+     * @throws IllegalStateException    if something else published to the ring buffer during the replay.
+     * @see #journalSequenceOf(long)
+     */
+    public long replay(final long fromSequence, final RingBuffer<T> ringBuffer) throws IOException
+    {
+        if (fromSequence < recoveredSequence && !segments.isEmpty() && fromSequence < segments.get(0).firstSequence)
+        {
+            throw new IllegalArgumentException("Journal sequence " + fromSequence + " is older than the oldest segment, which starts at " +
+                segments.get(0).firstSequence);
+        }
+        long replayed = 0;
+        long cursor = ringBuffer.getCursor();
+        // written before replayedThrough, which publishes them to journalSequenceOf
+        replayFrom = fromSequence;
+        replayBase = cursor + 1;
+        for (int i = 0; i < segments.size(); i++)
+        {
+            JournalSegment segment = segments.get(i);
+            if (segment.firstSequence >= recoveredSequence)
+            {
+                break;
+            }
+            if (i + 1 < segments.size() && segments.get(i + 1).firstSequence <= fromSequence)
+            {
+                continue;
+            }
+            long[] published = {cursor, replayed};
+            MappedByteBuffer buffer = segment.map(FileChannel.MapMode.READ_ONLY, 0);
+            try
+            {
+                segment.scan(buffer, (sequence, payload) ->
+                {
+                    if (sequence < fromSequence || sequence >= recoveredSequence)
+                    {
+                        return;
+                    }
+                    if (ringBuffer.getCursor() != published[0])
+                    {
+                        throw new IllegalStateException("Events were published to the ring buffer during the replay");
+                    }
+                    long next = ringBuffer.next();
+                    replayedThrough = next;
+                    try
+                    {
+                        codec.decode(payload, ringBuffer.get(next));
+                    }
+                    finally
+                    {
+                        ringBuffer.publish(next);
+                    }
+                    published[0] = next;
+                    published[1]++;
+                });
+            }
+            finally
+            {
+                JournalSegment.unmap(buffer);
+            }
+            cursor = published[0];
+            replayed = published[1];
+        }
+        return replayed;
+    }
+
+    /**
+     * Journal sequence of the event at a ring buffer sequence, for a downstream handler to store with its state and
+     * pass to {@link #replay(long, RingBuffer)} after a restart.  Valid for sequences that went through this
+     * handler, which must be the first stage of a ring buffer that nothing but {@link #replay(long, RingBuffer)}
+     * published to before the producers started.
+     *
+     * @param ringSequence a ring buffer sequence this handler has processed.
+     * @return the journal sequence of its record.
+     */
+    public long journalSequenceOf(final long ringSequence)
+    {
+        final long replayed = replayedThrough;
+        if (ringSequence <= replayed)
+        {
+            return replayFrom + ringSequence - replayBase;
+        }
+        return recoveredSequence + ringSequence - replayed - 1;
+    }
+
+    /**
+     * Delete segments whose records all precede the given journal sequence, e.g. once a snapshot covers them.
+     * The segment being written is never deleted.
+     *
+     * @param sequence first journal sequence that must be kept.
+     * @return the number of segments deleted.
+     */
+    public int deleteSegmentsBefore(final long sequence)
+    {
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++)
+        {
+            JournalSegment segment = segments.get(i);
+            if (segments.get(i + 1).firstSequence > sequence || segment == currentSegment)
+            {
+                break;
+            }
+            if (segment.file.delete())
+            {
+                segments.remove(i--);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * @return the highest journal sequence known to be forced to disk, or written to the page cache with
+     * {@link FsyncPolicy#NONE}; -1 if none.
+     */
+    public long getDurableSequence()
+    {
+        return durableSequence;
+    }
+
+    /**
+     * @return the journal sequence of the first record appended by this process.
+     */
+    public long getRecoveredSequence()
+    {
+        return recoveredSequence;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "JournalEventHandler{" +
+            "directory=" + directory +
+            ", fsyncPolicy=" + fsyncPolicy +
+            ", segmentSize=" + segmentSize +
+            ", segments=" + segments.size() +
+            ", durableSequence=" + durableSequence +
+            '}';
+    }
+}
@@ -0,0 +1,202 @@
+package com.java.thread.disruptor.journal;
+
+import com.java.thread.disruptor.util.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One journal file, named after the sequence of its first record.  A record is laid out as
+ * <pre>
+ * int  recordLength   header + payload + checksum, never 0
+ * long sequence       journal sequence, consecutive across segments
+ * ...  payload        written by the {@link EventCodec}
+ * int  checksum       CRC32 of sequence and payload
+ * </pre>
+ * All values are big-endian, whatever the platform that wrote them.  The records of a segment end at the first
+ * zero length, at a record whose sequence or checksum is wrong (a write torn by a crash), or at the end of the file.
+ */
+final class JournalSegment
+{
+    static final String SUFFIX = ".journal";
+    static final int HEADER = 4 + 8;
+    static final int TRAILER = 4;
+    static final int RECORD_OVERHEAD = HEADER + TRAILER;
+
+    final File file;
+    final long firstSequence;
+
+    JournalSegment(final File file, final long firstSequence)
+    {
+        this.file = file;
+        this.firstSequence = firstSequence;
+    }
+
+    static JournalSegment create(final File directory, final long firstSequence)
+    {
+        return new JournalSegment(new File(directory, String.format("%020d", firstSequence) + SUFFIX), firstSequence);
+    }
+
+    /**
+     * @return the segments in the directory, ordered by first sequence.
+     */
+    static List<JournalSegment> list(final File directory)
+    {
+        List<JournalSegment> segments = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                String name = file.getName();
+                if (file.isFile() && name.endsWith(SUFFIX))
+                {
+                    try
+                    {
+                        segments.add(new JournalSegment(file, Long.parseLong(name.substring(0, name.length() - SUFFIX.length()))));
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        // not a segment
+                    }
+                }
+            }
+        }
+        Collections.sort(segments, Comparator.comparingLong(segment -> segment.firstSequence));
+        return segments;
+    }
+
+    MappedByteBuffer map(final FileChannel.MapMode mode, final long size) throws IOException
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw");
+             FileChannel channel = raf.getChannel())
+        {
+            MappedByteBuffer buffer = channel.map(mode, 0, mode == FileChannel.MapMode.READ_ONLY ? channel.size() : size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return buffer;
+        }
+    }
+
+    /**
+     * Release the mapping now rather than when the buffer is garbage collected, so rolled and closed segments do
+     * not pile up in the address space and can be deleted on platforms that lock mapped files.  The buffer must
+     * not be touched afterwards.  Falls back to the garbage collector when the runtime does not allow it.
+     *
+     * @param buffer a buffer returned by {@link #map(FileChannel.MapMode, long)}, may be null.
+     */
+    static void unmap(final MappedByteBuffer buffer)
+    {
+        if (buffer == null)
+        {
+            return;
+        }
+        try
+        {
+            if (Unmapper.INVOKE_CLEANER != null)
+            {
+                Unmapper.INVOKE_CLEANER.invoke(Util.getUnsafe(), buffer);
+            }
+            else if (Unmapper.CLEANER != null)
+            {
+                Object cleaner = Unmapper.CLEANER.invoke(buffer);
+                if (cleaner != null)
+                {
+                    Unmapper.CLEAN.invoke(cleaner);
+                }
+            }
+        }
+        catch (Exception | LinkageError e)
+        {
+            // left to the garbage collector
+        }
+    }
+
+    /**
+     * {@code Unsafe.invokeCleaner} on Java 9 and later, {@code DirectBuffer.cleaner().clean()} on Java 8.
+     */
+    private static final class Unmapper
+    {
+        private static final Method INVOKE_CLEANER;
+        private static final Method CLEANER;
+        private static final Method CLEAN;
+
+        static
+        {
+            Method invokeCleaner = null;
+            Method cleaner = null;
+            Method clean = null;
+            try
+            {
+                invokeCleaner = Class.forName("sun.misc.Unsafe").getMethod("invokeCleaner", ByteBuffer.class);
+            }
+            catch (Exception | LinkageError e)
+            {
+                try
+                {
+                    cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                    clean = cleaner.getReturnType().getMethod("clean");
+                }
+                catch (Exception | LinkageError ignored)
+                {
+                    cleaner = null;
+                }
+            }
+            INVOKE_CLEANER = invokeCleaner;
+            CLEANER = cleaner;
+            CLEAN = clean;
+        }
+    }
+
+    /**
+     * Visit the valid records of a mapped segment in order.
+     *
+     * @param buffer  the mapped segment.
+     * @param visitor called with a view positioned at each payload and limited to its end.
+     * @return the offset just past the last valid record.
+     */
+    int scan(final ByteBuffer buffer, final RecordVisitor visitor)
+    {
+        ByteBuffer view = buffer.duplicate().order(buffer.order());
+        CRC32 crc = new CRC32();
+        int capacity = buffer.capacity();
+        int position = 0;
+        long expected = firstSequence;
+        while (position + HEADER <= capacity)
+        {
+            int length = buffer.getInt(position);
+            if (length < RECORD_OVERHEAD || length > capacity - position || buffer.getLong(position + 4) != expected)
+            {
+                break;
+            }
+            int checksumAt = position + length - TRAILER;
+            view.limit(checksumAt).position(position + 4);
+            crc.reset();
+            crc.update(view);
+            if ((int) crc.getValue() != buffer.getInt(checksumAt))
+            {
+                break;
+            }
+            view.limit(checksumAt).position(position + HEADER);
+            visitor.visit(expected, view);
+            position += length;
+            expected++;
+        }
+        return position;
+    }
+
+    interface RecordVisitor
+    {
+        void visit(long sequence, ByteBuffer payload);
+    }
+}
@@ -82,33 +82,76 @@ public final class Util {
         return sequences;
     }
 
-    private static final Unsafe THE_UNSAFE;
+    /**
+     * System property selecting how {@link Sequence}, the multi producer availability buffer and the ring buffer
+     * entries are accessed: {@value #UNSAFE_ACCESS} (the default) or {@value #ATOMIC_ACCESS}.  Read once when
+     * this class is initialised, so the choice is a constant the JIT folds away.
+     */
+    public static final String MEMORY_ACCESS_PROPERTY = "com.java.thread.disruptor.memoryAccess";
 
-    static {
-        try {
-            final PrivilegedExceptionAction<Unsafe> action = new PrivilegedExceptionAction<Unsafe>() {
-                @Override
-                public Unsafe run() throws Exception {
-                    Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
-                    theUnsafe.setAccessible(true);
-                    return (Unsafe) theUnsafe.get(null);
-                }
-            };
-
-            THE_UNSAFE = AccessController.doPrivileged(action);
-        } catch (Exception e) {
-            throw new RuntimeException("Unable to load unsafe", e);
+    /**
+     * Ordered and volatile access through {@code sun.misc.Unsafe} and raw field and array offsets.
+     */
+    public static final String UNSAFE_ACCESS = "unsafe";
+
+    /**
+     * Ordered and volatile access through {@link java.util.concurrent.atomic.AtomicLongFieldUpdater},
+     * {@link java.util.concurrent.atomic.AtomicIntegerArray} and plain array indexing.  These are the Java 8
+     * equivalents of VarHandle release/acquire access and need no access to {@code sun.misc.Unsafe}, so this
+     * mode keeps working on runtimes that restrict or remove it.
+     */
+    public static final String ATOMIC_ACCESS = "atomic";
+
+    private static final boolean UNSAFE_MEMORY_ACCESS =
+            !ATOMIC_ACCESS.equalsIgnoreCase(System.getProperty(MEMORY_ACCESS_PROPERTY, UNSAFE_ACCESS).trim()) && UnsafeHolder.THE_UNSAFE != null;
+
+    /**
+     * Loaded on first use, nothing touches {@code sun.misc.Unsafe} in {@link #ATOMIC_ACCESS} mode.
+     */
+    private static final class UnsafeHolder {
+        private static final Unsafe THE_UNSAFE = load();
+
+        private static Unsafe load() {
+            try {
+                final PrivilegedExceptionAction<Unsafe> action = new PrivilegedExceptionAction<Unsafe>() {
+                    @Override
+                    public Unsafe run() throws Exception {
+                        Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+                        theUnsafe.setAccessible(true);
+                        return (Unsafe) theUnsafe.get(null);
+                    }
+                };
+
+                return AccessController.doPrivileged(action);
+            } catch (Exception | LinkageError e) {
+                return null;
+            }
         }
     }
 
+    /**
+     * Whether {@link Sequence}, the sequencers and the ring buffer use {@code sun.misc.Unsafe}.  False when
+     * {@value #MEMORY_ACCESS_PROPERTY} is {@value #ATOMIC_ACCESS} or Unsafe cannot be loaded.
+     *
+     * @return true for {@link #UNSAFE_ACCESS} mode
+     */
+    public static boolean isUnsafeMemoryAccess() {
+        return UNSAFE_MEMORY_ACCESS;
+    }
+
     /**
      * Get a handle on the Unsafe instance, used for accessing low-level concurrency
      * and memory constructs.
      *
      * @return The Unsafe
+     * @throws RuntimeException if Unsafe is not available on this runtime
      */
     public static Unsafe getUnsafe() {
-        return THE_UNSAFE;
+        Unsafe unsafe = UnsafeHolder.THE_UNSAFE;
+        if (unsafe == null) {
+            throw new RuntimeException("Unable to load unsafe");
+        }
+        return unsafe;
     }
 
     /**
@@ -0,0 +1,205 @@
+package com.java.thread.disruptor.journal;
+
+import com.java.thread.disruptor.RingBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class JournalEventHandlerTest
+{
+    /** record of a {@link LongEvent}: header, 8 byte payload, checksum */
+    private static final int RECORD_LENGTH = JournalSegment.RECORD_OVERHEAD + 8;
+
+    /** room for two records and the end marker, the third one rolls */
+    private static final int SEGMENT_SIZE = 2 * RECORD_LENGTH + 16;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldContinueSequenceAfterReopen() throws Exception
+    {
+        File directory = folder.getRoot();
+        JournalEventHandler<LongEvent> journal = open(directory);
+        append(journal, 0, 10, 11, 12);
+        journal.close();
+
+        journal = open(directory);
+        assertEquals(3, journal.getRecoveredSequence());
+        assertEquals(2, journal.getDurableSequence());
+        append(journal, 0, 13);
+        journal.close();
+
+        journal = open(directory);
+        assertEquals(4, journal.getRecoveredSequence());
+        assertReplayed(journal, 0, 10, 11, 12, 13);
+        journal.close();
+    }
+
+    @Test
+    public void shouldTruncateTornTail() throws Exception
+    {
+        File directory = folder.getRoot();
+        JournalEventHandler<LongEvent> journal = open(directory);
+        append(journal, 0, 10, 11);
+        journal.close();
+
+        // second record of the only segment loses its checksum, as if the crash hit before it was written
+        List<JournalSegment> segments = JournalSegment.list(directory);
+        assertEquals(1, segments.size());
+        try (RandomAccessFile file = new RandomAccessFile(segments.get(0).file, "rw"))
+        {
+            file.seek(2 * RECORD_LENGTH - JournalSegment.TRAILER);
+            file.writeInt(0xDEADBEEF);
+        }
+
+        journal = open(directory);
+        assertEquals(1, journal.getRecoveredSequence());
+        append(journal, 0, 21);
+        journal.close();
+
+        journal = open(directory);
+        assertEquals(2, journal.getRecoveredSequence());
+        assertReplayed(journal, 0, 10, 21);
+        journal.close();
+    }
+
+    @Test
+    public void shouldReplayFromSequenceAcrossSegments() throws Exception
+    {
+        File directory = folder.getRoot();
+        JournalEventHandler<LongEvent> journal = open(directory);
+        append(journal, 0, 10, 11, 12, 13, 14, 15);
+        journal.close();
+        assertEquals(3, JournalSegment.list(directory).size());
+
+        journal = open(directory);
+        assertEquals(6, journal.getRecoveredSequence());
+        assertReplayed(journal, 3, 13, 14, 15);
+        assertEquals(3, journal.journalSequenceOf(0));
+        assertEquals(5, journal.journalSequenceOf(2));
+        append(journal, 0, 13, 14, 15, 16);
+        assertEquals(6, journal.journalSequenceOf(3));
+        journal.close();
+    }
+
+    @Test
+    public void shouldMapRingSequencesWithoutReplay() throws Exception
+    {
+        File directory = folder.getRoot();
+        JournalEventHandler<LongEvent> journal = open(directory);
+        append(journal, 0, 10, 11);
+        journal.close();
+
+        journal = open(directory);
+        assertEquals(2, journal.journalSequenceOf(0));
+        assertEquals(4, journal.journalSequenceOf(2));
+        journal.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectReplayFromDeletedSegment() throws Exception
+    {
+        File directory = folder.getRoot();
+        JournalEventHandler<LongEvent> journal = open(directory);
+        append(journal, 0, 10, 11, 12, 13, 14, 15);
+        journal.close();
+
+        journal = open(directory);
+        assertEquals(2, journal.deleteSegmentsBefore(4));
+        try
+        {
+            assertReplayed(journal, 4, 14, 15);
+            journal.replay(3, RingBuffer.createSingleProducer(LongEvent::new, 16));
+        }
+        finally
+        {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void shouldNotJournalReplayedEventsAgain() throws Exception
+    {
+        File directory = folder.getRoot();
+        JournalEventHandler<LongEvent> journal = open(directory);
+        append(journal, 0, 10, 11);
+        journal.close();
+
+        journal = open(directory);
+        RingBuffer<LongEvent> ringBuffer = assertReplayed(journal, 0, 10, 11);
+        // the journal stage sees the replayed ring buffer sequences 0 and 1, then a new event
+        append(journal, 0, 10, 11, 12);
+        assertEquals(1, ringBuffer.getCursor());
+        journal.close();
+
+        journal = open(directory);
+        assertEquals(3, journal.getRecoveredSequence());
+        assertReplayed(journal, 0, 10, 11, 12);
+        journal.close();
+    }
+
+    private static JournalEventHandler<LongEvent> open(final File directory) throws IOException
+    {
+        return new JournalEventHandler<>(directory, new LongCodec(), FsyncPolicy.PER_BATCH, SEGMENT_SIZE, 0);
+    }
+
+    private static void append(final JournalEventHandler<LongEvent> journal, final long firstSequence, final long... values)
+        throws Exception
+    {
+        journal.onStart();
+        for (int i = 0; i < values.length; i++)
+        {
+            LongEvent event = new LongEvent();
+            event.value = values[i];
+            journal.onEvent(event, firstSequence + i, i == values.length - 1);
+        }
+    }
+
+    private static RingBuffer<LongEvent> assertReplayed(
+        final JournalEventHandler<LongEvent> journal, final long fromSequence, final long... expected) throws IOException
+    {
+        RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent::new, 16);
+        assertEquals(expected.length, journal.replay(fromSequence, ringBuffer));
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertEquals(expected[i], ringBuffer.get(i).value);
+        }
+        return ringBuffer;
+    }
+
+    private static final class LongEvent
+    {
+        long value;
+    }
+
+    private static final class LongCodec implements EventCodec<LongEvent>
+    {
+        @Override
+        public int maxLength()
+        {
+            return 8;
+        }
+
+        @Override
+        public void encode(final LongEvent event, final ByteBuffer buffer)
+        {
+            buffer.putLong(event.value);
+        }
+
+        @Override
+        public void decode(final ByteBuffer buffer, final LongEvent event)
+        {
+            event.value = buffer.getLong();
+        }
+    }
+}